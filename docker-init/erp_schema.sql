@@ -30,7 +30,8 @@ CREATE TABLE IF NOT EXISTS courses (
   title VARCHAR(150) NOT NULL,
   credits TINYINT UNSIGNED NOT NULL CHECK (credits > 0),
   description TEXT,
-  is_active BOOLEAN DEFAULT TRUE
+  is_active BOOLEAN DEFAULT TRUE,
+  updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)
 );
 
 CREATE TABLE IF NOT EXISTS sections (
@@ -57,6 +58,8 @@ CREATE TABLE IF NOT EXISTS enrollments (
   dropped_on DATETIME,
   final_grade VARCHAR(4),
   UNIQUE KEY unique_student_section (student_id, section_id),
+  KEY idx_enrollments_section_status (section_id, status),
+  KEY idx_enrollments_student_status (student_id, status),
   FOREIGN KEY (student_id) REFERENCES students(student_id) ON DELETE CASCADE,
   FOREIGN KEY (section_id) REFERENCES sections(section_id) ON DELETE CASCADE
 );
@@ -72,9 +75,23 @@ CREATE TABLE IF NOT EXISTS grades (
   remarks VARCHAR(255),
   created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
 
+  KEY idx_grades_enrollment_component (enrollment_id, component_name),
   FOREIGN KEY (enrollment_id) REFERENCES enrollments(enrollment_id) ON DELETE CASCADE
 );
 
+CREATE TABLE IF NOT EXISTS waitlist (
+  waitlist_id INT UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  section_id INT UNSIGNED NOT NULL,
+  student_id INT UNSIGNED NOT NULL,
+  position INT UNSIGNED NOT NULL,
+  joined_on DATETIME DEFAULT CURRENT_TIMESTAMP,
+  UNIQUE KEY unique_waitlist_student (section_id, student_id),
+  UNIQUE KEY unique_waitlist_position (section_id, position),
+  KEY idx_waitlist_student (student_id),
+  FOREIGN KEY (section_id) REFERENCES sections(section_id) ON DELETE CASCADE,
+  FOREIGN KEY (student_id) REFERENCES students(student_id) ON DELETE CASCADE
+);
+
 CREATE TABLE IF NOT EXISTS settings (
   `key` VARCHAR(50) NOT NULL PRIMARY KEY,
   `value` VARCHAR(100),
@@ -98,6 +115,8 @@ CREATE TABLE IF NOT EXISTS notifications (
     message TEXT NOT NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
 
+    KEY idx_notifications_target (target_type, target_id, created_at),
+
     CONSTRAINT fk_sender_user
         FOREIGN KEY (sender_user_id)
         REFERENCES authdb.users_auth(user_id)
@@ -108,3 +127,26 @@ ENGINE=InnoDB
 DEFAULT CHARSET=utf8mb4
 COLLATE=utf8mb4_unicode_ci;
 
+
+CREATE TABLE IF NOT EXISTS notification_inbox (
+  user_id INT UNSIGNED NOT NULL,
+  notif_id INT UNSIGNED NOT NULL,
+  PRIMARY KEY (user_id, notif_id),
+  KEY idx_notification_inbox_notif (notif_id),
+  CONSTRAINT fk_inbox_notification FOREIGN KEY (notif_id) REFERENCES notifications(id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS notification_reads (
+  user_id INT UNSIGNED NOT NULL PRIMARY KEY,
+  read_ranges VARBINARY(8192) NOT NULL,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS change_log (
+  topic VARCHAR(32) NOT NULL PRIMARY KEY,
+  version BIGINT UNSIGNED NOT NULL DEFAULT 0,
+  updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)
+) ENGINE=InnoDB;
+
+INSERT IGNORE INTO change_log (topic) VALUES
+  ('maintenance'), ('deadlines'), ('notifications'), ('catalog');
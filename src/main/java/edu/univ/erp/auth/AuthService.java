@@ -65,12 +65,13 @@ public class AuthService {
       case STUDENT -> {
         log.debug("Loading Student profile for {}", username);
         var s = studentDao.findByUserId(rec.userId());
-        yield new Student(rec.userId(), rec.username(), s.getRollNo(), s.getProgram(), s.getYear(), s.getEmail());
+        yield new Student(rec.userId(), rec.username(), s.getRollNo(), s.getProgram(), s.getYear(), s.getEmail(),
+            s.getStudentId());
       }
       case INSTRUCTOR -> {
         log.debug("Loading Instructor profile for {}", username);
         var i = instructorDao.findByUserId(rec.userId());
-        yield new Instructor(rec.userId(), rec.username(), i.getDepartment(), i.getEmail());
+        yield new Instructor(rec.userId(), rec.username(), i.getDepartment(), i.getEmail(), i.getInstructorId());
       }
       default -> {
         log.error("Unknown role for {}", username);
@@ -1,6 +1,7 @@
 package edu.univ.erp.auth;
 
 import edu.univ.erp.domain.User;
+import java.util.concurrent.Callable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,6 +28,22 @@ public class SessionManager {
     current.set(u);
   }
 
+  // Runs work with u as the current user on this thread and puts back
+  // whatever was there before. For handing a session to a worker thread.
+  public static <T> T callAs(User u, Callable<T> work) throws Exception {
+    User previous = current.get();
+    current.set(u);
+    try {
+      return work.call();
+    } finally {
+      if (previous == null) {
+        current.remove();
+      } else {
+        current.set(previous);
+      }
+    }
+  }
+
   public static void logout() {
     User u = current.get();
     if (u != null) {
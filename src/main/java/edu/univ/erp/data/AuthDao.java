@@ -3,6 +3,7 @@ package edu.univ.erp.data;
 import edu.univ.erp.exception.*;
 import edu.univ.erp.domain.Role;
 import java.sql.*;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,24 +16,28 @@ public class AuthDao extends BaseDao {
       int failedAttempts, Long lockedUntil) {
   }
 
+  private static final String COLUMNS =
+      "user_id, username, role, password_hash, status, failed_attempts, locked_until";
+
+  private static final RowMapper<AuthUserRecord> USER = r -> new AuthUserRecord(
+      r.getInt("user_id"),
+      r.getString("username"),
+      Role.valueOf(r.getString("role")),
+      r.getString("password_hash"),
+      r.getString("status"),
+      r.getInt("failed_attempts"),
+      r.getObject("locked_until", Long.class));
+
   public AuthUserRecord findByUsername(String username) {
     log.info("findByUsername called for username={}", username);
-    String sql = "SELECT user_id, username, role, password_hash, status, failed_attempts, locked_until "
-        + "FROM users_auth WHERE username = ?";
+    String sql = "SELECT " + COLUMNS + " FROM users_auth WHERE username = ?";
 
-    try (Connection con = DBPool.auth().getConnection();
-        ResultSet rs = runQuery(con, sql, username)) {
-
-      if (rs.next()) {
-        log.debug("User {} found with user_id={}", username, rs.getInt("user_id"));
-        return new AuthUserRecord(
-            rs.getInt("user_id"),
-            rs.getString("username"),
-            Role.valueOf(rs.getString("role")),
-            rs.getString("password_hash"),
-            rs.getString("status"),
-            rs.getInt("failed_attempts"),
-            rs.getObject("locked_until", Long.class));
+    try (Connection con = DBPool.auth().getConnection()) {
+
+      Optional<AuthUserRecord> user = queryOne(con, sql, USER, username);
+      if (user.isPresent()) {
+        log.debug("User {} found with user_id={}", username, user.get().userId());
+        return user.get();
       }
 
       log.warn("User {} not found", username);
@@ -47,22 +52,14 @@ public class AuthDao extends BaseDao {
   public AuthUserRecord findByUserId(int userId) {
     log.info("findByUserId called for userId={}", userId);
 
-    String sql = "SELECT user_id, username, role, password_hash, status, failed_attempts, locked_until "
-        + "FROM users_auth WHERE user_id = ?";
+    String sql = "SELECT " + COLUMNS + " FROM users_auth WHERE user_id = ?";
 
-    try (Connection con = DBPool.auth().getConnection();
-        ResultSet rs = runQuery(con, sql, userId)) {
+    try (Connection con = DBPool.auth().getConnection()) {
 
-      if (rs.next()) {
+      Optional<AuthUserRecord> user = queryOne(con, sql, USER, userId);
+      if (user.isPresent()) {
         log.debug("User with user_id={} found", userId);
-        return new AuthUserRecord(
-            rs.getInt("user_id"),
-            rs.getString("username"),
-            Role.valueOf(rs.getString("role")),
-            rs.getString("password_hash"),
-            rs.getString("status"),
-            rs.getInt("failed_attempts"),
-            rs.getObject("locked_until", Long.class));
+        return user.get();
       }
 
       log.warn("User with user_id={} not found", userId);
@@ -190,14 +187,11 @@ public class AuthDao extends BaseDao {
     log.info("findUserIdByUsername called for username={}", username);
 
     String sql = "SELECT user_id FROM users_auth WHERE username = ?";
-    try (Connection con = DBPool.auth().getConnection();
-         PreparedStatement ps = con.prepareStatement(sql)) {
-
-      ps.setString(1, username);
-      ResultSet rs = ps.executeQuery();
+    try (Connection con = DBPool.auth().getConnection()) {
 
-      if (rs.next()) {
-        int userId = rs.getInt("user_id");
+      Optional<Integer> found = queryOne(con, sql, r -> r.getInt("user_id"), username);
+      if (found.isPresent()) {
+        int userId = found.get();
         log.debug("Username {} -> user_id={}", username, userId);
         return userId;
       }
@@ -213,12 +207,8 @@ public class AuthDao extends BaseDao {
 
   public boolean usernameExists(String username) {
     String sql = "SELECT 1 FROM users_auth WHERE username = ?";
-    try (Connection con = DBPool.auth().getConnection();
-         PreparedStatement ps = con.prepareStatement(sql)) {
-  
-      ps.setString(1, username);
-      ResultSet rs = ps.executeQuery();
-      return rs.next();
+    try (Connection con = DBPool.auth().getConnection()) {
+      return exists(con, sql, username);
   
     } catch (SQLException e) {
       log.error("usernameExists DB error for username={}", username, e);
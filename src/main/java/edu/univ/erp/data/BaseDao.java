@@ -2,12 +2,25 @@ package edu.univ.erp.data;
 
 import edu.univ.erp.exception.DatabaseException;
 import java.sql.*;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public abstract class BaseDao {
   private static final Logger log = LoggerFactory.getLogger(BaseDao.class);
 
+  protected static final int STREAM_FETCH_SIZE = 500;
+
+  private static volatile int batchSize = 500;
+
+  static void configure(Properties props) {
+    batchSize = Integer.parseInt(props.getProperty("db.batch.size", "500"));
+    log.info("DAO batch size set to {}", batchSize);
+  }
+
   protected void closeQuietly(AutoCloseable c) {
     try {
       if (c != null) {
@@ -21,25 +34,156 @@ public abstract class BaseDao {
 
   protected void runUpdate(Connection con, String sql, Object... params) {
     log.debug("runUpdate SQL: {} | params={}", sql, params);
+    long start = System.nanoTime();
     try (PreparedStatement ps = con.prepareStatement(sql)) {
-      for (int i = 0; i < params.length; i++)
-        ps.setObject(i + 1, params[i]);
+      bind(ps, params);
       int updated = ps.executeUpdate();
       log.debug("runUpdate affected {} rows", updated);
     } catch (SQLException e) {
       log.error("DB update failed: {}", e.getMessage(), e);
       throw new DatabaseException("DB update failed: " + e.getMessage(), e);
+    } finally {
+      DbMetrics.record(sql, System.nanoTime() - start);
+    }
+  }
+
+  protected int[] runBatch(Connection con, String sql, Iterable<Object[]> rows) throws SQLException {
+    return runBatch(con, sql, rows, batchSize);
+  }
+
+  // Sends rows in chunks of chunkSize and returns one update count per row,
+  // in input order. With bulk statements enabled the driver may report
+  // Statement.SUCCESS_NO_INFO instead of an exact count.
+  protected int[] runBatch(Connection con, String sql, Iterable<Object[]> rows, int chunkSize)
+      throws SQLException {
+    if (chunkSize <= 0)
+      throw new IllegalArgumentException("chunkSize must be > 0");
+
+    log.debug("runBatch SQL: {} | chunkSize={}", sql, chunkSize);
+
+    int[] counts = new int[64];
+    int total = 0;
+    int pending = 0;
+    long start = System.nanoTime();
+
+    try (PreparedStatement ps = con.prepareStatement(sql)) {
+      for (Object[] params : rows) {
+        bind(ps, params);
+        ps.addBatch();
+
+        if (++pending == chunkSize) {
+          counts = append(counts, total, ps.executeBatch());
+          total += pending;
+          pending = 0;
+        }
+      }
+
+      if (pending > 0) {
+        counts = append(counts, total, ps.executeBatch());
+        total += pending;
+      }
+    } finally {
+      DbMetrics.record(sql, System.nanoTime() - start);
+    }
+
+    log.debug("runBatch sent {} rows", total);
+    return Arrays.copyOf(counts, total);
+  }
+
+  private static int[] append(int[] counts, int at, int[] chunk) {
+    if (at + chunk.length > counts.length)
+      counts = Arrays.copyOf(counts, Math.max(counts.length * 2, at + chunk.length));
+    System.arraycopy(chunk, 0, counts, at, chunk.length);
+    return counts;
+  }
+
+  protected <T> List<T> queryList(Connection con, String sql, RowMapper<T> mapper, Object... params)
+      throws SQLException {
+    log.debug("queryList SQL: {} | params={}", sql, params);
+    long start = System.nanoTime();
+    try (PreparedStatement ps = con.prepareStatement(sql)) {
+      bind(ps, params);
+      try (ResultSet rs = ps.executeQuery()) {
+        List<T> list = new ArrayList<>();
+        if (rs.next()) {
+          Row row = new Row(rs);
+          do {
+            list.add(mapper.map(row));
+          } while (rs.next());
+        }
+        return list;
+      }
+    } finally {
+      DbMetrics.record(sql, System.nanoTime() - start);
     }
   }
 
-  protected ResultSet runQuery(Connection con, String sql, Object... params) throws SQLException {
-    log.debug("runQuery SQL: {} | params={}", sql, params);
+  protected <T> Optional<T> queryOne(Connection con, String sql, RowMapper<T> mapper, Object... params)
+      throws SQLException {
+    log.debug("queryOne SQL: {} | params={}", sql, params);
+    long start = System.nanoTime();
+    try (PreparedStatement ps = con.prepareStatement(sql)) {
+      bind(ps, params);
+      try (ResultSet rs = ps.executeQuery()) {
+        return rs.next() ? Optional.ofNullable(mapper.map(new Row(rs))) : Optional.empty();
+      }
+    } finally {
+      DbMetrics.record(sql, System.nanoTime() - start);
+    }
+  }
+
+  protected boolean exists(Connection con, String sql, Object... params) throws SQLException {
+    return queryOne(con, sql, r -> Boolean.TRUE, params).isPresent();
+  }
+
+  // Rows are fetched from the server in chunks as the stream is consumed.
+  // The stream must be closed (try-with-resources) and fully used before
+  // the connection is released.
+  protected <T> Stream<T> queryStream(Connection con, String sql, RowMapper<T> mapper, Object... params)
+      throws SQLException {
+    log.debug("queryStream SQL: {} | params={}", sql, params);
+    // Only the time to the first batch of rows is recorded; the rest
+    // depends on how fast the caller consumes the stream.
+    long start = System.nanoTime();
     PreparedStatement ps = con.prepareStatement(sql);
+    ResultSet rs;
+    try {
+      bind(ps, params);
+      ps.setFetchSize(STREAM_FETCH_SIZE);
+      rs = ps.executeQuery();
+    } catch (SQLException e) {
+      closeQuietly(ps);
+      throw e;
+    } finally {
+      DbMetrics.record(sql, System.nanoTime() - start);
+    }
+
+    Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED) {
+      private Row row;
+
+      @Override
+      public boolean tryAdvance(Consumer<? super T> action) {
+        try {
+          if (!rs.next())
+            return false;
+          if (row == null)
+            row = new Row(rs);
+          action.accept(mapper.map(row));
+          return true;
+        } catch (SQLException e) {
+          throw new DatabaseException("Failed reading rows: " + e.getMessage(), e);
+        }
+      }
+    };
+
+    return StreamSupport.stream(rows, false).onClose(() -> {
+      closeQuietly(rs);
+      closeQuietly(ps);
+    });
+  }
+
+  private static void bind(PreparedStatement ps, Object... params) throws SQLException {
     for (int i = 0; i < params.length; i++)
       ps.setObject(i + 1, params[i]);
-
-    ResultSet rs = ps.executeQuery();
-    log.trace("runQuery executed successfully");
-    return rs;
   }
 }
@@ -0,0 +1,162 @@
+package edu.univ.erp.data;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// The one thing per client that watches for changes made elsewhere. A
+// single query reads every topic's version from change_log; subscribers of
+// the topics whose version moved are run on the "change-feed" thread.
+// While nothing changes the interval doubles up to changefeed.poll.max.ms,
+// and drops back to changefeed.poll.ms as soon as something does. A local
+// publish() triggers a poll right after it commits.
+public class ChangeFeed {
+
+  private static final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+
+  public enum Topic {
+    MAINTENANCE, DEADLINES, NOTIFICATIONS, CATALOG;
+
+    String key() {
+      return name().toLowerCase(Locale.ROOT);
+    }
+  }
+
+  public static final class Subscription {
+    private final Topic topic;
+    private final Runnable listener;
+
+    private Subscription(Topic topic, Runnable listener) {
+      this.topic = topic;
+      this.listener = listener;
+    }
+
+    public void cancel() {
+      SUBSCRIBERS.get(topic).remove(listener);
+    }
+  }
+
+  private static final ChangeLogDao dao = new ChangeLogDao();
+
+  private static final Map<Topic, List<Runnable>> SUBSCRIBERS = new EnumMap<>(Topic.class);
+
+  static {
+    for (Topic t : Topic.values())
+      SUBSCRIBERS.put(t, new CopyOnWriteArrayList<>());
+    // caches go first so the other subscribers read fresh values
+    SUBSCRIBERS.get(Topic.MAINTENANCE).add(SettingsCache::invalidate);
+    SUBSCRIBERS.get(Topic.DEADLINES).add(SettingsCache::invalidate);
+    SUBSCRIBERS.get(Topic.CATALOG).add(CourseCache::invalidate);
+  }
+
+  private static volatile ScheduledExecutorService poller;
+  private static volatile long minDelayMs = 3000;
+  private static volatile long maxDelayMs = 15000;
+
+  // only touched on the poller thread
+  private static Map<String, Long> seen;
+  private static ScheduledFuture<?> next;
+  private static long delayMs;
+
+  public static synchronized void init(Properties props) {
+    minDelayMs = Long.parseLong(props.getProperty("changefeed.poll.ms", "3000"));
+    maxDelayMs = Math.max(minDelayMs, Long.parseLong(props.getProperty("changefeed.poll.max.ms", "15000")));
+
+    stop();
+    Map<String, Long> baseline = dao.versions();
+    ScheduledExecutorService p = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "change-feed");
+      t.setDaemon(true);
+      return t;
+    });
+    p.execute(() -> {
+      seen = baseline;
+      delayMs = minDelayMs;
+      next = p.schedule(ChangeFeed::poll, delayMs, TimeUnit.MILLISECONDS);
+    });
+    poller = p;
+
+    log.info("Change feed watching {} topics every {}..{} ms", baseline.size(), minDelayMs, maxDelayMs);
+  }
+
+  public static synchronized void stop() {
+    if (poller != null) {
+      poller.shutdownNow();
+      poller = null;
+    }
+  }
+
+  public static Subscription subscribe(Topic topic, Runnable listener) {
+    SUBSCRIBERS.get(topic).add(listener);
+    log.debug("Subscribed {} to {}", listener, topic);
+    return new Subscription(topic, listener);
+  }
+
+  // Records the change for every client; joins the caller's transaction.
+  public static void publish(Topic topic) {
+    dao.bump(topic.key());
+    UnitOfWork.afterCommit(ChangeFeed::poke);
+  }
+
+  // Polls now instead of waiting out the current backoff. Runs on the
+  // poller thread, so it never overlaps a scheduled poll.
+  public static void poke() {
+    ScheduledExecutorService p = poller;
+    if (p == null)
+      return;
+    try {
+      p.execute(() -> {
+        if (next != null && next.cancel(false)) {
+          delayMs = minDelayMs;
+          poll();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      log.debug("Change feed stopped, poke ignored");
+    }
+  }
+
+  private static void poll() {
+    List<Topic> changed = new ArrayList<>();
+    try {
+      Map<String, Long> now = dao.versions();
+      for (Topic t : Topic.values()) {
+        Long v = now.get(t.key());
+        if (v != null && !v.equals(seen.get(t.key())))
+          changed.add(t);
+      }
+      seen = now;
+    } catch (RuntimeException e) {
+      log.warn("Change feed poll failed", e);
+    }
+
+    if (changed.isEmpty()) {
+      delayMs = Math.min(maxDelayMs, delayMs * 2);
+      log.trace("Change feed: no changes, next poll in {} ms", delayMs);
+    } else {
+      delayMs = minDelayMs;
+      log.debug("Change feed: {} changed", changed);
+      changed.forEach(ChangeFeed::dispatch);
+    }
+
+    ScheduledExecutorService p = poller;
+    if (p != null && !p.isShutdown())
+      next = p.schedule(ChangeFeed::poll, delayMs, TimeUnit.MILLISECONDS);
+  }
+
+  private static void dispatch(Topic topic) {
+    for (Runnable r : SUBSCRIBERS.get(topic)) {
+      try {
+        r.run();
+      } catch (RuntimeException e) {
+        log.error("Change feed subscriber {} failed for {}", r, topic, e);
+      }
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package edu.univ.erp.data;
+
+import edu.univ.erp.exception.DatabaseException;
+import java.sql.*;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class ChangeLogDao extends BaseDao {
+  private static final Logger log = LoggerFactory.getLogger(ChangeLogDao.class);
+
+  public Map<String, Long> versions() {
+    String sql = "SELECT topic, version FROM change_log";
+
+    try (Connection con = DBPool.erpRead().getConnection()) {
+      List<Map.Entry<String, Long>> rows = queryList(con, sql,
+          r -> Map.entry(r.getString("topic"), r.getLong("version")));
+      Map<String, Long> out = new HashMap<>();
+      rows.forEach(e -> out.put(e.getKey(), e.getValue()));
+      return out;
+    } catch (SQLException e) {
+      log.error("Failed reading change log", e);
+      throw new DatabaseException("Failed reading change log", e);
+    }
+  }
+
+  // Joins the caller's transaction when one is open, so the bump commits
+  // (or rolls back) with the change it announces.
+  public void bump(String topic) {
+    String sql = """
+        INSERT INTO change_log (topic, version) VALUES (?, 1)
+        ON DUPLICATE KEY UPDATE version = version + 1
+        """;
+
+    try (Connection con = DBPool.erp().getConnection()) {
+      runUpdate(con, sql, topic);
+      log.debug("Change log topic {} bumped", topic);
+    } catch (SQLException e) {
+      log.error("Failed bumping change log topic {}", topic, e);
+      throw new DatabaseException("Failed recording change", e);
+    }
+  }
+}
@@ -0,0 +1,172 @@
+package edu.univ.erp.data;
+
+import edu.univ.erp.domain.Course;
+import edu.univ.erp.exception.DatabaseException;
+import edu.univ.erp.exception.NotFoundException;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Shared copy of the course catalog. The whole catalog is loaded at once
+// when it fits in course.cache.max entries; then lookups by id or code that
+// miss are answered as "not found" without a query. A bigger catalog keeps
+// the most recently used courses and looks the rest up on demand.
+//
+// Admin edits call invalidate(). Edits from other clients are picked up by
+// a COUNT/MAX(updated_at) probe once the TTL has passed.
+public class CourseCache {
+
+  private static final Logger log = LoggerFactory.getLogger(CourseCache.class);
+
+  private static final String VERSION_SQL = "SELECT COUNT(*), MAX(updated_at) FROM courses";
+
+  public record Stats(long hits, long misses, long reloads, int size, boolean complete) {
+  }
+
+  private static final CourseDao dao = new CourseDao();
+
+  private static volatile long ttlMillis = 5000;
+  private static volatile int maxEntries = 5000;
+
+  private static final AtomicLong hits = new AtomicLong();
+  private static final AtomicLong misses = new AtomicLong();
+  private static final AtomicLong reloads = new AtomicLong();
+
+  private static Map<Integer, Course> byId = lru();
+  private static Map<String, Course> byCode = lru();
+  private static List<Course> all;
+  private static String version;
+  private static boolean loaded;
+  private static long checkedAt;
+
+  public static void init(Properties props) {
+    ttlMillis = Long.parseLong(props.getProperty("course.cache.ttl.ms", "5000"));
+    maxEntries = Integer.parseInt(props.getProperty("course.cache.max", "5000"));
+    invalidate();
+    if (Boolean.parseBoolean(props.getProperty("course.cache.preload", "true"))) {
+      all();
+    }
+    log.info("Course cache configured: ttl={}ms max={}", ttlMillis, maxEntries);
+  }
+
+  public static List<Course> all() {
+    synchronized (CourseCache.class) {
+      refreshIfStale();
+      if (all != null) {
+        hits.incrementAndGet();
+        return all;
+      }
+    }
+    misses.incrementAndGet();
+    return dao.findAll();
+  }
+
+  public static Course byId(int courseId) {
+    synchronized (CourseCache.class) {
+      refreshIfStale();
+      Course c = byId.get(courseId);
+      if (c != null) {
+        hits.incrementAndGet();
+        return c;
+      }
+      if (all != null) {
+        hits.incrementAndGet();
+        throw new NotFoundException("Course not found");
+      }
+    }
+    misses.incrementAndGet();
+    Course c = dao.findById(courseId);
+    put(c);
+    return c;
+  }
+
+  public static Course byCode(String code) {
+    synchronized (CourseCache.class) {
+      refreshIfStale();
+      Course c = byCode.get(code);
+      if (c != null) {
+        hits.incrementAndGet();
+        return c;
+      }
+      if (all != null) {
+        hits.incrementAndGet();
+        throw new NotFoundException("Course not found: " + code);
+      }
+    }
+    misses.incrementAndGet();
+    Course c = dao.findByCode(code);
+    put(c);
+    return c;
+  }
+
+  public static synchronized void invalidate() {
+    log.debug("Course cache invalidated");
+    loaded = false;
+  }
+
+  public static synchronized Stats stats() {
+    return new Stats(hits.get(), misses.get(), reloads.get(), byId.size(), all != null);
+  }
+
+  private static synchronized void put(Course c) {
+    byId.put(c.getCourseId(), c);
+    byCode.put(c.getCode(), c);
+  }
+
+  private static void refreshIfStale() {
+    long now = System.currentTimeMillis();
+    if (loaded && now - checkedAt < ttlMillis)
+      return;
+
+    String probe = probeVersion();
+    checkedAt = now;
+    if (loaded && probe.equals(version)) {
+      log.trace("Course cache still current (version={})", version);
+      return;
+    }
+
+    // Probe first, then load: a change in between shows up as a newer
+    // version on the next probe rather than being missed.
+    List<Course> courses = dao.findAll();
+    Map<Integer, Course> ids = lru();
+    Map<String, Course> codes = lru();
+    for (Course c : courses) {
+      if (ids.size() == maxEntries)
+        break;
+      ids.put(c.getCourseId(), c);
+      codes.put(c.getCode(), c);
+    }
+
+    byId = ids;
+    byCode = codes;
+    all = courses.size() <= maxEntries ? Collections.unmodifiableList(courses) : null;
+    version = probe;
+    loaded = true;
+    reloads.incrementAndGet();
+
+    log.info("Course cache loaded {} of {} courses (version={})", ids.size(), courses.size(), version);
+  }
+
+  private static String probeVersion() {
+    try (Connection con = DBPool.erpRead().getConnection();
+        PreparedStatement ps = con.prepareStatement(VERSION_SQL);
+        ResultSet rs = ps.executeQuery()) {
+      rs.next();
+      return rs.getInt(1) + "@" + rs.getTimestamp(2);
+    } catch (SQLException e) {
+      log.error("Course cache version probe failed", e);
+      throw new DatabaseException("Failed to read course catalog", e);
+    }
+  }
+
+  private static <K> Map<K, Course> lru() {
+    return new LinkedHashMap<>(64, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, Course> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+}
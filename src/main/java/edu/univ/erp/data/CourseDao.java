@@ -10,22 +10,20 @@ import org.slf4j.LoggerFactory;
 public class CourseDao extends BaseDao {
     private static final Logger log = LoggerFactory.getLogger(CourseDao.class);
 
+    private static final String COLUMNS = "course_id, code, title, description, credits";
+
+    private static final RowMapper<Course> COURSE = r -> new Course(
+        r.getInt("course_id"),
+        r.getString("code"),
+        r.getString("title"),
+        r.getString("description"),
+        r.getInt("credits")
+    );
+
     public List<Course> findAll() {
-        String sql = "SELECT course_id, code, title, description, credits FROM courses ORDER BY code";
-        try (Connection con = DBPool.erp().getConnection();
-             ResultSet rs = runQuery(con, sql)) {
-
-            List<Course> list = new ArrayList<>();
-            while (rs.next()) {
-                list.add(new Course(
-                    rs.getInt("course_id"),
-                    rs.getString("code"),
-                    rs.getString("title"),
-                    rs.getString("description"),
-                    rs.getInt("credits")
-                ));
-            }
-            return list;
+        String sql = "SELECT " + COLUMNS + " FROM courses ORDER BY code";
+        try (Connection con = DBPool.erpRead().getConnection()) {
+            return queryList(con, sql, COURSE);
 
         } catch (SQLException e) {
             throw new DatabaseException("Failed loading courses", e);
@@ -33,19 +31,10 @@ public class CourseDao extends BaseDao {
     }
 
     public Course findByCode(String code) {
-        String sql = "SELECT course_id, code, title, description, credits FROM courses WHERE code = ?";
-        try (Connection con = DBPool.erp().getConnection();
-             ResultSet rs = runQuery(con, sql, code)) {
-
-            if (!rs.next()) throw new NotFoundException("Course not found: " + code);
-
-            return new Course(
-                rs.getInt("course_id"),
-                rs.getString("code"),
-                rs.getString("title"),
-                rs.getString("description"),
-                rs.getInt("credits")
-            );
+        String sql = "SELECT " + COLUMNS + " FROM courses WHERE code = ?";
+        try (Connection con = DBPool.erpRead().getConnection()) {
+            return queryOne(con, sql, COURSE, code)
+                .orElseThrow(() -> new NotFoundException("Course not found: " + code));
 
         } catch (SQLException e) {
             throw new DatabaseException("Course lookup by code failed", e);
@@ -53,19 +42,10 @@ public class CourseDao extends BaseDao {
     }
 
     public Course findById(int id) {
-        String sql = "SELECT course_id, code, title, description, credits FROM courses WHERE course_id = ?";
-        try (Connection con = DBPool.erp().getConnection();
-             ResultSet rs = runQuery(con, sql, id)) {
-
-            if (!rs.next()) throw new NotFoundException("Course not found");
-
-            return new Course(
-                rs.getInt("course_id"),
-                rs.getString("code"),
-                rs.getString("title"),
-                rs.getString("description"),
-                rs.getInt("credits")
-            );
+        String sql = "SELECT " + COLUMNS + " FROM courses WHERE course_id = ?";
+        try (Connection con = DBPool.erpRead().getConnection()) {
+            return queryOne(con, sql, COURSE, id)
+                .orElseThrow(() -> new NotFoundException("Course not found"));
 
         } catch (SQLException e) {
             throw new DatabaseException("Course lookup failed", e);
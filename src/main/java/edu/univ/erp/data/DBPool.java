@@ -3,62 +3,243 @@ package edu.univ.erp.data;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class DBPool {
 
+  // ERP connections are split into bulkheads so a long import or export
+  // cannot use up the connections interactive requests need. Each lane is
+  // its own Hikari pool sized by db.pool.<lane>.max / .timeout.ms.
+  public enum Lane {
+    INTERACTIVE("interactive", 5_000),
+    BATCH("batch", 60_000),
+    REPORTING("reporting", 30_000);
+
+    private final String key;
+    private final long defaultTimeoutMs;
+
+    Lane(String key, long defaultTimeoutMs) {
+      this.key = key;
+      this.defaultTimeoutMs = defaultTimeoutMs;
+    }
+
+    public String key() {
+      return key;
+    }
+
+    public String poolName() {
+      return "erp-" + key;
+    }
+  }
+
+  private static final ThreadLocal<Lane> LANE = new ThreadLocal<>();
+
   private static HikariDataSource AUTH_POOL;
-  private static HikariDataSource ERP_POOL;
+  private static final Map<Lane, HikariDataSource> ERP_POOLS = new EnumMap<>(Lane.class);
+  private static HikariDataSource ERP_READ_POOL;
+  private static DataSource ERP_SOURCE;
+  private static DataSource ERP_READ_SOURCE;
+
+  // Reads go back to the primary for this long after a write made through
+  // this client, so a user always sees their own changes.
+  private static volatile long readStickyNanos;
+  private static volatile long lastWriteNanos;
+  private static volatile boolean written;
   private static final Logger log = LoggerFactory.getLogger(DBPool.class);
 
   public static void init(Properties props) {
     log.info("Initializing database connection pools...");
 
+    DbMetrics.configure(props);
+
     HikariConfig auth = new HikariConfig();
     auth.setJdbcUrl(props.getProperty("db.auth.url"));
     auth.setUsername(props.getProperty("db.user"));
     auth.setPassword(props.getProperty("db.pass"));
     auth.setMaximumPoolSize(Integer.parseInt(props.getProperty("db.pool.max", "10")));
+    applyBatchSettings(auth, props);
+    applyMetrics(auth, "auth-pool");
 
     log.debug("Auth DB URL: {}", props.getProperty("db.auth.url"));
 
-    HikariConfig erp = new HikariConfig();
-    erp.setJdbcUrl(props.getProperty("db.erp.url"));
-    erp.setUsername(props.getProperty("db.user"));
-    erp.setPassword(props.getProperty("db.pass"));
-    erp.setMaximumPoolSize(Integer.parseInt(props.getProperty("db.pool.max", "10")));
-
     log.debug("ERP DB URL: {}", props.getProperty("db.erp.url"));
 
     AUTH_POOL = new HikariDataSource(auth);
-    ERP_POOL = new HikariDataSource(erp);
+    for (Lane lane : Lane.values()) {
+      ERP_POOLS.put(lane, new HikariDataSource(erpConfig(lane, props)));
+    }
+
+    String readUrl = props.getProperty("db.erp.read.url", "").trim();
+    if (readUrl.isEmpty()) {
+      ERP_SOURCE = new ScopedDataSource(DBPool::erpPool, false);
+      ERP_READ_SOURCE = ERP_SOURCE;
+      log.info("No read pool configured; reads use the primary");
+    } else {
+      HikariConfig read = new HikariConfig();
+      read.setJdbcUrl(readUrl);
+      read.setUsername(props.getProperty("db.erp.read.user", props.getProperty("db.user")));
+      read.setPassword(props.getProperty("db.erp.read.pass", props.getProperty("db.pass")));
+      read.setMaximumPoolSize(Integer.parseInt(
+          props.getProperty("db.erp.read.pool.max", props.getProperty("db.pool.max", "10"))));
+      read.setReadOnly(true);
+      applyMetrics(read, "erp-read-pool");
+
+      log.debug("ERP read DB URL: {}", readUrl);
+
+      ERP_READ_POOL = new HikariDataSource(read);
+      ERP_SOURCE = new ScopedDataSource(DBPool::erpPool, true);
+      ERP_READ_SOURCE = new ReadRoutingDataSource(ERP_SOURCE, ERP_READ_POOL);
+      readStickyNanos = TimeUnit.MILLISECONDS.toNanos(
+          Long.parseLong(props.getProperty("db.erp.read.sticky.ms", "5000")));
+      log.info("Read pool enabled; primary reads for {} ms after a write",
+          TimeUnit.NANOSECONDS.toMillis(readStickyNanos));
+    }
+
+    BaseDao.configure(props);
+    PoolController.start(props);
 
     log.info("DB Pools initialized successfully.");
   }
 
+  // The interactive lane keeps reading db.pool.max so existing configs
+  // still size it.
+  private static HikariConfig erpConfig(Lane lane, Properties props) {
+    String prefix = "db.pool." + lane.key();
+    String max = props.getProperty(prefix + ".max",
+        lane == Lane.INTERACTIVE ? props.getProperty("db.pool.max", "10") : "2");
+
+    HikariConfig cfg = new HikariConfig();
+    cfg.setJdbcUrl(props.getProperty("db.erp.url"));
+    cfg.setUsername(props.getProperty("db.user"));
+    cfg.setPassword(props.getProperty("db.pass"));
+    cfg.setMaximumPoolSize(Integer.parseInt(max));
+    cfg.setConnectionTimeout(Long.parseLong(
+        props.getProperty(prefix + ".timeout.ms", String.valueOf(lane.defaultTimeoutMs))));
+    applyBatchSettings(cfg, props);
+    applyMetrics(cfg, lane.poolName());
+
+    log.debug("ERP {} pool: max={} timeout={}ms", lane.key(), cfg.getMaximumPoolSize(),
+        cfg.getConnectionTimeout());
+    return cfg;
+  }
+
+  // Connector/J 3.x has no rewriteBatchedStatements; useBulkStmts is its
+  // equivalent and sends an INSERT/UPDATE batch as one bulk command.
+  private static void applyBatchSettings(HikariConfig cfg, Properties props) {
+    cfg.addDataSourceProperty("useBulkStmts", props.getProperty("db.batch.bulk", "true"));
+  }
+
+  // Named pools show up in JMX as com.zaxxer.hikari:type=Pool (<name>) and
+  // report acquire times into DbMetrics.
+  private static void applyMetrics(HikariConfig cfg, String name) {
+    cfg.setPoolName(name);
+    cfg.setRegisterMbeans(true);
+    cfg.setMetricsTrackerFactory(DbMetrics.get());
+  }
+
   public static DataSource auth() {
     log.trace("Fetching AUTH_POOL datasource");
     return AUTH_POOL;
   }
 
+  // Joins the thread's UnitOfWork connection when one is bound.
   public static DataSource erp() {
     log.trace("Fetching ERP_POOL datasource");
-    return ERP_POOL;
+    return ERP_SOURCE;
+  }
+
+  // For read-only queries that tolerate replica lag. Falls back to erp()
+  // inside a UnitOfWork, shortly after this client wrote, or when no read
+  // pool is configured.
+  public static DataSource erpRead() {
+    return ERP_READ_SOURCE;
+  }
+
+  @FunctionalInterface
+  public interface Work<T, E extends Exception> {
+    T get() throws E;
+  }
+
+  // Runs work with this thread's ERP connections taken from the lane's
+  // pool. A UnitOfWork already open on the thread keeps its connection.
+  public static <T, E extends Exception> T withLane(Lane lane, Work<T, E> work) throws E {
+    Lane outer = LANE.get();
+    LANE.set(lane);
+    try {
+      return work.get();
+    } finally {
+      if (outer == null) {
+        LANE.remove();
+      } else {
+        LANE.set(outer);
+      }
+    }
+  }
+
+  public static Lane currentLane() {
+    Lane lane = LANE.get();
+    return lane == null ? Lane.INTERACTIVE : lane;
+  }
+
+  static DataSource erpPool() {
+    return ERP_POOLS.get(currentLane());
+  }
+
+  static HikariDataSource lanePool(Lane lane) {
+    return ERP_POOLS.get(lane);
+  }
+
+  // Current maximum of the lane's pool, including PoolController's resizes.
+  public static int laneSize(Lane lane) {
+    return lanePool(lane).getHikariConfigMXBean().getMaximumPoolSize();
+  }
+
+  static void noteWrite() {
+    lastWriteNanos = System.nanoTime();
+    written = true;
+  }
+
+  // Called with the SQL of each statement prepared on a primary connection.
+  static void noteStatement(String sql) {
+    if (sql == null || !isPlainRead(sql))
+      noteWrite();
+  }
+
+  static boolean readFromPrimary() {
+    return written && System.nanoTime() - lastWriteNanos < readStickyNanos;
+  }
+
+  private static boolean isPlainRead(String sql) {
+    String s = sql.stripLeading().toUpperCase(Locale.ROOT);
+    return (s.startsWith("SELECT") || s.startsWith("WITH") || s.startsWith("EXPLAIN"))
+        && !s.contains("FOR UPDATE") && !s.contains("LOCK IN SHARE MODE");
   }
 
   public static void close() {
     log.info("Closing database pools...");
 
+    PoolController.stop();
+
     if (AUTH_POOL != null) {
       log.debug("Closing AUTH_POOL");
       AUTH_POOL.close();
     }
 
-    if (ERP_POOL != null) {
-      log.debug("Closing ERP_POOL");
-      ERP_POOL.close();
+    for (var e : ERP_POOLS.entrySet()) {
+      log.debug("Closing ERP {} pool", e.getKey().key());
+      e.getValue().close();
+    }
+    ERP_POOLS.clear();
+
+    if (ERP_READ_POOL != null) {
+      log.debug("Closing ERP_READ_POOL");
+      ERP_READ_POOL.close();
     }
 
     log.info("Database pools closed.");
@@ -0,0 +1,284 @@
+package edu.univ.erp.data;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Pool and query statistics for the DAO layer. Hikari reports connection
+// acquire/usage through the tracker factory; BaseDao reports each statement
+// it runs, keyed by the calling DAO method and a literal-free form of the SQL.
+public final class DbMetrics implements DbMetricsMXBean, MetricsTrackerFactory {
+
+  private static final Logger log = LoggerFactory.getLogger(DbMetrics.class);
+  private static final Logger slowLog = LoggerFactory.getLogger("edu.univ.erp.data.slowquery");
+
+  private static final DbMetrics INSTANCE = new DbMetrics();
+
+  // Upper bounds of the latency buckets in ms; the last bucket is open.
+  private static final long[] BOUNDS_MS = { 1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500 };
+
+  private static final int MAX_FINGERPRINTS = 1024;
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+  private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+  private final Map<String, PoolTracker> pools = new ConcurrentHashMap<>();
+  private final Map<String, Histogram> queries = new ConcurrentHashMap<>();
+  private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+  private final LongAdder slowQueries = new LongAdder();
+
+  private volatile boolean enabled = true;
+  private volatile long slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(200);
+  private volatile long acquireWarnNanos = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private DbMetrics() {
+  }
+
+  public static DbMetrics get() {
+    return INSTANCE;
+  }
+
+  static void configure(Properties props) {
+    INSTANCE.enabled = Boolean.parseBoolean(props.getProperty("db.metrics.enabled", "true"));
+    INSTANCE.setSlowQueryThresholdMs(Long.parseLong(props.getProperty("db.slowquery.ms", "200")));
+    INSTANCE.acquireWarnNanos = TimeUnit.MILLISECONDS.toNanos(
+        Long.parseLong(props.getProperty("db.pool.acquire.warn.ms", "100")));
+
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName("edu.univ.erp:type=DbMetrics");
+      if (!server.isRegistered(name)) {
+        server.registerMBean(INSTANCE, name);
+      }
+    } catch (Exception e) {
+      log.warn("Could not register DbMetrics MBean", e);
+    }
+
+    log.info("DB metrics {} (slow query threshold {} ms)",
+        INSTANCE.enabled ? "enabled" : "disabled", INSTANCE.getSlowQueryThresholdMs());
+  }
+
+  // Called by BaseDao after each statement, with the time spent executing
+  // it and reading its rows.
+  static void record(String sql, long nanos) {
+    DbMetrics m = INSTANCE;
+    if (!m.enabled)
+      return;
+
+    String fingerprint = m.fingerprint(sql);
+    String caller = callerOf();
+    m.queries.computeIfAbsent(caller + " " + fingerprint, k -> new Histogram()).add(nanos);
+
+    if (nanos >= m.slowThresholdNanos) {
+      m.slowQueries.increment();
+      slowLog.warn("{} ms in {}: {}", TimeUnit.NANOSECONDS.toMillis(nanos), caller, fingerprint);
+    }
+  }
+
+  // Point-in-time view of one pool for PoolController; acquire counters
+  // are cumulative since start (or the last reset).
+  record PoolSample(int active, int idle, int pending, int total, long acquires, long acquireNanos) {
+  }
+
+  PoolSample sample(String poolName) {
+    PoolTracker p = pools.get(poolName);
+    if (p == null)
+      return null;
+    return new PoolSample(p.stats.getActiveConnections(), p.stats.getIdleConnections(),
+        p.stats.getPendingThreads(), p.stats.getTotalConnections(), p.acquires.sum(), p.acquireNanos.sum());
+  }
+
+  @Override
+  public IMetricsTracker create(String poolName, PoolStats stats) {
+    PoolTracker tracker = new PoolTracker(poolName, stats);
+    pools.put(poolName, tracker);
+    return tracker;
+  }
+
+  @Override
+  public String dump() {
+    StringBuilder sb = new StringBuilder();
+
+    sb.append("Connection pools\n");
+    sb.append(String.format("  %-16s %6s %6s %7s %6s %6s %10s %10s %10s %8s %8s%n",
+        "pool", "active", "idle", "pending", "total", "max", "acquires", "avg acq", "max acq", "waits",
+        "timeouts"));
+    new TreeMap<>(pools).forEach((name, p) -> sb.append(String.format(
+        "  %-16s %6d %6d %7d %6d %6d %10d %8.2fms %8.2fms %8d %8d%n",
+        name, p.stats.getActiveConnections(), p.stats.getIdleConnections(),
+        p.stats.getPendingThreads(), p.stats.getTotalConnections(), p.stats.getMaxConnections(),
+        p.acquires.sum(), p.avgAcquireMillis(), p.maxAcquireNanos.get() / 1e6, p.waits.sum(),
+        p.timeouts.sum())));
+
+    sb.append(String.format("%nQueries (slow threshold %d ms, %d slow)%n",
+        getSlowQueryThresholdMs(), slowQueries.sum()));
+    sb.append(String.format("  %8s %10s %9s %9s %9s %9s %9s  %s%n",
+        "count", "total ms", "avg ms", "p50", "p95", "p99", "max ms", "caller / sql"));
+
+    List<Map.Entry<String, Histogram>> rows = new ArrayList<>(queries.entrySet());
+    rows.sort(Comparator.comparingLong((Map.Entry<String, Histogram> e) -> e.getValue().totalNanos.sum()).reversed());
+
+    for (var e : rows) {
+      Histogram h = e.getValue();
+      long count = h.count.sum();
+      if (count == 0)
+        continue;
+      sb.append(String.format("  %8d %10.1f %9.2f %9s %9s %9s %9.2f  %s%n",
+          count, h.totalNanos.sum() / 1e6, h.totalNanos.sum() / 1e6 / count,
+          h.percentile(0.50), h.percentile(0.95), h.percentile(0.99),
+          h.maxNanos.get() / 1e6, e.getKey()));
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public void reset() {
+    queries.clear();
+    slowQueries.reset();
+    pools.values().forEach(PoolTracker::reset);
+    log.info("DB metrics reset");
+  }
+
+  @Override
+  public long getSlowQueryThresholdMs() {
+    return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos);
+  }
+
+  @Override
+  public void setSlowQueryThresholdMs(long ms) {
+    if (ms < 0)
+      throw new IllegalArgumentException("threshold must be >= 0");
+    slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(ms);
+  }
+
+  @Override
+  public long getSlowQueryCount() {
+    return slowQueries.sum();
+  }
+
+  // Literals become '?', IN lists collapse to one placeholder, whitespace
+  // is squeezed, so the same statement with different inputs shares a key.
+  private String fingerprint(String sql) {
+    String fp = fingerprints.get(sql);
+    if (fp != null)
+      return fp;
+
+    fp = STRING_LITERAL.matcher(sql).replaceAll("?");
+    fp = NUMBER_LITERAL.matcher(fp).replaceAll("?");
+    fp = IN_LIST.matcher(fp).replaceAll("(?+)");
+    fp = WHITESPACE.matcher(fp).replaceAll(" ").trim();
+
+    if (fingerprints.size() < MAX_FINGERPRINTS)
+      fingerprints.put(sql, fp);
+    return fp;
+  }
+
+  // The first frame below BaseDao that belongs to a DAO subclass.
+  private static String callerOf() {
+    return WALKER.walk(frames -> frames
+        .filter(f -> f.getDeclaringClass() != BaseDao.class
+            && BaseDao.class.isAssignableFrom(f.getDeclaringClass()))
+        .findFirst()
+        .map(f -> f.getDeclaringClass().getSimpleName() + "." + f.getMethodName())
+        .orElse("?"));
+  }
+
+  private static final class Histogram {
+    final LongAdder[] buckets = new LongAdder[BOUNDS_MS.length + 1];
+    final LongAdder count = new LongAdder();
+    final LongAdder totalNanos = new LongAdder();
+    final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    Histogram() {
+      for (int i = 0; i < buckets.length; i++)
+        buckets[i] = new LongAdder();
+    }
+
+    void add(long nanos) {
+      long ms = TimeUnit.NANOSECONDS.toMillis(nanos);
+      int i = 0;
+      while (i < BOUNDS_MS.length && ms >= BOUNDS_MS[i])
+        i++;
+      buckets[i].increment();
+      count.increment();
+      totalNanos.add(nanos);
+      maxNanos.accumulate(nanos);
+    }
+
+    // Reported as the upper bound of the bucket holding the percentile.
+    String percentile(double p) {
+      long total = count.sum();
+      long rank = (long) Math.ceil(total * p);
+      long seen = 0;
+      for (int i = 0; i < buckets.length; i++) {
+        seen += buckets[i].sum();
+        if (seen >= rank)
+          return i < BOUNDS_MS.length ? "<" + BOUNDS_MS[i] : ">=" + BOUNDS_MS[BOUNDS_MS.length - 1];
+      }
+      return "-";
+    }
+  }
+
+  // "waits" counts acquires slower than db.pool.acquire.warn.ms.
+  private static final class PoolTracker implements IMetricsTracker {
+    final String name;
+    final PoolStats stats;
+    final LongAdder acquires = new LongAdder();
+    final LongAdder acquireNanos = new LongAdder();
+    final LongAccumulator maxAcquireNanos = new LongAccumulator(Math::max, 0);
+    final LongAdder waits = new LongAdder();
+    final LongAdder timeouts = new LongAdder();
+
+    PoolTracker(String name, PoolStats stats) {
+      this.name = name;
+      this.stats = stats;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long nanos) {
+      acquires.increment();
+      acquireNanos.add(nanos);
+      maxAcquireNanos.accumulate(nanos);
+
+      if (nanos >= INSTANCE.acquireWarnNanos) {
+        waits.increment();
+        log.warn("Waited {} ms for a connection from {} (active={}, pending={})",
+            TimeUnit.NANOSECONDS.toMillis(nanos), name, stats.getActiveConnections(),
+            stats.getPendingThreads());
+      }
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+      timeouts.increment();
+      log.warn("Timed out waiting for a connection from {}", name);
+    }
+
+    double avgAcquireMillis() {
+      long n = acquires.sum();
+      return n == 0 ? 0 : acquireNanos.sum() / 1e6 / n;
+    }
+
+    void reset() {
+      acquires.reset();
+      acquireNanos.reset();
+      maxAcquireNanos.reset();
+      waits.reset();
+      timeouts.reset();
+    }
+  }
+}
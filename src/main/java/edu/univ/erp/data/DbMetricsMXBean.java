@@ -0,0 +1,15 @@
+package edu.univ.erp.data;
+
+// JMX view of DbMetrics, registered as edu.univ.erp:type=DbMetrics.
+public interface DbMetricsMXBean {
+
+  String dump();
+
+  void reset();
+
+  long getSlowQueryThresholdMs();
+
+  void setSlowQueryThresholdMs(long ms);
+
+  long getSlowQueryCount();
+}
@@ -10,16 +10,27 @@ import org.slf4j.LoggerFactory;
 public class EnrollmentDao extends BaseDao {
   private static final Logger log = LoggerFactory.getLogger(EnrollmentDao.class);
 
+  private static final String COLUMNS =
+      "enrollment_id, student_id, section_id, status, registered_on, dropped_on, final_grade";
+
+  private static final RowMapper<Enrollment> ENROLLMENT = r -> new Enrollment(
+      r.getInt("enrollment_id"),
+      r.getInt("student_id"),
+      r.getInt("section_id"),
+      Enrollment.Status.valueOf(r.getString("status")),
+      r.getString("registered_on"),
+      r.getString("dropped_on"),
+      r.getString("final_grade"));
+
+  static final String BY_STUDENT_SQL = "SELECT " + COLUMNS + " FROM enrollments WHERE student_id=?";
+  static final String IDS_BY_SECTION_SQL = "SELECT enrollment_id FROM enrollments WHERE section_id=?";
+
   public List<Enrollment> findByStudent(int studentId) {
     log.debug("Fetching enrollments for studentId={}", studentId);
 
-    String sql = "SELECT * FROM enrollments WHERE student_id=?";
-    try (Connection con = DBPool.erp().getConnection();
-        ResultSet rs = runQuery(con, sql, studentId)) {
+    try (Connection con = DBPool.erp().getConnection()) {
 
-      List<Enrollment> list = new ArrayList<>();
-      while (rs.next())
-        list.add(map(rs));
+      List<Enrollment> list = queryList(con, BY_STUDENT_SQL, ENROLLMENT, studentId);
 
       log.info("Found {} enrollments for studentId={}", list.size(), studentId);
       return list;
@@ -33,16 +44,13 @@ public class EnrollmentDao extends BaseDao {
   public Enrollment findById(int enrollmentId) {
     log.debug("Looking up enrollment by id={}", enrollmentId);
 
-    String sql = "SELECT * FROM enrollments WHERE enrollment_id=?";
-    try (Connection con = DBPool.erp().getConnection();
-        ResultSet rs = runQuery(con, sql, enrollmentId)) {
+    String sql = "SELECT " + COLUMNS + " FROM enrollments WHERE enrollment_id=?";
+    try (Connection con = DBPool.erp().getConnection()) {
 
-      if (!rs.next()) {
+      Enrollment e = queryOne(con, sql, ENROLLMENT, enrollmentId).orElseThrow(() -> {
         log.warn("Enrollment not found for id={}", enrollmentId);
-        throw new NotFoundException("Enrollment not found");
-      }
-
-      Enrollment e = map(rs);
+        return new NotFoundException("Enrollment not found");
+      });
       log.info("Loaded enrollment {}", enrollmentId);
       return e;
 
@@ -55,16 +63,13 @@ public class EnrollmentDao extends BaseDao {
   public Enrollment find(int studentId, int sectionId) {
     log.debug("Looking up enrollment studentId={} sectionId={}", studentId, sectionId);
 
-    String sql = "SELECT * FROM enrollments WHERE student_id=? AND section_id=?";
-    try (Connection con = DBPool.erp().getConnection();
-        ResultSet rs = runQuery(con, sql, studentId, sectionId)) {
+    String sql = "SELECT " + COLUMNS + " FROM enrollments WHERE student_id=? AND section_id=?";
+    try (Connection con = DBPool.erp().getConnection()) {
 
-      if (!rs.next()) {
+      Enrollment e = queryOne(con, sql, ENROLLMENT, studentId, sectionId).orElseThrow(() -> {
         log.warn("Enrollment not found for studentId={} sectionId={}", studentId, sectionId);
-        throw new NotFoundException("Enrollment not found");
-      }
-
-      Enrollment e = map(rs);
+        return new NotFoundException("Enrollment not found");
+      });
       log.info("Loaded enrollment for studentId={} sectionId={}", studentId, sectionId);
       return e;
 
@@ -74,16 +79,36 @@ public class EnrollmentDao extends BaseDao {
     }
   }
 
-  private Enrollment map(ResultSet rs) throws SQLException {
-    log.trace("Mapping ResultSet row to Enrollment object");
-
-    return new Enrollment(
-        rs.getInt("enrollment_id"),
-        rs.getInt("student_id"),
-        rs.getInt("section_id"),
-        Enrollment.Status.valueOf(rs.getString("status")),
-        rs.getString("registered_on"),
-        rs.getString("dropped_on"),
-        rs.getString("final_grade"));
+  public Set<Integer> findIdsBySection(int sectionId) {
+    try (Connection con = DBPool.erp().getConnection()) {
+      return new HashSet<>(queryList(con, IDS_BY_SECTION_SQL, r -> r.getInt(1), sectionId));
+    } catch (SQLException e) {
+      log.error("Enrollment id lookup failed for sectionId={}", sectionId, e);
+      throw new DatabaseException("Enrollment id lookup failed", e);
+    }
+  }
+
+  // Each row: status, final_grade, enrollment_id
+  public int[] updateStatusAndGrade(Iterable<Object[]> rows) {
+    String sql = "UPDATE enrollments SET status=?, final_grade=? WHERE enrollment_id=?";
+    try (Connection con = DBPool.erp().getConnection()) {
+      return runBatch(con, sql, rows);
+    } catch (SQLException e) {
+      log.error("Batch enrollment update failed", e);
+      throw new DatabaseException("Batch enrollment update failed", e);
+    }
+  }
+
+  // Each row: final_grade, enrollment_id
+  public int[] updateFinalGrades(Iterable<Object[]> rows) {
+    String sql = "UPDATE enrollments SET final_grade=? WHERE enrollment_id=?";
+    try (Connection con = DBPool.erp().getConnection()) {
+      int[] counts = runBatch(con, sql, rows);
+      log.info("Updated final grades for {} enrollments", counts.length);
+      return counts;
+    } catch (SQLException e) {
+      log.error("Batch final grade update failed", e);
+      throw new DatabaseException("Batch final grade update failed", e);
+    }
   }
 }
@@ -10,35 +10,36 @@ import org.slf4j.LoggerFactory;
 public class GradeDao extends BaseDao {
   private static final Logger log = LoggerFactory.getLogger(GradeDao.class);
 
-  public List<GradeComponent> findByEnrollment(int enrollmentId) {
-    log.debug("Fetching grade components for enrollmentId={}", enrollmentId);
+  static final RowMapper<GradeComponent> GRADE = r -> {
+    GradeType type = GradeType.valueOf(r.getString("component_type"));
+    String name = r.getString("component_name");
+    double score = r.getDouble("score");
+    double max = r.getDouble("max_score");
+    double weight = r.getDouble("weightage");
 
-    String sql = "SELECT * FROM grades WHERE enrollment_id=?";
+    log.trace("Mapping grade row: type={} name={} score={} max={} weight={}",
+        type, name, score, max, weight);
 
-    try (Connection con = DBPool.erp().getConnection();
-         ResultSet rs = runQuery(con, sql, enrollmentId)) {
+    return switch (type) {
+      case QUIZ -> new QuizComponent(name, score, max, weight);
+      case MIDSEM -> new MidsemComponent(name, score, max, weight);
+      case ENDSEM -> new EndsemComponent(name, score, max, weight);
+      case ASSIGNMENT -> new AssignmentComponent(name, score, max, weight);
+      case PROJECT -> new ProjectComponent(name, score, max, weight);
+    };
+  };
 
-      List<GradeComponent> list = new ArrayList<>();
+  static final String BY_ENROLLMENT_SQL = """
+      SELECT component_type, component_name, score, max_score, weightage
+      FROM grades WHERE enrollment_id=?
+      """;
 
-      while (rs.next()) {
-        GradeType type = GradeType.valueOf(rs.getString("component_type"));
-        String name = rs.getString("component_name");
-        double score = rs.getDouble("score");
-        double max = rs.getDouble("max_score");
-        double weight = rs.getDouble("weightage");
+  public List<GradeComponent> findByEnrollment(int enrollmentId) {
+    log.debug("Fetching grade components for enrollmentId={}", enrollmentId);
 
-        log.trace("Mapping grade row: type={} name={} score={} max={} weight={}",
-            type, name, score, max, weight);
+    try (Connection con = DBPool.erpRead().getConnection()) {
 
-        list.add(switch (type) {
-          case QUIZ -> new QuizComponent(name, score, max, weight);
-          case MIDSEM -> new MidsemComponent(name, score, max, weight);
-          case ENDSEM -> new EndsemComponent(name, score, max, weight);
-          case ASSIGNMENT -> new AssignmentComponent(name, score, max, weight);
-          case PROJECT -> new ProjectComponent(name, score, max, weight);
-          default -> throw new DatabaseException("Unknown grade type");
-        });
-      }
+      List<GradeComponent> list = queryList(con, BY_ENROLLMENT_SQL, GRADE, enrollmentId);
 
       log.info("Loaded {} grade components for enrollmentId={}", list.size(), enrollmentId);
       return list;
@@ -49,4 +50,35 @@ public class GradeDao extends BaseDao {
     }
   }
 
+  public void deleteBySection(int sectionId) {
+    log.debug("Deleting all grade components for sectionId={}", sectionId);
+
+    String sql = """
+        DELETE g FROM grades g
+        JOIN enrollments e ON g.enrollment_id = e.enrollment_id
+        WHERE e.section_id = ?
+        """;
+    try (Connection con = DBPool.erp().getConnection()) {
+      runUpdate(con, sql, sectionId);
+    } catch (SQLException e) {
+      log.error("Grade delete failed for sectionId={}", sectionId, e);
+      throw new DatabaseException("Grade delete failed", e);
+    }
+  }
+
+  // Each row: enrollment_id, component_type, component_name, score, max_score, weightage
+  public int[] insertBatch(Iterable<Object[]> rows) {
+    String sql = """
+        INSERT INTO grades (enrollment_id, component_type, component_name, score, max_score, weightage)
+        VALUES (?, ?, ?, ?, ?, ?)
+        """;
+    try (Connection con = DBPool.erp().getConnection()) {
+      int[] counts = runBatch(con, sql, rows);
+      log.debug("Inserted {} grade components", counts.length);
+      return counts;
+    } catch (SQLException e) {
+      log.error("Batch grade insert failed", e);
+      throw new DatabaseException("Batch grade insert failed", e);
+    }
+  }
 }
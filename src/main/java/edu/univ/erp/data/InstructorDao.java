@@ -18,23 +18,21 @@ public class InstructorDao extends BaseDao {
         JOIN users_auth u ON u.user_id = i.user_id
         ORDER BY u.username
         """;
-    try (Connection con = DBPool.erp().getConnection();
-        ResultSet rs = runQuery(con, sql)) {
+    try (Connection con = DBPool.erp().getConnection()) {
 
-      List<Instructor> list = new ArrayList<>();
-      while (rs.next()) {
+      List<Instructor> list = queryList(con, sql, r -> {
         log.trace("Mapping instructor: userId={} username={} dept={} email={}",
-            rs.getInt("user_id"),
-            rs.getString("username"),
-            rs.getString("department"),
-            rs.getString("email"));
-
-        list.add(new Instructor(
-            rs.getInt("user_id"),
-            rs.getString("username"),
-            rs.getString("department"),
-            rs.getString("email")));
-      }
+            r.getInt("user_id"),
+            r.getString("username"),
+            r.getString("department"),
+            r.getString("email"));
+
+        return new Instructor(
+            r.getInt("user_id"),
+            r.getString("username"),
+            r.getString("department"),
+            r.getString("email"));
+      });
 
       log.info("Loaded {} instructors", list.size());
       return list;
@@ -48,19 +46,19 @@ public class InstructorDao extends BaseDao {
   public Instructor findByUserId(int userId) {
     log.debug("Looking up instructor by userId={}", userId);
 
-    String sql = "SELECT user_id, department, email FROM instructors WHERE user_id = ?";
-    try (Connection con = DBPool.erp().getConnection();
-        ResultSet rs = runQuery(con, sql, userId)) {
-
-      if (!rs.next()) {
-        log.warn("Instructor not found for userId={}", userId);
-        throw new NotFoundException("Instructor not found");
-      }
+    String sql = "SELECT instructor_id, user_id, department, email FROM instructors WHERE user_id = ?";
+    try (Connection con = DBPool.erp().getConnection()) {
 
-      log.trace("Instructor found: userId={} dept={} email={}",
-          userId, rs.getString("department"), rs.getString("email"));
+      return queryOne(con, sql, r -> {
+        log.trace("Instructor found: userId={} dept={} email={}",
+            userId, r.getString("department"), r.getString("email"));
 
-      return new Instructor(userId, "unknown", rs.getString("department"), rs.getString("email"));
+        return new Instructor(userId, "unknown", r.getString("department"), r.getString("email"),
+            r.getInt("instructor_id"));
+      }, userId).orElseThrow(() -> {
+        log.warn("Instructor not found for userId={}", userId);
+        return new NotFoundException("Instructor not found");
+      });
 
     } catch (SQLException e) {
       log.error("Instructor lookup failed for userId={}", userId, e);
@@ -92,15 +90,12 @@ public class InstructorDao extends BaseDao {
         JOIN users_auth u ON u.user_id = i.user_id
         WHERE i.instructor_id = ?
         """;
-    try (var con = DBPool.erp().getConnection();
-        var ps = con.prepareStatement(sql)) {
+    try (var con = DBPool.erp().getConnection()) {
 
-      ps.setInt(1, instructorId);
-      var rs = ps.executeQuery();
-
-      if (rs.next()) {
-        log.trace("Username found for instructorId={}: {}", instructorId, rs.getString("username"));
-        return rs.getString("username");
+      String username = queryOne(con, sql, r -> r.getString("username"), instructorId).orElse(null);
+      if (username != null) {
+        log.trace("Username found for instructorId={}: {}", instructorId, username);
+        return username;
       }
 
       log.warn("No username found for instructorId={}", instructorId);
@@ -116,15 +111,14 @@ public class InstructorDao extends BaseDao {
     log.debug("Looking up instructorId by email={}", email);
 
     String sql = "SELECT instructor_id FROM instructors WHERE email = ?";
-    try (Connection con = DBPool.erp().getConnection();
-         ResultSet rs = runQuery(con, sql, email)) {
+    try (Connection con = DBPool.erp().getConnection()) {
 
-        if (!rs.next()) {
+        Integer id = queryOne(con, sql, r -> r.getInt("instructor_id"), email).orElse(null);
+        if (id == null) {
             log.warn("No instructor found with email={}", email);
             return null;
         }
 
-        int id = rs.getInt("instructor_id");
         log.trace("InstructorId={} found for email={}", id, email);
         return id;
 
@@ -165,14 +159,10 @@ public class InstructorDao extends BaseDao {
     log.debug("Fetching instructorId by userId={}", userId);
 
     String sql = "SELECT instructor_id FROM instructors WHERE user_id=?";
-    try (Connection con = DBPool.erp().getConnection();
-         PreparedStatement ps = con.prepareStatement(sql)) {
-
-        ps.setInt(1, userId);
-        ResultSet rs = ps.executeQuery();
+    try (Connection con = DBPool.erp().getConnection()) {
 
-        if (rs.next()) {
-            int id = rs.getInt("instructor_id");
+        Integer id = queryOne(con, sql, r -> r.getInt("instructor_id"), userId).orElse(null);
+        if (id != null) {
             log.trace("Found instructorId={} for userId={}", id, userId);
             return id;
         }
@@ -189,12 +179,8 @@ public class InstructorDao extends BaseDao {
 
   public boolean emailExists(String email) {
     String sql = "SELECT 1 FROM instructors WHERE email = ?";
-    try (Connection con = DBPool.erp().getConnection();
-         PreparedStatement ps = con.prepareStatement(sql)) {
-
-        ps.setString(1, email);
-        ResultSet rs = ps.executeQuery();
-        return rs.next();
+    try (Connection con = DBPool.erp().getConnection()) {
+        return exists(con, sql, email);
 
     } catch (SQLException e) {
         throw new DatabaseException("Failed checking email existence", e);
@@ -4,8 +4,8 @@ import edu.univ.erp.domain.Notification;
 import edu.univ.erp.exception.DatabaseException;
 
 import java.sql.*;
-import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,8 +13,20 @@ import org.slf4j.LoggerFactory;
 public class NotificationDao extends BaseDao {
   private static final Logger log = LoggerFactory.getLogger(NotificationDao.class);
 
-    public void insert(int senderId, String type, Integer targetId,
-                       String title, String message) {
+    private static final RowMapper<Notification> NOTIFICATION = r -> new Notification(
+            r.getInt("notif_id"),
+            r.getInt("sender_user_id"),
+            null,
+            r.getString("target_type"),
+            r.getInteger("target_id"),
+            r.getString("title"),
+            r.getString("message"),
+            r.getTimestamp("created_at").toLocalDateTime()
+    );
+
+    // Returns the new notification id.
+    public int insert(int senderId, String type, Integer targetId,
+                      String title, String message) {
 
         log.debug("Inserting notification: senderId={} type={} targetId={} title={}",
                 senderId, type, targetId, title);
@@ -26,7 +38,7 @@ public class NotificationDao extends BaseDao {
         """;
 
         try (Connection con = DBPool.erp().getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
+             PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             ps.setInt(1, senderId);
             ps.setString(2, type);
@@ -42,7 +54,12 @@ public class NotificationDao extends BaseDao {
             ps.setString(5, message);
 
             ps.executeUpdate();
-            log.info("Notification inserted successfully for senderId={}", senderId);
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                keys.next();
+                int id = keys.getInt(1);
+                log.info("Notification {} inserted successfully for senderId={}", id, senderId);
+                return id;
+            }
 
         } catch (SQLException e) {
             log.error("Failed inserting notification for senderId={}", senderId, e);
@@ -51,90 +68,218 @@ public class NotificationDao extends BaseDao {
     }
 
 
-    public List<Notification> fetchForUser(
-        String role, int userId,
-        List<Integer> sectionIds,
-        List<Integer> courseIds) {
-
-        log.debug("Fetching notifications for userId={} role={} sectionIds={} courseIds={}",
-                userId, role, sectionIds, courseIds);
-
-        List<Notification> list = new ArrayList<>();
-
-        String courseStr = courseIds.isEmpty()
-                ? "0"
-                : String.join(",", courseIds.stream().map(String::valueOf).toList());
-
-        String sectionStr = sectionIds.isEmpty()
-                ? "0"
-                : String.join(",", sectionIds.stream().map(String::valueOf).toList());
-
-
-                String sql = """
-                    SELECT id AS notif_id,
-                           sender_user_id,
-                           target_type,
-                           target_id,
-                           title,
-                           message,
-                           created_at
-                    FROM notifications
-                    WHERE
-                        sender_user_id <> ?
-                        AND (
-                               target_type='ALL'
-                            OR (target_type='ALL_STUDENTS' AND ?='STUDENT')
-                            OR (target_type='ALL_INSTRUCTORS' AND ?='INSTRUCTOR')
-                            OR (target_type='COURSE'  AND target_id IN (%COURSES%))
-                            OR (target_type='SECTION' AND target_id IN (%SECTIONS%))
-                        )
-                    ORDER BY created_at DESC
-                    LIMIT 100
-                """;
-
-        sql = sql.replace("%COURSES%", courseStr);
-        sql = sql.replace("%SECTIONS%", sectionStr);
-
-        log.trace("Final SQL for notifications: {}", sql);
+    // Expands notifications fromId..toId into one notification_inbox row per
+    // recipient, with the same visibility rules the read-time query applies:
+    // students by ENROLLED section, instructors by the sections they teach,
+    // never the sender. INSERT IGNORE makes re-running a range harmless.
+    // The SELECT is kept apart so it can be EXPLAINed on its own.
+    static final String FAN_OUT_SELECT_SQL = """
+        SELECT r.user_id, r.notif_id
+        FROM (
+            SELECT st.user_id, n.id AS notif_id, n.sender_user_id
+            FROM notifications n
+            JOIN enrollments e ON n.target_type = 'SECTION' AND e.section_id = n.target_id
+                               AND e.status = 'ENROLLED'
+            JOIN students st ON st.student_id = e.student_id
+            WHERE n.id BETWEEN ? AND ?
+            UNION ALL
+            SELECT st.user_id, n.id, n.sender_user_id
+            FROM notifications n
+            JOIN sections s ON n.target_type = 'COURSE' AND s.course_id = n.target_id
+            JOIN enrollments e ON e.section_id = s.section_id AND e.status = 'ENROLLED'
+            JOIN students st ON st.student_id = e.student_id
+            WHERE n.id BETWEEN ? AND ?
+            UNION ALL
+            SELECT i.user_id, n.id, n.sender_user_id
+            FROM notifications n
+            JOIN sections s ON (n.target_type = 'SECTION' AND s.section_id = n.target_id)
+                            OR (n.target_type = 'COURSE' AND s.course_id = n.target_id)
+            JOIN instructors i ON i.instructor_id = s.instructor_id
+            WHERE n.id BETWEEN ? AND ?
+            UNION ALL
+            SELECT st.user_id, n.id, n.sender_user_id
+            FROM notifications n
+            JOIN students st ON n.target_type IN ('ALL', 'ALL_STUDENTS')
+            WHERE n.id BETWEEN ? AND ?
+            UNION ALL
+            SELECT i.user_id, n.id, n.sender_user_id
+            FROM notifications n
+            JOIN instructors i ON n.target_type IN ('ALL', 'ALL_INSTRUCTORS')
+            WHERE n.id BETWEEN ? AND ?
+        ) r
+        WHERE r.user_id <> r.sender_user_id
+        """;
 
-        try (Connection con = DBPool.erp().getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
+    private static final String FAN_OUT_SQL =
+        "INSERT IGNORE INTO notification_inbox (user_id, notif_id)\n" + FAN_OUT_SELECT_SQL;
 
-            int idx = 1;
+    public void fanOut(int fromId, int toId) {
+        Object[] params = new Object[10];
+        for (int i = 0; i < params.length; i += 2) {
+            params[i] = fromId;
+            params[i + 1] = toId;
+        }
 
-            ps.setInt(idx++, userId);
-            ps.setString(idx++, role);
-            ps.setString(idx++, role);
+        try (Connection con = DBPool.erp().getConnection()) {
+            runUpdate(con, FAN_OUT_SQL, params);
+            log.debug("Fanned out notifications {}..{}", fromId, toId);
+        } catch (SQLException e) {
+            log.error("Fan-out failed for notifications {}..{}", fromId, toId, e);
+            throw new DatabaseException("Failed delivering notification", e);
+        }
+    }
 
-            ResultSet rs = ps.executeQuery();
+    // First notification id with no inbox rows yet, and the last id overall;
+    // [next, last] is what a backfill still has to expand.
+    public int[] inboxBacklog() {
+        String sql = """
+            SELECT COALESCE((SELECT MAX(notif_id) FROM notification_inbox), 0) + 1,
+                   COALESCE((SELECT MAX(id) FROM notifications), 0)
+            """;
+        try (Connection con = DBPool.erp().getConnection()) {
+            return queryOne(con, sql, row -> new int[] { row.getInt(1), row.getInt(2) }).orElseThrow();
+        } catch (SQLException e) {
+            throw new DatabaseException("Failed reading notification inbox state", e);
+        }
+    }
 
-            while (rs.next()) {
+    // Every notification query is built by the static *Sql methods and
+    // constants below, which QueryPlanChecker EXPLAINs as they are.
+    private static final String INBOX_SQL = """
+        SELECT n.id AS notif_id,
+               n.sender_user_id,
+               n.target_type,
+               n.target_id,
+               n.title,
+               n.message,
+               n.created_at
+        FROM notification_inbox i
+        JOIN notifications n ON n.id = i.notif_id
+        WHERE i.user_id = ? AND %s
+        ORDER BY %s
+        LIMIT ?
+        """;
 
-                Object tidObj = rs.getObject("target_id");
-                Integer targetId = (tidObj == null) ? null : ((Number) tidObj).intValue();
+    static final String INBOX_NEWER_SQL = INBOX_SQL.formatted("i.notif_id > ?", "i.notif_id ASC");
+    static final String INBOX_OLDER_SQL = INBOX_SQL.formatted("i.notif_id < ?", "i.notif_id DESC");
 
-                Notification n = new Notification(
-                        rs.getInt("notif_id"),
-                        rs.getInt("sender_user_id"),
-                        null,
-                        rs.getString("target_type"),
-                        targetId,
-                        rs.getString("title"),
-                        rs.getString("message"),
-                        rs.getTimestamp("created_at").toLocalDateTime()
-                );
+    static final String INBOX_IDS_SQL = """
+        SELECT notif_id FROM notification_inbox
+        WHERE user_id = ? AND notif_id > ?
+        ORDER BY notif_id
+        LIMIT ?
+        """;
 
-                log.trace("Loaded notification id={} title={}", n.getNotifId(), n.getTitle());
-                list.add(n);
-            }
+    public List<Notification> inboxNewer(int userId, int afterId, int limit) {
+        return inbox(userId, INBOX_NEWER_SQL, afterId, limit);
+    }
+
+    public List<Notification> inboxOlder(int userId, int beforeId, int limit) {
+        return inbox(userId, INBOX_OLDER_SQL, beforeId, limit);
+    }
+
+    private List<Notification> inbox(int userId, String sql, int boundId, int limit) {
+        try (Connection con = DBPool.erpRead().getConnection()) {
+            List<Notification> list = queryList(con, sql, NOTIFICATION, userId, boundId, limit);
+            log.debug("Loaded {} inbox rows for userId={}", list.size(), userId);
+            return list;
+        } catch (SQLException e) {
+            log.error("Failed loading inbox for userId={}", userId, e);
+            throw new DatabaseException("Failed loading notifications", e);
+        }
+    }
+
+    // Ids only, for counting unread notifications above afterId.
+    public List<Integer> inboxIdsNewer(int userId, int afterId, int limit) {
+        try (Connection con = DBPool.erpRead().getConnection()) {
+            return queryList(con, INBOX_IDS_SQL, row -> row.getInt(1), userId, afterId, limit);
+        } catch (SQLException e) {
+            log.error("Failed counting inbox rows for userId={}", userId, e);
+            throw new DatabaseException("Failed loading notifications", e);
+        }
+    }
+
+    // Rows newer than afterId, oldest first, for the inbox delta refresh.
+    public List<Notification> fetchNewer(String role, int userId, List<Integer> sectionIds,
+                                         List<Integer> courseIds, int afterId, int limit) {
+        return fetch(fetchNewerSql(FULL_COLUMNS, courseIds.size(), sectionIds.size()), NOTIFICATION,
+                role, userId, sectionIds, courseIds, afterId, limit);
+    }
 
-            log.info("Loaded {} notifications for userId={}", list.size(), userId);
+    public List<Integer> idsNewer(String role, int userId, List<Integer> sectionIds,
+                                  List<Integer> courseIds, int afterId, int limit) {
+        return fetch(fetchNewerSql("id", courseIds.size(), sectionIds.size()), row -> row.getInt(1),
+                role, userId, sectionIds, courseIds, afterId, limit);
+    }
+
+    // Keyset page: rows older than beforeId, newest first. Pass
+    // Integer.MAX_VALUE for the first page.
+    public List<Notification> fetchOlder(String role, int userId, List<Integer> sectionIds,
+                                         List<Integer> courseIds, int beforeId, int limit) {
+        return fetch(fetchOlderSql(courseIds.size(), sectionIds.size()), NOTIFICATION,
+                role, userId, sectionIds, courseIds, beforeId, limit);
+    }
+
+    static final String FULL_COLUMNS =
+            "id AS notif_id, sender_user_id, target_type, target_id, title, message, created_at";
+
+    // Parameters: bound id, user id, role, role, the course ids, the section
+    // ids, limit. An empty id list still takes one placeholder.
+    static String fetchNewerSql(String columns, int courses, int sections) {
+        return fetchSql(columns, "id > ?", "id ASC", courses, sections);
+    }
+
+    static String fetchOlderSql(int courses, int sections) {
+        return fetchSql(FULL_COLUMNS, "id < ?", "id DESC", courses, sections);
+    }
+
+    private static String fetchSql(String columns, String keyset, String order, int courses, int sections) {
+        return """
+            SELECT %s
+            FROM notifications
+            WHERE %s
+                AND sender_user_id <> ?
+                AND (
+                       target_type='ALL'
+                    OR (target_type='ALL_STUDENTS' AND ?='STUDENT')
+                    OR (target_type='ALL_INSTRUCTORS' AND ?='INSTRUCTOR')
+                    OR (target_type='COURSE'  AND target_id IN (%s))
+                    OR (target_type='SECTION' AND target_id IN (%s))
+                )
+            ORDER BY %s
+            LIMIT ?
+        """.formatted(columns, keyset, placeholders(courses), placeholders(sections), order);
+    }
+
+    private <T> List<T> fetch(String sql, RowMapper<T> mapper, String role, int userId,
+                              List<Integer> sectionIds, List<Integer> courseIds, int boundId, int limit) {
+
+        log.debug("Fetching notifications for userId={} role={} bound {} sectionIds={} courseIds={}",
+                userId, role, boundId, sectionIds, courseIds);
+
+        List<Object> params = new ArrayList<>();
+        params.add(boundId);
+        params.add(userId);
+        params.add(role);
+        params.add(role);
+        params.addAll(courseIds.isEmpty() ? List.of(0) : courseIds);
+        params.addAll(sectionIds.isEmpty() ? List.of(0) : sectionIds);
+        params.add(limit);
+
+        try (Connection con = DBPool.erpRead().getConnection()) {
+
+            List<T> list = queryList(con, sql, mapper, params.toArray());
+
+            log.debug("Loaded {} notifications for userId={}", list.size(), userId);
+            return list;
 
         } catch (SQLException e) {
             log.error("Failed loading notifications for userId={}", userId, e);
             throw new DatabaseException("Failed loading notifications", e);
         }
+    }
 
-        return list;
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(Math.max(1, count), "?"));
     }
 }
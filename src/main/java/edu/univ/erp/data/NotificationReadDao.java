@@ -0,0 +1,57 @@
+package edu.univ.erp.data;
+
+import edu.univ.erp.exception.DatabaseException;
+import edu.univ.erp.util.IdRangeSet;
+import java.sql.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class NotificationReadDao extends BaseDao {
+  private static final Logger log = LoggerFactory.getLogger(NotificationReadDao.class);
+
+  // read_ranges is VARBINARY(8192) and an encoded run takes at most 10
+  // bytes. Marks on scattered ids add a run each, so past this many the
+  // oldest gaps are given up and counted as read.
+  static final int MAX_RUNS = 512;
+
+  // Empty set when the user has never read anything. forUpdate locks the
+  // row so a concurrent session's marks are merged rather than overwritten;
+  // it only has an effect inside a transaction.
+  public IdRangeSet load(int userId, boolean forUpdate) {
+    String sql = "SELECT read_ranges FROM notification_reads WHERE user_id = ?"
+        + (forUpdate ? " FOR UPDATE" : "");
+
+    try (Connection con = DBPool.erp().getConnection()) {
+      IdRangeSet set = queryOne(con, sql, r -> IdRangeSet.decode(r.getObject("read_ranges", byte[].class)), userId)
+          .orElseGet(IdRangeSet::new);
+      log.debug("Loaded read state for userId={}: {} runs", userId, set.runCount());
+      return set;
+    } catch (SQLException e) {
+      log.error("Failed loading read state for userId={}", userId, e);
+      throw new DatabaseException("Failed loading notification read state", e);
+    }
+  }
+
+  // May collapse read (see MAX_RUNS), so callers keep what was stored.
+  public void save(int userId, IdRangeSet read) {
+    String sql = """
+        INSERT INTO notification_reads (user_id, read_ranges)
+        VALUES (?, ?)
+        ON DUPLICATE KEY UPDATE read_ranges = VALUES(read_ranges)
+        """;
+
+    int collapsed = read.collapseTo(MAX_RUNS);
+    if (collapsed > 0) {
+      log.info("Read state for userId={} over {} runs; ids up to {} now count as read", userId, MAX_RUNS, collapsed);
+    }
+
+    byte[] encoded = read.encode();
+    try (Connection con = DBPool.erp().getConnection()) {
+      runUpdate(con, sql, userId, encoded);
+      log.debug("Saved read state for userId={}: {} runs, {} bytes", userId, read.runCount(), encoded.length);
+    } catch (SQLException e) {
+      log.error("Failed saving read state for userId={}", userId, e);
+      throw new DatabaseException("Failed saving notification read state", e);
+    }
+  }
+}
@@ -0,0 +1,195 @@
+package edu.univ.erp.data;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Resizes the ERP lane pools at runtime from what DbMetrics measured over
+// the last interval. A lane grows when threads queued for a connection or
+// the average acquire took longer than the target, and shrinks one step at
+// a time after several quiet, under-used intervals. Sizes stay within
+// db.pool.<lane>.floor / .ceiling; an admin pin freezes a lane at a size.
+public class PoolController {
+
+  private static final Logger log = LoggerFactory.getLogger(PoolController.class);
+
+  private static final int QUIET_SAMPLES_BEFORE_SHRINK = 3;
+
+  private static final class LaneState {
+    final int floor;
+    final int ceiling;
+    long lastAcquires;
+    long lastAcquireNanos;
+    int quietSamples;
+    Integer pinned;
+
+    LaneState(int floor, int ceiling) {
+      this.floor = floor;
+      this.ceiling = ceiling;
+    }
+  }
+
+  private static final Map<DBPool.Lane, LaneState> LANES = new EnumMap<>(DBPool.Lane.class);
+
+  private static ScheduledExecutorService scheduler;
+  private static volatile long targetAcquireNanos;
+
+  public static synchronized void start(Properties props) {
+    stop();
+    LANES.clear();
+    for (DBPool.Lane lane : DBPool.Lane.values()) {
+      int size = DBPool.lanePool(lane).getMaximumPoolSize();
+      String prefix = "db.pool." + lane.key();
+      int floor = Integer.parseInt(props.getProperty(prefix + ".floor", String.valueOf(size)));
+      int ceiling = Integer.parseInt(props.getProperty(prefix + ".ceiling", String.valueOf(size * 2)));
+      if (floor < 1 || ceiling < floor) {
+        throw new IllegalArgumentException("Invalid pool bounds for " + lane.key() + ": " + floor + ".." + ceiling);
+      }
+      LANES.put(lane, new LaneState(floor, ceiling));
+    }
+
+    if (!Boolean.parseBoolean(props.getProperty("db.pool.control.enabled", "false"))) {
+      log.info("Adaptive pool sizing disabled (db.pool.control.enabled=false)");
+      return;
+    }
+
+    long intervalMs = Long.parseLong(props.getProperty("db.pool.control.interval.ms", "5000"));
+    targetAcquireNanos = TimeUnit.MILLISECONDS.toNanos(
+        Long.parseLong(props.getProperty("db.pool.control.target.ms", "20")));
+
+    scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+      Thread t = new Thread(r, "pool-controller");
+      t.setDaemon(true);
+      return t;
+    });
+    scheduler.scheduleWithFixedDelay(PoolController::tick, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+
+    log.info("Adaptive pool sizing every {} ms, target acquire {} ms, bounds {}", intervalMs,
+        TimeUnit.NANOSECONDS.toMillis(targetAcquireNanos), describeBounds());
+  }
+
+  public static synchronized void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+  }
+
+  // Admin override: fixes the lane at size until unpinned. Not limited by
+  // the configured bounds, so it can also be used to get out of them.
+  public static synchronized void pin(DBPool.Lane lane, int size) {
+    if (size < 1) {
+      throw new IllegalArgumentException("Pool size must be at least 1");
+    }
+    LaneState st = LANES.get(lane);
+    st.pinned = size;
+    resize(lane, size, "pinned by admin");
+  }
+
+  public static synchronized void unpin(DBPool.Lane lane) {
+    LaneState st = LANES.get(lane);
+    if (st.pinned != null) {
+      st.pinned = null;
+      st.quietSamples = 0;
+      log.info("Pool {}: pin released, adaptive sizing resumes", lane.poolName());
+    }
+  }
+
+  public static synchronized String describe() {
+    StringBuilder sb = new StringBuilder();
+    for (var e : LANES.entrySet()) {
+      LaneState st = e.getValue();
+      sb.append(String.format("%-12s size=%d bounds=%d..%d%s%n", e.getKey().key(),
+          DBPool.lanePool(e.getKey()).getHikariConfigMXBean().getMaximumPoolSize(),
+          st.floor, st.ceiling, st.pinned == null ? "" : " (pinned)"));
+    }
+    return sb.toString();
+  }
+
+  private static synchronized void tick() {
+    for (var e : LANES.entrySet()) {
+      try {
+        adjust(e.getKey(), e.getValue());
+      } catch (RuntimeException ex) {
+        log.warn("Pool controller failed for {}", e.getKey().poolName(), ex);
+      }
+    }
+  }
+
+  private static void adjust(DBPool.Lane lane, LaneState st) {
+    DbMetrics.PoolSample s = DbMetrics.get().sample(lane.poolName());
+    if (s == null)
+      return;
+
+    long acquires = s.acquires() - st.lastAcquires;
+    long nanos = s.acquireNanos() - st.lastAcquireNanos;
+    st.lastAcquires = s.acquires();
+    st.lastAcquireNanos = s.acquireNanos();
+    // counters went backwards: DbMetrics was reset
+    if (acquires < 0 || nanos < 0) {
+      return;
+    }
+
+    long avgNanos = acquires == 0 ? 0 : nanos / acquires;
+    int current = DBPool.lanePool(lane).getHikariConfigMXBean().getMaximumPoolSize();
+    String why = String.format("pending=%d active=%d/%d acquires=%d avg acquire=%.1f ms",
+        s.pending(), s.active(), current, acquires, avgNanos / 1e6);
+
+    if (st.pinned != null) {
+      log.debug("Pool {}: hold at {} (pinned) [{}]", lane.poolName(), current, why);
+      return;
+    }
+
+    int next = current;
+    if (s.pending() > 0 || avgNanos > targetAcquireNanos) {
+      st.quietSamples = 0;
+      next = Math.min(st.ceiling, current + Math.max(1, current / 4));
+    } else if (s.active() * 2 < current) {
+      if (++st.quietSamples >= QUIET_SAMPLES_BEFORE_SHRINK) {
+        st.quietSamples = 0;
+        next = Math.max(st.floor, current - 1);
+      }
+    } else {
+      st.quietSamples = 0;
+    }
+
+    next = Math.max(st.floor, Math.min(st.ceiling, next));
+    if (next == current) {
+      log.debug("Pool {}: hold at {} [{}]", lane.poolName(), current, why);
+    } else {
+      resize(lane, next, why);
+    }
+  }
+
+  private static void resize(DBPool.Lane lane, int size, String why) {
+    HikariDataSource ds = DBPool.lanePool(lane);
+    HikariConfigMXBean cfg = ds.getHikariConfigMXBean();
+    int before = cfg.getMaximumPoolSize();
+
+    // Growing: raise the max first so minimumIdle never exceeds it.
+    int minIdle = Math.max(1, size / 2);
+    if (size >= before) {
+      cfg.setMaximumPoolSize(size);
+      cfg.setMinimumIdle(minIdle);
+    } else {
+      cfg.setMinimumIdle(minIdle);
+      cfg.setMaximumPoolSize(size);
+    }
+
+    log.info("Pool {}: max {} -> {}, minIdle {} [{}]", lane.poolName(), before, size, minIdle, why);
+  }
+
+  private static String describeBounds() {
+    StringBuilder sb = new StringBuilder();
+    LANES.forEach((lane, st) -> sb.append(lane.key()).append('=').append(st.floor).append("..")
+        .append(st.ceiling).append(' '));
+    return sb.toString().trim();
+  }
+}
@@ -0,0 +1,78 @@
+package edu.univ.erp.data;
+
+import edu.univ.erp.exception.DatabaseException;
+import java.sql.*;
+import java.util.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Runs EXPLAIN over the hot DAO queries and reports any table they read
+// with a full scan. The statements are the DAOs' own SQL constants, bound
+// with sample values in the DAOs' parameter order, so the check follows
+// the DAOs as they change. On near-empty tables the optimizer may prefer a
+// scan even when an index exists, so this is meant for databases with real
+// data.
+public class QueryPlanChecker {
+
+  private static final Logger log = LoggerFactory.getLogger(QueryPlanChecker.class);
+
+  private record Probe(String name, String sql, Object... params) {
+  }
+
+  private static final List<Probe> PROBES = List.of(
+      new Probe("registration checks", RegistrationDao.CHECK_SQL, 1, 1, 1, 1, 1),
+      new Probe("seat count", SectionDao.COUNT_ENROLLED_SQL, 1),
+      new Probe("seat counts by course", SectionDao.seatCountSql(SectionDao.COURSE_FILTER), 1),
+      new Probe("student enrollments", EnrollmentDao.BY_STUDENT_SQL, 1),
+      new Probe("section enrollment ids", EnrollmentDao.IDS_BY_SECTION_SQL, 1),
+      new Probe("grades by enrollment", GradeDao.BY_ENROLLMENT_SQL, 1),
+      new Probe("student by roll no", StudentDao.ROLL_EXISTS_SQL, "0"),
+      new Probe("student by user", StudentDao.BY_USER_SQL, 1),
+      new Probe("waitlist head", WaitlistDao.HEAD_SQL, 1),
+      new Probe("waitlist rank", WaitlistDao.RANK_SQL, 1, 1),
+      new Probe("notification page",
+          NotificationDao.fetchOlderSql(1, 1), Integer.MAX_VALUE, 1, "STUDENT", "STUDENT", 1, 1, 100),
+      new Probe("notification delta",
+          NotificationDao.fetchNewerSql(NotificationDao.FULL_COLUMNS, 1, 1), 0, 1, "STUDENT", "STUDENT", 1, 1, 200),
+      new Probe("notification inbox page", NotificationDao.INBOX_OLDER_SQL, 1, Integer.MAX_VALUE, 100),
+      new Probe("notification inbox delta", NotificationDao.INBOX_NEWER_SQL, 1, 0, 200),
+      new Probe("notification inbox ids", NotificationDao.INBOX_IDS_SQL, 1, 0, 1000),
+      new Probe("notification fan-out", NotificationDao.FAN_OUT_SELECT_SQL, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1));
+
+  public static List<String> check() {
+    List<String> problems = new ArrayList<>();
+
+    try (Connection con = DBPool.erp().getConnection()) {
+      for (Probe p : PROBES) {
+        try (PreparedStatement ps = con.prepareStatement("EXPLAIN " + p.sql())) {
+          for (int i = 0; i < p.params().length; i++)
+            ps.setObject(i + 1, p.params()[i]);
+
+          try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+              String table = rs.getString("table");
+              String type = rs.getString("type");
+              String key = rs.getString("key");
+
+              if (table != null && "ALL".equalsIgnoreCase(type)) {
+                problems.add(p.name() + ": full scan of " + table);
+              } else {
+                log.debug("Plan ok for '{}': table={} type={} key={}", p.name(), table, type, key);
+              }
+            }
+          }
+        }
+      }
+    } catch (SQLException e) {
+      log.error("Query plan check failed", e);
+      throw new DatabaseException("Query plan check failed", e);
+    }
+
+    if (problems.isEmpty()) {
+      log.info("Query plan check passed for {} queries", PROBES.size());
+    } else {
+      problems.forEach(p -> log.warn("Query plan check: {}", p));
+    }
+    return problems;
+  }
+}
@@ -0,0 +1,35 @@
+package edu.univ.erp.data;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Sends reads to the replica pool unless the caller is inside a UnitOfWork
+// or this client wrote recently; then the primary answers. If the replica
+// cannot hand out a connection the read falls back to the primary.
+class ReadRoutingDataSource extends ScopedDataSource {
+
+  private static final Logger log = LoggerFactory.getLogger(ReadRoutingDataSource.class);
+
+  private final DataSource primary;
+
+  ReadRoutingDataSource(DataSource primary, DataSource replica) {
+    super(() -> replica, false);
+    this.primary = primary;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    if (UnitOfWork.isActive() || DBPool.readFromPrimary()) {
+      return primary.getConnection();
+    }
+    try {
+      return super.getConnection();
+    } catch (SQLException e) {
+      log.warn("Read pool unavailable, using primary: {}", e.getMessage());
+      return primary.getConnection();
+    }
+  }
+}
@@ -0,0 +1,210 @@
+package edu.univ.erp.data;
+
+import edu.univ.erp.exception.*;
+import java.sql.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class RegistrationDao extends BaseDao {
+  private static final Logger log = LoggerFactory.getLogger(RegistrationDao.class);
+
+  private final WaitlistDao waitlistDao = new WaitlistDao();
+
+  record SectionLock(int capacity, int courseId) {
+  }
+
+  record SeatCheck(int enrolled, int sameCourse, String ownStatus) {
+  }
+
+  record Promotion(Integer firstStudentId, int promoted) {
+  }
+
+  // Every seat-changing path locks the section row first, so concurrent
+  // registrations, drops and promotions for one section are serialized.
+  private static final String LOCK_SECTION_SQL = """
+      SELECT capacity, course_id FROM sections WHERE section_id = ? FOR UPDATE
+      """;
+
+  private static final String LOCK_STUDENT_SQL = """
+      SELECT student_id FROM students WHERE student_id = ? FOR UPDATE
+      """;
+
+  static final String CHECK_SQL = """
+      SELECT
+        (SELECT COUNT(*) FROM enrollments
+          WHERE section_id = ? AND status = 'ENROLLED') AS enrolled,
+        (SELECT COUNT(*) FROM enrollments e
+          JOIN sections s ON s.section_id = e.section_id
+          WHERE e.student_id = ? AND s.course_id = ? AND e.status = 'ENROLLED') AS same_course,
+        (SELECT status FROM enrollments
+          WHERE student_id = ? AND section_id = ?) AS own_status
+      """;
+
+  // A previously DROPPED row for the same section is reclaimed instead of
+  // tripping the unique (student_id, section_id) key.
+  private static final String CLAIM_SQL = """
+      INSERT INTO enrollments (student_id, section_id, status, registered_on)
+      VALUES (?, ?, 'ENROLLED', NOW())
+      ON DUPLICATE KEY UPDATE status = 'ENROLLED', registered_on = NOW(), dropped_on = NULL, final_grade = NULL
+      """;
+
+  private static final String DROP_SQL = """
+      UPDATE enrollments SET status = 'DROPPED', dropped_on = NOW()
+      WHERE enrollment_id = ? AND student_id = ? AND status = 'ENROLLED'
+      """;
+
+  public void register(int studentId, int sectionId) {
+    log.debug("Registering studentId={} in sectionId={}", studentId, sectionId);
+
+    try (Connection con = DBPool.erp().getConnection()) {
+      con.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+      con.setAutoCommit(false);
+
+      try {
+        claimSeat(con, studentId, sectionId);
+        con.commit();
+        UnitOfWork.afterCommit(() -> SeatAvailability.adjust(sectionId, 1));
+        log.info("Registration committed studentId={} sectionId={}", studentId, sectionId);
+
+      } catch (RuntimeException | SQLException e) {
+        con.rollback();
+        throw e;
+      }
+
+    } catch (SQLException e) {
+      log.error("Registration failed studentId={} sectionId={}", studentId, sectionId, e);
+      throw new DatabaseException("Registration failed", e);
+    }
+  }
+
+  public Integer drop(int studentId, int enrollmentId, int sectionId) {
+    log.debug("Dropping enrollmentId={} for studentId={} sectionId={}", enrollmentId, studentId, sectionId);
+
+    try (Connection con = DBPool.erp().getConnection()) {
+      con.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+      con.setAutoCommit(false);
+
+      try {
+        SectionLock lock = lockSection(con, sectionId);
+
+        try (PreparedStatement ps = con.prepareStatement(DROP_SQL)) {
+          ps.setInt(1, enrollmentId);
+          ps.setInt(2, studentId);
+          if (ps.executeUpdate() == 0) {
+            throw new ValidationException("Cannot drop a non-active enrollment.");
+          }
+        }
+
+        Promotion promotion = promoteWaitlist(con, sectionId, lock);
+        con.commit();
+        UnitOfWork.afterCommit(() -> SeatAvailability.adjust(sectionId, promotion.promoted() - 1));
+
+        log.info("Drop committed enrollmentId={} studentId={} promotedStudentId={}",
+            enrollmentId, studentId, promotion.firstStudentId());
+        return promotion.firstStudentId();
+
+      } catch (RuntimeException | SQLException e) {
+        con.rollback();
+        throw e;
+      }
+
+    } catch (SQLException e) {
+      log.error("Drop failed enrollmentId={} studentId={}", enrollmentId, studentId, e);
+      throw new DatabaseException("Failed to drop enrollment", e);
+    }
+  }
+
+  void claimSeat(Connection con, int studentId, int sectionId) throws SQLException {
+    SectionLock lock = lockSection(con, sectionId);
+    lockStudent(con, studentId);
+
+    SeatCheck check = check(con, studentId, sectionId, lock.courseId());
+
+    if ("ENROLLED".equals(check.ownStatus())) {
+      throw new ValidationException("Already enrolled in this section.");
+    }
+    if ("COMPLETED".equals(check.ownStatus())) {
+      throw new ValidationException("You have already completed this section.");
+    }
+    if (check.sameCourse() > 0) {
+      throw new ValidationException("You are already enrolled in another section of this course.");
+    }
+    if (check.enrolled() >= lock.capacity()) {
+      throw new SectionFullException(sectionId);
+    }
+
+    claim(con, studentId, sectionId);
+  }
+
+  // Fills free seats from the head of the waitlist. Entries whose student
+  // can no longer take the seat are discarded. Returns the first student
+  // promoted (or null) and how many were promoted.
+  Promotion promoteWaitlist(Connection con, int sectionId, SectionLock lock) throws SQLException {
+    Integer first = null;
+    int promoted = 0;
+
+    while (true) {
+      WaitlistDao.Head head = waitlistDao.head(con, sectionId);
+      if (head == null) {
+        break;
+      }
+
+      lockStudent(con, head.studentId());
+      SeatCheck check = check(con, head.studentId(), sectionId, lock.courseId());
+
+      if (check.enrolled() >= lock.capacity()) {
+        break;
+      }
+
+      boolean eligible = check.sameCourse() == 0 && !"COMPLETED".equals(check.ownStatus());
+      if (eligible) {
+        claim(con, head.studentId(), sectionId);
+        log.info("Promoted studentId={} from waitlist into sectionId={}", head.studentId(), sectionId);
+        promoted++;
+        if (first == null) {
+          first = head.studentId();
+        }
+      } else {
+        log.info("Discarding stale waitlist entry studentId={} sectionId={}", head.studentId(), sectionId);
+      }
+
+      waitlistDao.delete(con, head.waitlistId());
+    }
+
+    return new Promotion(first, promoted);
+  }
+
+  SectionLock lockSection(Connection con, int sectionId) throws SQLException {
+    SectionLock lock = queryOne(con, LOCK_SECTION_SQL,
+        r -> new SectionLock(r.getInt("capacity"), r.getInt("course_id")), sectionId)
+        .orElseThrow(() -> {
+          log.warn("Section {} not found while locking", sectionId);
+          return new NotFoundException("Section not found: " + sectionId);
+        });
+
+    if (lock.capacity() < 0) {
+      throw new ValidationException("Section capacity is invalid.");
+    }
+    return lock;
+  }
+
+  SeatCheck check(Connection con, int studentId, int sectionId, int courseId) throws SQLException {
+    return queryOne(con, CHECK_SQL,
+        r -> new SeatCheck(r.getInt("enrolled"), r.getInt("same_course"), r.getString("own_status")),
+        sectionId, studentId, courseId, studentId, sectionId).orElseThrow();
+  }
+
+  private void lockStudent(Connection con, int studentId) throws SQLException {
+    if (!exists(con, LOCK_STUDENT_SQL, studentId)) {
+      throw new NotFoundException("Student record not found: " + studentId);
+    }
+  }
+
+  private void claim(Connection con, int studentId, int sectionId) throws SQLException {
+    try (PreparedStatement ps = con.prepareStatement(CLAIM_SQL)) {
+      ps.setInt(1, studentId);
+      ps.setInt(2, sectionId);
+      ps.executeUpdate();
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package edu.univ.erp.data;
+
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Cursor view handed to a RowMapper. Column labels are resolved to indexes
+// once per result set from its metadata; every row after that is read by
+// index.
+public final class Row {
+  private final ResultSet rs;
+  private final Map<String, Integer> index;
+
+  Row(ResultSet rs) throws SQLException {
+    this.rs = rs;
+
+    ResultSetMetaData md = rs.getMetaData();
+    int n = md.getColumnCount();
+    this.index = new HashMap<>(n * 2);
+    for (int i = n; i >= 1; i--) {
+      // first occurrence wins, as with ResultSet.findColumn
+      index.put(md.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+    }
+  }
+
+  public int col(String label) throws SQLException {
+    Integer i = index.get(label);
+    if (i == null) {
+      i = index.get(label.toLowerCase(Locale.ROOT));
+      if (i == null)
+        throw new SQLException("Unknown column: " + label);
+    }
+    return i;
+  }
+
+  public int getInt(String label) throws SQLException {
+    return rs.getInt(col(label));
+  }
+
+  public int getInt(int column) throws SQLException {
+    return rs.getInt(column);
+  }
+
+  public Integer getInteger(String label) throws SQLException {
+    int v = rs.getInt(col(label));
+    return rs.wasNull() ? null : v;
+  }
+
+  public long getLong(String label) throws SQLException {
+    return rs.getLong(col(label));
+  }
+
+  public double getDouble(String label) throws SQLException {
+    return rs.getDouble(col(label));
+  }
+
+  public boolean getBoolean(String label) throws SQLException {
+    return rs.getBoolean(col(label));
+  }
+
+  public String getString(String label) throws SQLException {
+    return rs.getString(col(label));
+  }
+
+  public String getString(int column) throws SQLException {
+    return rs.getString(column);
+  }
+
+  public Timestamp getTimestamp(String label) throws SQLException {
+    return rs.getTimestamp(col(label));
+  }
+
+  public <T> T getObject(String label, Class<T> type) throws SQLException {
+    return rs.getObject(col(label), type);
+  }
+
+  public ResultSet resultSet() {
+    return rs;
+  }
+}
@@ -0,0 +1,8 @@
+package edu.univ.erp.data;
+
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface RowMapper<T> {
+  T map(Row row) throws SQLException;
+}
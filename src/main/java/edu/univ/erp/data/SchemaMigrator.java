@@ -0,0 +1,197 @@
+package edu.univ.erp.data;
+
+import edu.univ.erp.exception.DatabaseException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.*;
+import java.util.zip.CRC32;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class SchemaMigrator {
+
+  private static final Logger log = LoggerFactory.getLogger(SchemaMigrator.class);
+
+  // Scripts live under db/migration/<schema>/ on the classpath. They are
+  // listed here rather than discovered so the order never depends on how
+  // the classpath is packaged. Append only; never edit an applied script.
+  private static final Map<String, List<String>> MIGRATIONS = Map.of(
+      "erp", List.of(
+          "V1__waitlist.sql",
+          "V2__hot_path_indexes.sql",
+          "V3__course_updated_at.sql",
+          "V4__notification_inbox.sql",
+          "V5__notification_reads.sql",
+          "V6__change_log.sql"),
+      "auth", List.of());
+
+  private static final String VERSION_TABLE_SQL = """
+      CREATE TABLE IF NOT EXISTS schema_version (
+        version INT UNSIGNED NOT NULL PRIMARY KEY,
+        description VARCHAR(200) NOT NULL,
+        script VARCHAR(200) NOT NULL,
+        checksum BIGINT NOT NULL,
+        installed_on DATETIME DEFAULT CURRENT_TIMESTAMP,
+        execution_ms INT UNSIGNED NOT NULL
+      )
+      """;
+
+  public static void migrateAll(Properties props) {
+    if (!Boolean.parseBoolean(props.getProperty("db.migrate", "true"))) {
+      log.info("Schema migrations disabled (db.migrate=false)");
+      return;
+    }
+    migrate("auth", DBPool.auth());
+    migrate("erp", DBPool.erp());
+  }
+
+  public static int migrate(String schema, DataSource ds) {
+    List<String> scripts = MIGRATIONS.getOrDefault(schema, List.of());
+    if (scripts.isEmpty()) {
+      log.debug("No migrations registered for schema '{}'", schema);
+      return 0;
+    }
+
+    String lockName = "schema_migrate_" + schema;
+
+    try (Connection con = ds.getConnection()) {
+      // Several clients may start at once; only one applies migrations.
+      if (!acquireLock(con, lockName)) {
+        throw new DatabaseException("Timed out waiting for migration lock on " + schema);
+      }
+
+      try {
+        runScript(con, VERSION_TABLE_SQL);
+        Map<Integer, Long> applied = appliedVersions(con);
+
+        int count = 0;
+        for (String script : scripts) {
+          int version = versionOf(script);
+          String sql = load(schema, script);
+          long checksum = checksum(sql);
+
+          Long known = applied.get(version);
+          if (known != null) {
+            if (known != checksum) {
+              log.warn("Migration {}/{} changed after it was applied (checksum {} != {})",
+                  schema, script, checksum, known);
+            }
+            continue;
+          }
+
+          long start = System.currentTimeMillis();
+          runScript(con, sql);
+          long took = System.currentTimeMillis() - start;
+
+          record(con, version, script, checksum, took);
+          log.info("Applied migration {}/{} in {} ms", schema, script, took);
+          count++;
+        }
+
+        log.info("Schema '{}' is at version {} ({} migrations applied now)",
+            schema, versionOf(scripts.get(scripts.size() - 1)), count);
+        return count;
+
+      } finally {
+        releaseLock(con, lockName);
+      }
+
+    } catch (SQLException e) {
+      log.error("Schema migration failed for '{}'", schema, e);
+      throw new DatabaseException("Schema migration failed for " + schema + ": " + e.getMessage(), e);
+    }
+  }
+
+  private static Map<Integer, Long> appliedVersions(Connection con) throws SQLException {
+    Map<Integer, Long> applied = new HashMap<>();
+    try (Statement st = con.createStatement();
+        ResultSet rs = st.executeQuery("SELECT version, checksum FROM schema_version")) {
+      while (rs.next()) {
+        applied.put(rs.getInt(1), rs.getLong(2));
+      }
+    }
+    return applied;
+  }
+
+  private static void record(Connection con, int version, String script, long checksum, long took)
+      throws SQLException {
+    String sql = """
+        INSERT INTO schema_version (version, description, script, checksum, execution_ms)
+        VALUES (?, ?, ?, ?, ?)
+        """;
+    try (PreparedStatement ps = con.prepareStatement(sql)) {
+      ps.setInt(1, version);
+      ps.setString(2, script.substring(script.indexOf("__") + 2, script.lastIndexOf('.')).replace('_', ' '));
+      ps.setString(3, script);
+      ps.setLong(4, checksum);
+      ps.setLong(5, took);
+      ps.executeUpdate();
+    }
+  }
+
+  // Scripts are plain DDL: statements end with ';' and '--' starts a
+  // line comment. No procedures or custom delimiters.
+  private static void runScript(Connection con, String sql) throws SQLException {
+    StringBuilder stmt = new StringBuilder();
+    try (Statement st = con.createStatement()) {
+      for (String line : sql.split("\\R")) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("--"))
+          continue;
+
+        stmt.append(line).append('\n');
+        if (trimmed.endsWith(";")) {
+          String s = stmt.toString().trim();
+          st.execute(s.substring(0, s.length() - 1));
+          stmt.setLength(0);
+        }
+      }
+      if (!stmt.toString().isBlank()) {
+        st.execute(stmt.toString());
+      }
+    }
+  }
+
+  private static String load(String schema, String script) {
+    String path = "/db/migration/" + schema + "/" + script;
+    try (InputStream in = SchemaMigrator.class.getResourceAsStream(path)) {
+      if (in == null) {
+        throw new DatabaseException("Migration script missing from classpath: " + path);
+      }
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new DatabaseException("Failed reading migration " + path, e);
+    }
+  }
+
+  private static int versionOf(String script) {
+    return Integer.parseInt(script.substring(1, script.indexOf("__")));
+  }
+
+  private static long checksum(String sql) {
+    CRC32 crc = new CRC32();
+    crc.update(sql.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+    return crc.getValue();
+  }
+
+  private static boolean acquireLock(Connection con, String name) throws SQLException {
+    try (PreparedStatement ps = con.prepareStatement("SELECT GET_LOCK(?, 30)")) {
+      ps.setString(1, name);
+      try (ResultSet rs = ps.executeQuery()) {
+        return rs.next() && rs.getInt(1) == 1;
+      }
+    }
+  }
+
+  private static void releaseLock(Connection con, String name) {
+    try (PreparedStatement ps = con.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+      ps.setString(1, name);
+      ps.executeQuery().close();
+    } catch (SQLException e) {
+      log.warn("Failed releasing migration lock {}", name, e);
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package edu.univ.erp.data;
+
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+
+// Hands out the UnitOfWork connection when one is bound to the thread,
+// otherwise a fresh connection from the pool the supplier picks. With
+// trackWrites set, statements prepared on pooled connections are reported
+// to DBPool so reads can stay on the primary after a write.
+class ScopedDataSource implements DataSource {
+
+  private final Supplier<DataSource> pool;
+  private final boolean trackWrites;
+
+  ScopedDataSource(Supplier<DataSource> pool, boolean trackWrites) {
+    this.pool = pool;
+    this.trackWrites = trackWrites;
+  }
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    Connection bound = UnitOfWork.bound();
+    if (bound != null)
+      return bound;
+    Connection con = pool.get().getConnection();
+    return trackWrites ? tracking(con) : con;
+  }
+
+  private static Connection tracking(Connection con) {
+    return (Connection) Proxy.newProxyInstance(
+        Connection.class.getClassLoader(),
+        new Class<?>[] { Connection.class },
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "prepareStatement":
+            case "prepareCall":
+              DBPool.noteStatement((String) args[0]);
+              break;
+            case "createStatement":
+              DBPool.noteWrite();
+              break;
+            default:
+              break;
+          }
+          try {
+            return method.invoke(con, args);
+          } catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+        });
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return pool.get().getConnection(username, password);
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return pool.get().getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    pool.get().setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    pool.get().setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return pool.get().getLoginTimeout();
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    return pool.get().getParentLogger();
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    return iface.isInstance(this) ? iface.cast(this) : pool.get().unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(this) || pool.get().isWrapperFor(iface);
+  }
+}
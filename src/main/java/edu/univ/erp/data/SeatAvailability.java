@@ -0,0 +1,161 @@
+package edu.univ.erp.data;
+
+import edu.univ.erp.domain.SeatCount;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// In-memory enrolled/capacity counts per section for "seats left" displays.
+// Counts are loaded per course (or per term) with one grouped query, moved
+// by +/-1 after each committed register, drop and waitlist promotion, and
+// reconciled against the database every seats.reconcile.ms to pick up
+// changes made by other clients. Only courses this client has looked at
+// are held, so only those are reconciled; a client that never shows seat
+// counts never queries them. They are advisory only: registration still
+// checks capacity under the section lock.
+public class SeatAvailability {
+
+  private static final Logger log = LoggerFactory.getLogger(SeatAvailability.class);
+
+  private static final SectionDao dao = new SectionDao();
+
+  private static final Map<Integer, SeatCount> SEATS = new ConcurrentHashMap<>();
+  private static final Set<Integer> LOADED_COURSES = ConcurrentHashMap.newKeySet();
+
+  private static final int RECONCILE_CHUNK = 200;
+
+  private static ScheduledExecutorService reconciler;
+
+  public static synchronized void init(Properties props) {
+    long intervalMs = Long.parseLong(props.getProperty("seats.reconcile.ms", "30000"));
+
+    if (reconciler != null) {
+      reconciler.shutdownNow();
+    }
+    if (intervalMs > 0) {
+      reconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "seat-reconciler");
+        t.setDaemon(true);
+        return t;
+      });
+      reconciler.scheduleWithFixedDelay(() -> {
+        try {
+          DBPool.withLane(DBPool.Lane.REPORTING, () -> {
+            reconcile();
+            return null;
+          });
+        } catch (RuntimeException e) {
+          log.warn("Seat count reconcile failed", e);
+        }
+      }, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+    log.info("Seat availability: reconcile loaded courses every {} ms", intervalMs);
+  }
+
+  public static Map<Integer, SeatCount> forCourse(int courseId) {
+    if (!LOADED_COURSES.contains(courseId)) {
+      store(dao.seatCountsByCourse(courseId));
+      LOADED_COURSES.add(courseId);
+    }
+
+    Map<Integer, SeatCount> out = new HashMap<>();
+    for (SeatCount c : SEATS.values()) {
+      if (c.courseId() == courseId)
+        out.put(c.sectionId(), c);
+    }
+    return out;
+  }
+
+  // Always read from the database; a term spans many courses, so this is
+  // also a cheap way to refresh them in bulk.
+  public static List<SeatCount> forTerm(String semester, int year) {
+    List<SeatCount> counts = dao.seatCountsByTerm(semester, year);
+    store(counts);
+    return counts;
+  }
+
+  public static SeatCount forSection(int sectionId) {
+    SeatCount c = SEATS.get(sectionId);
+    if (c != null)
+      return c;
+
+    List<SeatCount> loaded = dao.seatCountsForSection(sectionId);
+    store(loaded);
+    return loaded.isEmpty() ? null : loaded.get(0);
+  }
+
+  // Called after commit by the registration paths.
+  static void adjust(int sectionId, int delta) {
+    if (delta == 0)
+      return;
+    SEATS.computeIfPresent(sectionId, (id, c) -> c.withEnrolled(c.enrolled() + delta));
+  }
+
+  // After sections of a course are created, deleted or resized.
+  public static void invalidateCourse(int courseId) {
+    LOADED_COURSES.remove(courseId);
+    SEATS.values().removeIf(c -> c.courseId() == courseId);
+  }
+
+  public static void invalidateSection(int sectionId) {
+    SeatCount c = SEATS.remove(sectionId);
+    if (c != null) {
+      LOADED_COURSES.remove(c.courseId());
+    }
+  }
+
+  // Re-reads every course held in memory, whole courses so that sections
+  // another client added or deleted are picked up too.
+  public static void reconcile() {
+    Set<Integer> held = new HashSet<>(LOADED_COURSES);
+    for (SeatCount c : SEATS.values())
+      held.add(c.courseId());
+    if (held.isEmpty()) {
+      log.trace("No seat counts held, nothing to reconcile");
+      return;
+    }
+
+    long started = System.currentTimeMillis();
+    List<Integer> courseIds = new ArrayList<>(held);
+    int sections = 0;
+    int corrected = 0;
+
+    for (int from = 0; from < courseIds.size(); from += RECONCILE_CHUNK) {
+      List<Integer> chunk = courseIds.subList(from, Math.min(from + RECONCILE_CHUNK, courseIds.size()));
+      List<SeatCount> fresh = dao.seatCountsByCourses(chunk);
+
+      Set<Integer> seen = new HashSet<>();
+      for (SeatCount c : fresh) {
+        SeatCount old = SEATS.put(c.sectionId(), c);
+        if (old != null && (old.enrolled() != c.enrolled() || old.capacity() != c.capacity())) {
+          corrected++;
+          log.debug("Seat count corrected for sectionId={}: {}/{} -> {}/{}", c.sectionId(),
+              old.enrolled(), old.capacity(), c.enrolled(), c.capacity());
+        }
+        seen.add(c.sectionId());
+      }
+      Set<Integer> inChunk = new HashSet<>(chunk);
+      SEATS.values().removeIf(c -> inChunk.contains(c.courseId()) && !seen.contains(c.sectionId()));
+      LOADED_COURSES.addAll(chunk);
+      sections += fresh.size();
+    }
+
+    if (corrected > 0) {
+      log.info("Reconciled seat counts for {} sections of {} courses ({} corrected) in {} ms", sections,
+          courseIds.size(), corrected, System.currentTimeMillis() - started);
+    } else {
+      log.debug("Seat counts for {} sections of {} courses already current ({} ms)", sections,
+          courseIds.size(), System.currentTimeMillis() - started);
+    }
+  }
+
+  private static void store(List<SeatCount> counts) {
+    for (SeatCount c : counts) {
+      SEATS.put(c.sectionId(), c);
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package edu.univ.erp.data;
 
+import edu.univ.erp.domain.SeatCount;
 import edu.univ.erp.domain.Section;
 import edu.univ.erp.domain.Student;
 import edu.univ.erp.exception.*;
@@ -11,16 +12,42 @@ import org.slf4j.LoggerFactory;
 public class SectionDao extends BaseDao {
   private static final Logger log = LoggerFactory.getLogger(SectionDao.class);
 
+  private static final String COLUMNS =
+      "section_id, course_id, instructor_id, day_time, room, capacity, semester, year";
+
+  private static final RowMapper<Section> SECTION = r -> new Section(
+      r.getInt("section_id"),
+      r.getInt("course_id"),
+      r.getInteger("instructor_id"),
+      r.getString("day_time"),
+      r.getString("room"),
+      r.getInt("capacity"),
+      r.getString("semester"),
+      r.getInt("year"));
+
+  private static final RowMapper<SeatCount> SEAT_COUNT = r -> new SeatCount(
+      r.getInt("section_id"),
+      r.getInt("course_id"),
+      r.getInt("capacity"),
+      r.getInt("enrolled"));
+
+  // Enrolled count per section in one grouped pass; sections with nobody
+  // enrolled come back with 0 through the LEFT JOIN.
+  private static final String SEAT_COUNT_SQL = """
+      SELECT s.section_id, s.course_id, s.capacity, COUNT(e.enrollment_id) AS enrolled
+      FROM sections s
+      LEFT JOIN enrollments e ON e.section_id = s.section_id AND e.status = 'ENROLLED'
+      WHERE %s
+      GROUP BY s.section_id, s.course_id, s.capacity
+      """;
+
   public List<Section> findByCourse(int courseId) {
     log.debug("Fetching sections for courseId={}", courseId);
 
-    String sql = "SELECT * FROM sections WHERE course_id=?";
-    try (Connection con = DBPool.erp().getConnection();
-        ResultSet rs = runQuery(con, sql, courseId)) {
+    String sql = "SELECT " + COLUMNS + " FROM sections WHERE course_id=?";
+    try (Connection con = DBPool.erpRead().getConnection()) {
 
-      List<Section> list = new ArrayList<>();
-      while (rs.next())
-        list.add(map(rs));
+      List<Section> list = queryList(con, sql, SECTION, courseId);
 
       log.info("Loaded {} sections for courseId={}", list.size(), courseId);
       return list;
@@ -34,14 +61,10 @@ public class SectionDao extends BaseDao {
   public List<Section> findAll() {
     log.debug("Fetching all sections");
 
-    String sql = "SELECT * FROM sections ORDER BY section_id";
-    try (Connection con = DBPool.erp().getConnection();
-        ResultSet rs = runQuery(con, sql)) {
+    String sql = "SELECT " + COLUMNS + " FROM sections ORDER BY section_id";
+    try (Connection con = DBPool.erpRead().getConnection()) {
 
-      List<Section> list = new ArrayList<>();
-      while (rs.next()) {
-        list.add(map(rs));
-      }
+      List<Section> list = queryList(con, sql, SECTION);
 
       log.info("Loaded {} total sections", list.size());
       return list;
@@ -55,16 +78,13 @@ public class SectionDao extends BaseDao {
   public Section findById(int id) {
     log.debug("Looking up section by id={}", id);
 
-    String sql = "SELECT * FROM sections WHERE section_id=?";
-    try (Connection con = DBPool.erp().getConnection();
-        ResultSet rs = runQuery(con, sql, id)) {
+    String sql = "SELECT " + COLUMNS + " FROM sections WHERE section_id=?";
+    try (Connection con = DBPool.erpRead().getConnection()) {
 
-      if (!rs.next()) {
+      Section s = queryOne(con, sql, SECTION, id).orElseThrow(() -> {
         log.warn("Section not found for id={}", id);
-        throw new NotFoundException("Section not found");
-      }
-
-      Section s = map(rs);
+        return new NotFoundException("Section not found");
+      });
       log.info("Section found: id={}", id);
       return s;
 
@@ -74,18 +94,6 @@ public class SectionDao extends BaseDao {
     }
   }
 
-  private Section map(ResultSet rs) throws SQLException {
-    return new Section(
-        rs.getInt("section_id"),
-        rs.getInt("course_id"),
-        rs.getObject("instructor_id", Integer.class),
-        rs.getString("day_time"),
-        rs.getString("room"),
-        rs.getInt("capacity"),
-        rs.getString("semester"),
-        rs.getInt("year"));
-  }
-
   public void insert(int courseId, Integer instructorId, String dayTime, String room, int capacity, String semester,
       int year) {
 
@@ -176,25 +184,19 @@ public class SectionDao extends BaseDao {
         WHERE s.student_id = ?
     """;
 
-    try (Connection con = DBPool.erp().getConnection();
-         PreparedStatement ps = con.prepareStatement(sql)) {
-
-        ps.setInt(1, studentId);
-        ResultSet rs = ps.executeQuery();
+    try (Connection con = DBPool.erp().getConnection()) {
 
-        if (!rs.next()) {
+        Student s = queryOne(con, sql, r -> new Student(
+                r.getInt("user_id"),
+                r.getString("username"),
+                r.getString("roll_no"),
+                r.getString("program"),
+                r.getInt("year"),
+                r.getString("email")
+        ), studentId).orElseThrow(() -> {
             log.warn("Student not found studentId={}", studentId);
-            throw new NotFoundException("Student not found for student_id=" + studentId);
-        }
-
-        Student s = new Student(
-                rs.getInt("user_id"),
-                rs.getString("username"),
-                rs.getString("roll_no"),
-                rs.getString("program"),
-                rs.getInt("year"),
-                rs.getString("email")
-        );
+            return new NotFoundException("Student not found for student_id=" + studentId);
+        });
 
         log.info("Student loaded userId={} for studentId={}", s.getUserId(), studentId);
         return s;
@@ -206,15 +208,47 @@ public class SectionDao extends BaseDao {
   }
 
 
-  public int countEnrollments(int sectionId) {
-    String sql = "SELECT COUNT(*) FROM enrollments WHERE section_id = ? AND status = 'ENROLLED'";
-    try (Connection con = DBPool.erp().getConnection();
-         PreparedStatement ps = con.prepareStatement(sql)) {
+  static final String COURSE_FILTER = "s.course_id = ?";
+
+  static String seatCountSql(String where) {
+    return String.format(SEAT_COUNT_SQL, where);
+  }
 
-        ps.setInt(1, sectionId);
-        ResultSet rs = ps.executeQuery();
-        rs.next();
-        return rs.getInt(1);
+  public List<SeatCount> seatCountsByCourse(int courseId) {
+    return seatCounts(COURSE_FILTER, courseId);
+  }
+
+  public List<SeatCount> seatCountsByTerm(String semester, int year) {
+    return seatCounts("s.semester = ? AND s.year = ?", semester, year);
+  }
+
+  public List<SeatCount> seatCountsForSection(int sectionId) {
+    return seatCounts("s.section_id = ?", sectionId);
+  }
+
+  public List<SeatCount> seatCountsByCourses(List<Integer> courseIds) {
+    if (courseIds.isEmpty())
+      return List.of();
+    String in = String.join(",", Collections.nCopies(courseIds.size(), "?"));
+    return seatCounts("s.course_id IN (" + in + ")", courseIds.toArray());
+  }
+
+  private List<SeatCount> seatCounts(String where, Object... params) {
+    try (Connection con = DBPool.erp().getConnection()) {
+      return queryList(con, seatCountSql(where), SEAT_COUNT, params);
+
+    } catch (SQLException e) {
+      log.error("Seat count query failed ({})", where, e);
+      throw new DatabaseException("Failed counting seats", e);
+    }
+  }
+
+  static final String COUNT_ENROLLED_SQL =
+      "SELECT COUNT(*) FROM enrollments WHERE section_id = ? AND status = 'ENROLLED'";
+
+  public int countEnrollments(int sectionId) {
+    try (Connection con = DBPool.erp().getConnection()) {
+        return queryOne(con, COUNT_ENROLLED_SQL, r -> r.getInt(1), sectionId).orElse(0);
 
     } catch (SQLException e) {
         throw new DatabaseException("Failed counting enrollments", e);
@@ -0,0 +1,122 @@
+package edu.univ.erp.data;
+
+import edu.univ.erp.exception.DatabaseException;
+import java.sql.*;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class SettingsCache {
+
+  private static final Logger log = LoggerFactory.getLogger(SettingsCache.class);
+
+  private static final String LOAD_SQL = "SELECT `key`, `value`, updated_at FROM settings";
+  private static final String VERSION_SQL = "SELECT COUNT(*), MAX(updated_at) FROM settings";
+
+  private static volatile long ttlMillis = 2000;
+  private static volatile long maxAgeMillis = 30000;
+
+  private static volatile Map<String, String> values = Map.of();
+  private static volatile String version;
+  private static volatile long loadedAt;
+  private static volatile long checkedAt;
+  // Bumped by invalidate(). The values are current only while loadedGen,
+  // the generation read before they were loaded, still matches it.
+  private static final AtomicLong generation = new AtomicLong();
+  private static volatile long loadedGen = -1;
+  private static final Object reloadLock = new Object();
+
+  public static void init(Properties props) {
+    ttlMillis = Long.parseLong(props.getProperty("settings.cache.ttl.ms", "2000"));
+    maxAgeMillis = Long.parseLong(props.getProperty("settings.cache.maxage.ms", "30000"));
+    invalidate();
+    log.info("Settings cache configured: ttl={}ms maxAge={}ms", ttlMillis, maxAgeMillis);
+  }
+
+  // Reads within the TTL only look at volatile fields, so the EDT never
+  // waits behind a reload running on another thread.
+  public static String get(String key) {
+    if (!isCurrent(generation.get(), System.currentTimeMillis()))
+      refresh();
+    return values.get(key);
+  }
+
+  public static void invalidate() {
+    log.debug("Settings cache invalidated");
+    generation.incrementAndGet();
+  }
+
+  private static boolean isCurrent(long gen, long now) {
+    return loadedGen == gen && now - checkedAt < ttlMillis;
+  }
+
+  // After the TTL a single COUNT/MAX(updated_at) probe decides whether to
+  // reload. updated_at only has second precision, so a full reload is
+  // forced after maxAge anyway. Callers that queued on the lock find the
+  // work already done.
+  private static void refresh() {
+    synchronized (reloadLock) {
+      long now = System.currentTimeMillis();
+      long gen = generation.get();
+      if (isCurrent(gen, now))
+        return;
+      reload(gen, now);
+    }
+  }
+
+  private static void reload(long gen, long now) {
+    try (Connection con = DBPool.erp().getConnection()) {
+      if (loadedGen == gen && now - loadedAt < maxAgeMillis) {
+        String probe = probeVersion(con);
+        checkedAt = now;
+        if (probe.equals(version)) {
+          log.trace("Settings cache still current (version={})", version);
+          return;
+        }
+        log.debug("Settings version changed {} -> {}, reloading", version, probe);
+      }
+
+      load(con);
+      // an invalidate() during the load moves the generation past gen, so
+      // the next read reloads
+      loadedGen = gen;
+      loadedAt = now;
+      checkedAt = now;
+
+    } catch (SQLException e) {
+      log.error("Failed refreshing settings cache", e);
+      throw new DatabaseException("Failed to read settings", e);
+    }
+  }
+
+  private static void load(Connection con) throws SQLException {
+    Map<String, String> fresh = new HashMap<>();
+    Timestamp max = null;
+
+    try (PreparedStatement ps = con.prepareStatement(LOAD_SQL);
+        ResultSet rs = ps.executeQuery()) {
+      while (rs.next()) {
+        fresh.put(rs.getString(1), rs.getString(2));
+        Timestamp ts = rs.getTimestamp(3);
+        if (ts != null && (max == null || ts.after(max)))
+          max = ts;
+      }
+    }
+
+    values = Collections.unmodifiableMap(fresh);
+    version = fresh.size() + "@" + max;
+    log.info("Settings cache loaded {} keys (version={})", fresh.size(), version);
+  }
+
+  private static String probeVersion(Connection con) throws SQLException {
+    try (PreparedStatement ps = con.prepareStatement(VERSION_SQL);
+        ResultSet rs = ps.executeQuery()) {
+      rs.next();
+      return rs.getInt(1) + "@" + rs.getTimestamp(2);
+    }
+  }
+}
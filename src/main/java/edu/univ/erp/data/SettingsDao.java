@@ -5,6 +5,9 @@ import edu.univ.erp.exception.DatabaseException;
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,26 +15,18 @@ import org.slf4j.LoggerFactory;
 public class SettingsDao extends BaseDao {
   private static final Logger log = LoggerFactory.getLogger(SettingsDao.class);
 
-  public boolean isMaintenanceMode() {
-    log.debug("Checking maintenance mode status");
-
-    String sql = "SELECT value FROM settings WHERE `key`='maintenance_mode'";
-    try (Connection con = DBPool.erp().getConnection();
-        ResultSet rs = runQuery(con, sql)) {
+  private static final DateTimeFormatter DMY = DateTimeFormatter.ofPattern("dd:MM:yyyy");
 
-      if (rs.next()) {
-        boolean mode = Boolean.parseBoolean(rs.getString("value"));
-        log.info("Maintenance mode status loaded: {}", mode);
-        return mode;
-      }
-
-      log.warn("Maintenance mode setting not found, defaulting to false");
+  public boolean isMaintenanceMode() {
+    String raw = getValue("maintenance_mode");
+    if (raw == null) {
+      log.debug("Maintenance mode setting not found, defaulting to false");
       return false;
-
-    } catch (SQLException e) {
-      log.error("Error checking maintenance mode", e);
-      throw new DatabaseException("Error checking maintenance mode", e);
     }
+
+    boolean mode = Boolean.parseBoolean(raw);
+    log.debug("Maintenance mode status: {}", mode);
+    return mode;
   }
 
   public void setMaintenanceMode(boolean mode, int updatedBy) {
@@ -51,6 +46,8 @@ public class SettingsDao extends BaseDao {
       ps.setString(3, String.valueOf(mode));
       ps.setInt(4, updatedBy);
       ps.executeUpdate();
+      SettingsCache.invalidate();
+      ChangeFeed.publish(ChangeFeed.Topic.MAINTENANCE);
 
       log.info("Maintenance mode updated to {} by userId={}", mode, updatedBy);
 
@@ -60,10 +57,62 @@ public class SettingsDao extends BaseDao {
     }
   }
 
+  public boolean isRushMode() {
+    String raw = getValue("rush_mode");
+    boolean mode = Boolean.parseBoolean(raw);
+    log.debug("Rush mode status loaded: {}", mode);
+    return mode;
+  }
+
+  public void setRushMode(boolean mode, int updatedBy) {
+    log.debug("Updating rush mode to {} by userId={}", mode, updatedBy);
+
+    String sql = """
+        INSERT INTO settings(`key`,`value`,updated_by)
+        VALUES('rush_mode',?,?)
+        ON DUPLICATE KEY UPDATE `value`=?, updated_by=?
+        """;
+
+    try (Connection con = DBPool.erp().getConnection()) {
+      runUpdate(con, sql, String.valueOf(mode), updatedBy, String.valueOf(mode), updatedBy);
+      SettingsCache.invalidate();
+      log.info("Rush mode updated to {} by userId={}", mode, updatedBy);
+
+    } catch (SQLException e) {
+      log.error("Error updating rush mode to {} by userId={}", mode, updatedBy, e);
+      throw new DatabaseException("Error updating rush mode", e);
+    }
+  }
+
+  // Shared by every client, so senders and readers agree on where
+  // notification recipients are resolved.
+  public boolean isNotificationFanOut() {
+    return Boolean.parseBoolean(getValue("notifications_fanout"));
+  }
+
+  public void setNotificationFanOut(boolean on, int updatedBy) {
+    log.debug("Updating notification fan-out to {} by userId={}", on, updatedBy);
+
+    String sql = """
+        INSERT INTO settings(`key`,`value`,updated_by)
+        VALUES('notifications_fanout',?,?)
+        ON DUPLICATE KEY UPDATE `value`=?, updated_by=?
+        """;
+
+    try (Connection con = DBPool.erp().getConnection()) {
+      runUpdate(con, sql, String.valueOf(on), updatedBy, String.valueOf(on), updatedBy);
+      SettingsCache.invalidate();
+      log.info("Notification fan-out updated to {} by userId={}", on, updatedBy);
+
+    } catch (SQLException e) {
+      log.error("Error updating notification fan-out to {} by userId={}", on, updatedBy, e);
+      throw new DatabaseException("Error updating notification fan-out", e);
+    }
+  }
+
   public LocalDate parseDMY(String s) {
     try {
-        DateTimeFormatter f = DateTimeFormatter.ofPattern("dd:MM:yyyy");
-        return LocalDate.parse(s.trim(), f);
+        return LocalDate.parse(s.trim(), DMY);
     } catch (Exception ex) {
         return null;
     }
@@ -71,8 +120,7 @@ public class SettingsDao extends BaseDao {
 
   public String formatDMY(LocalDate d) {
       if (d == null) return "";
-      DateTimeFormatter f = DateTimeFormatter.ofPattern("dd:MM:yyyy");
-      return d.format(f);
+      return d.format(DMY);
   }
 
 
@@ -96,41 +144,33 @@ public class SettingsDao extends BaseDao {
   }
 
   private String getValue(String key) {
-    String sql = "SELECT value FROM settings WHERE `key`=?";
-
-    try (Connection con = DBPool.erp().getConnection();
-         PreparedStatement ps = con.prepareStatement(sql)) {
-
-        ps.setString(1, key);
-        ResultSet rs = ps.executeQuery();
-
-        if (rs.next()) return rs.getString("value");
-        return null;
-
-    } catch (SQLException e) {
-        log.error("Failed to read settings key={}", key, e);
-        throw new DatabaseException("Failed to read setting: " + key, e);
-    }
-}
+    return SettingsCache.get(key);
+  }
 
   private void setValue(String key, String value) {
+      setValues(Map.of(key, value));
+  }
+
+  public void setValues(Map<String, String> values) {
       String sql = """
           INSERT INTO settings(`key`, `value`)
           VALUES (?, ?)
           ON DUPLICATE KEY UPDATE value = ?
       """;
 
-      try (Connection con = DBPool.erp().getConnection();
-          PreparedStatement ps = con.prepareStatement(sql)) {
+      List<Object[]> rows = new ArrayList<>();
+      values.forEach((k, v) -> rows.add(new Object[] { k, v, v }));
 
-          ps.setString(1, key);
-          ps.setString(2, value);
-          ps.setString(3, value);
-          ps.executeUpdate();
+      try (Connection con = DBPool.erp().getConnection()) {
+          runBatch(con, sql, rows);
+          SettingsCache.invalidate();
+          if (values.keySet().stream().anyMatch(k -> k.endsWith("_DEADLINE"))) {
+              ChangeFeed.publish(ChangeFeed.Topic.DEADLINES);
+          }
 
       } catch (SQLException e) {
-          log.error("Failed to update settings key={} value={}", key, value, e);
-          throw new DatabaseException("Failed to update setting: " + key, e);
+          log.error("Failed to update settings {}", values.keySet(), e);
+          throw new DatabaseException("Failed to update settings: " + values.keySet(), e);
       }
-  }  
-}
\ No newline at end of file
+  }
+}
@@ -8,36 +8,36 @@ import org.slf4j.LoggerFactory;
 
 public class StudentDao extends BaseDao {
     private static final Logger log = LoggerFactory.getLogger(StudentDao.class);
+
+    private static final RowMapper<Student> STUDENT = r -> new Student(
+            r.getInt("user_id"),
+            r.getString("username"),
+            r.getString("roll_no"),
+            r.getString("program"),
+            r.getInt("year"),
+            r.getString("email"),
+            r.getInt("student_id")
+    );
     
+    static final String BY_USER_SQL = """
+        SELECT s.student_id, s.user_id, s.roll_no, s.program, s.year, s.email,
+               u.username
+        FROM students s
+        JOIN authdb.users_auth u ON s.user_id = u.user_id
+        WHERE s.user_id = ?
+    """;
+
+    static final String ROLL_EXISTS_SQL = "SELECT 1 FROM students WHERE roll_no = ?";
+
     public Student findByUserId(int userId) {
         log.debug("Looking up student by userId={}", userId);
 
-        String sql = """
-            SELECT s.user_id, s.roll_no, s.program, s.year, s.email,
-                   u.username
-            FROM students s
-            JOIN authdb.users_auth u ON s.user_id = u.user_id
-            WHERE s.user_id = ?
-        """;
-        try (Connection con = DBPool.erp().getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
-
-            ps.setInt(1, userId);
-            ResultSet rs = ps.executeQuery();
+        try (Connection con = DBPool.erp().getConnection()) {
 
-            if (!rs.next()) {
+            Student s = queryOne(con, BY_USER_SQL, STUDENT, userId).orElseThrow(() -> {
                 log.warn("Student profile missing for user_id={}", userId);
-                throw new NotFoundException("Student profile missing (user_id=" + userId + ")");
-            }
-
-            Student s = new Student(
-                    rs.getInt("user_id"),
-                    rs.getString("username"),
-                    rs.getString("roll_no"),
-                    rs.getString("program"),
-                    rs.getInt("year"),
-                    rs.getString("email")
-            );
+                return new NotFoundException("Student profile missing (user_id=" + userId + ")");
+            });
 
             log.info("Student loaded successfully for userId={}", userId);
             return s;
@@ -60,25 +60,12 @@ public class StudentDao extends BaseDao {
             WHERE s.student_id = ?
         """;
 
-        try (Connection con = DBPool.erp().getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
-
-            ps.setInt(1, studentId);
-            ResultSet rs = ps.executeQuery();
+        try (Connection con = DBPool.erp().getConnection()) {
 
-            if (!rs.next()) {
+            Student s = queryOne(con, sql, STUDENT, studentId).orElseThrow(() -> {
                 log.warn("Student not found for student_id={}", studentId);
-                throw new NotFoundException("Student not found for student_id=" + studentId);
-            }
-
-            Student s = new Student(
-                    rs.getInt("user_id"),
-                    rs.getString("username"),
-                    rs.getString("roll_no"),
-                    rs.getString("program"),
-                    rs.getInt("year"),
-                    rs.getString("email")
-            );
+                return new NotFoundException("Student not found for student_id=" + studentId);
+            });
 
             log.info("Student loaded successfully for studentId={}", studentId);
             return s;
@@ -121,13 +108,8 @@ public class StudentDao extends BaseDao {
 
 
     public boolean rollExists(String roll) {
-        String sql = "SELECT 1 FROM students WHERE roll_no = ?";
-        try (Connection con = DBPool.erp().getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
-    
-            ps.setString(1, roll);
-            ResultSet rs = ps.executeQuery();
-            return rs.next();
+        try (Connection con = DBPool.erp().getConnection()) {
+            return exists(con, ROLL_EXISTS_SQL, roll);
     
         } catch (SQLException e) {
             log.error("Error checking roll existence for roll={}", roll, e);
@@ -139,12 +121,8 @@ public class StudentDao extends BaseDao {
 
     public boolean emailExists(String email) {
         String sql = "SELECT 1 FROM students WHERE email = ?";
-        try (Connection con = DBPool.erp().getConnection();
-             PreparedStatement ps = con.prepareStatement(sql)) {
-    
-            ps.setString(1, email);
-            ResultSet rs = ps.executeQuery();
-            return rs.next();
+        try (Connection con = DBPool.erp().getConnection()) {
+            return exists(con, sql, email);
     
         } catch (SQLException e) {
             throw new DatabaseException("Failed checking email existence", e);
@@ -0,0 +1,234 @@
+package edu.univ.erp.data;
+
+import edu.univ.erp.exception.DatabaseException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Binds one ERP connection to the current thread for the duration of a
+// service operation. While bound, DBPool.erp().getConnection() hands out
+// that connection (wrapped so DAOs can still close it), instead of checking
+// a new one out of the pool.
+public final class UnitOfWork {
+
+  private static final Logger log = LoggerFactory.getLogger(UnitOfWork.class);
+
+  private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+  private static final class Scope {
+    final Connection con;
+    boolean tx;
+    boolean rollbackOnly;
+    final List<Runnable> afterCommit = new ArrayList<>();
+
+    Scope(Connection con, boolean tx) {
+      this.con = con;
+      this.tx = tx;
+    }
+  }
+
+  private UnitOfWork() {
+  }
+
+  // Runs work in one transaction. Commit/rollback/setAutoCommit calls made
+  // by DAOs inside are absorbed; the outermost scope decides. A nested call
+  // joins the surrounding transaction.
+  //
+  // Always READ COMMITTED, the level the seat-changing DAOs ask for: their
+  // own setTransactionIsolation is absorbed too, and under REPEATABLE READ a
+  // read made before a section is locked would pin the snapshot that the
+  // seat counts after the lock then see.
+  public static <T> T inTransaction(Supplier<T> work) {
+    return run(work, true);
+  }
+
+  public static void inTransaction(Runnable work) {
+    run(() -> {
+      work.run();
+      return null;
+    }, true);
+  }
+
+  // Shares one autocommit connection across the DAO calls in work.
+  public static <T> T withConnection(Supplier<T> work) {
+    return run(work, false);
+  }
+
+  // Runs action once the surrounding transaction commits, or right away
+  // when there is none. Dropped if the transaction rolls back. For keeping
+  // in-memory state in step with what actually got committed.
+  public static void afterCommit(Runnable action) {
+    Scope s = CURRENT.get();
+    if (s != null && s.tx) {
+      s.afterCommit.add(action);
+    } else {
+      runQuietly(action);
+    }
+  }
+
+  public static boolean isActive() {
+    return CURRENT.get() != null;
+  }
+
+  // The connection DAOs see while a scope is bound, or null.
+  static Connection bound() {
+    Scope s = CURRENT.get();
+    return s == null ? null : wrap(s);
+  }
+
+  private static <T> T run(Supplier<T> work, boolean tx) {
+    Scope outer = CURRENT.get();
+    if (outer != null) {
+      if (outer.tx || !tx) {
+        return work.get();
+      }
+      return promote(outer, work);
+    }
+
+    try (Connection con = DBPool.erpPool().getConnection()) {
+      Scope scope = new Scope(con, tx);
+      if (tx) {
+        con.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        con.setAutoCommit(false);
+      }
+      CURRENT.set(scope);
+
+      try {
+        T result = work.get();
+        if (tx) {
+          finish(scope);
+        }
+        return result;
+
+      } catch (RuntimeException | Error e) {
+        if (tx) {
+          scope.afterCommit.clear();
+          rollbackQuietly(con);
+        }
+        throw e;
+
+      } finally {
+        CURRENT.remove();
+      }
+
+    } catch (SQLException e) {
+      log.error("Unit of work failed", e);
+      throw new DatabaseException("Transaction failed: " + e.getMessage(), e);
+    }
+  }
+
+  // A transaction requested inside a plain shared-connection scope runs
+  // on the same connection and commits on its own.
+  private static <T> T promote(Scope scope, Supplier<T> work) {
+    try {
+      int isolation = scope.con.getTransactionIsolation();
+      scope.con.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+      scope.con.setAutoCommit(false);
+      scope.tx = true;
+      scope.rollbackOnly = false;
+
+      try {
+        T result = work.get();
+        finish(scope);
+        return result;
+      } catch (RuntimeException | Error e) {
+        scope.afterCommit.clear();
+        rollbackQuietly(scope.con);
+        throw e;
+      } finally {
+        scope.tx = false;
+        scope.con.setAutoCommit(true);
+        scope.con.setTransactionIsolation(isolation);
+      }
+
+    } catch (SQLException e) {
+      log.error("Nested unit of work failed", e);
+      throw new DatabaseException("Transaction failed: " + e.getMessage(), e);
+    }
+  }
+
+  private static void finish(Scope scope) throws SQLException {
+    if (scope.rollbackOnly) {
+      scope.afterCommit.clear();
+      scope.con.rollback();
+      throw new DatabaseException("Transaction rolled back by a nested operation.");
+    }
+    scope.con.commit();
+    DBPool.noteWrite();
+
+    List<Runnable> actions = new ArrayList<>(scope.afterCommit);
+    scope.afterCommit.clear();
+    actions.forEach(UnitOfWork::runQuietly);
+  }
+
+  private static void runQuietly(Runnable action) {
+    try {
+      action.run();
+    } catch (RuntimeException e) {
+      log.warn("After-commit action failed", e);
+    }
+  }
+
+  private static void rollbackQuietly(Connection con) {
+    try {
+      con.rollback();
+    } catch (SQLException e) {
+      log.warn("Rollback failed", e);
+    }
+  }
+
+  private static Connection wrap(Scope scope) {
+    return (Connection) Proxy.newProxyInstance(
+        Connection.class.getClassLoader(),
+        new Class<?>[] { Connection.class },
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "close":
+              // a DAO left its own transaction open on the shared connection
+              if (!scope.tx && !scope.con.getAutoCommit()) {
+                scope.con.rollback();
+                scope.con.setAutoCommit(true);
+              }
+              return null;
+            case "isClosed":
+              return scope.con.isClosed();
+            case "commit":
+            case "setAutoCommit":
+            case "setTransactionIsolation":
+              if (scope.tx) {
+                log.trace("Ignoring {} inside unit of work", method.getName());
+                return null;
+              }
+              break;
+            case "rollback":
+              if (scope.tx && (args == null || args.length == 0)) {
+                scope.rollbackOnly = true;
+                return null;
+              }
+              break;
+            case "prepareStatement":
+            case "prepareCall":
+              DBPool.noteStatement((String) args[0]);
+              break;
+            case "unwrap":
+              if (args[0] == Connection.class)
+                return proxy;
+              break;
+            default:
+              break;
+          }
+
+          try {
+            return method.invoke(scope.con, args);
+          } catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+        });
+  }
+}
@@ -0,0 +1,162 @@
+package edu.univ.erp.data;
+
+import edu.univ.erp.domain.WaitlistEntry;
+import edu.univ.erp.exception.*;
+import java.sql.*;
+import java.util.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class WaitlistDao extends BaseDao {
+  private static final Logger log = LoggerFactory.getLogger(WaitlistDao.class);
+
+  record Head(int waitlistId, int studentId) {
+  }
+
+  // Rank is counted over the (section_id, position) unique key, so it is an
+  // index range scan bounded by the caller's own position.
+  static final String RANK_SQL = """
+      SELECT COUNT(*)
+      FROM waitlist w
+      JOIN waitlist me ON me.section_id = w.section_id
+      WHERE me.section_id = ? AND me.student_id = ? AND w.position <= me.position
+      """;
+
+  public int join(int studentId, int sectionId) {
+    log.debug("Adding studentId={} to waitlist of sectionId={}", studentId, sectionId);
+
+    RegistrationDao reg = new RegistrationDao();
+
+    try (Connection con = DBPool.erp().getConnection()) {
+      con.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+      con.setAutoCommit(false);
+
+      try {
+        RegistrationDao.SectionLock lock = reg.lockSection(con, sectionId);
+        RegistrationDao.SeatCheck check = reg.check(con, studentId, sectionId, lock.courseId());
+
+        if (check.sameCourse() > 0) {
+          throw new ValidationException("You are already enrolled in a section of this course.");
+        }
+        if ("COMPLETED".equals(check.ownStatus())) {
+          throw new ValidationException("You have already completed this section.");
+        }
+        if (check.enrolled() < lock.capacity()) {
+          throw new ValidationException("Section has free seats. Register directly instead.");
+        }
+
+        try (PreparedStatement ps = con.prepareStatement("""
+            INSERT INTO waitlist (section_id, student_id, position)
+            SELECT ?, ?, COALESCE(MAX(position), 0) + 1 FROM waitlist WHERE section_id = ?
+            """)) {
+          ps.setInt(1, sectionId);
+          ps.setInt(2, studentId);
+          ps.setInt(3, sectionId);
+          ps.executeUpdate();
+
+        } catch (SQLIntegrityConstraintViolationException dup) {
+          throw new ValidationException("You are already on the waitlist for this section.");
+        }
+
+        int rank = rank(con, studentId, sectionId);
+        con.commit();
+
+        log.info("studentId={} joined waitlist of sectionId={} at position {}", studentId, sectionId, rank);
+        return rank;
+
+      } catch (RuntimeException | SQLException e) {
+        con.rollback();
+        throw e;
+      }
+
+    } catch (SQLException e) {
+      log.error("Waitlist join failed studentId={} sectionId={}", studentId, sectionId, e);
+      throw new DatabaseException("Failed to join waitlist", e);
+    }
+  }
+
+  public void leave(int studentId, int sectionId) {
+    log.debug("Removing studentId={} from waitlist of sectionId={}", studentId, sectionId);
+
+    String sql = "DELETE FROM waitlist WHERE section_id = ? AND student_id = ?";
+    try (Connection con = DBPool.erp().getConnection();
+        PreparedStatement ps = con.prepareStatement(sql)) {
+
+      ps.setInt(1, sectionId);
+      ps.setInt(2, studentId);
+      if (ps.executeUpdate() == 0) {
+        throw new NotFoundException("You are not on the waitlist for this section.");
+      }
+      log.info("studentId={} left waitlist of sectionId={}", studentId, sectionId);
+
+    } catch (SQLException e) {
+      log.error("Waitlist leave failed studentId={} sectionId={}", studentId, sectionId, e);
+      throw new DatabaseException("Failed to leave waitlist", e);
+    }
+  }
+
+  public int position(int studentId, int sectionId) {
+    try (Connection con = DBPool.erp().getConnection()) {
+      return rank(con, studentId, sectionId);
+    } catch (SQLException e) {
+      log.error("Waitlist position lookup failed studentId={} sectionId={}", studentId, sectionId, e);
+      throw new DatabaseException("Failed to read waitlist position", e);
+    }
+  }
+
+  public List<WaitlistEntry> findByStudent(int studentId) {
+    log.debug("Fetching waitlist entries for studentId={}", studentId);
+
+    String sql = """
+        SELECT w.section_id, c.code, c.title, w.joined_on,
+               (SELECT COUNT(*) FROM waitlist w2
+                 WHERE w2.section_id = w.section_id AND w2.position <= w.position) AS rank_no
+        FROM waitlist w
+        JOIN sections s ON s.section_id = w.section_id
+        JOIN courses c ON c.course_id = s.course_id
+        WHERE w.student_id = ?
+        ORDER BY w.joined_on
+        """;
+
+    try (Connection con = DBPool.erp().getConnection()) {
+
+      List<WaitlistEntry> list = queryList(con, sql, r -> new WaitlistEntry(
+          r.getInt("section_id"),
+          r.getString("code"),
+          r.getString("title"),
+          r.getInt("rank_no"),
+          r.getString("joined_on")), studentId);
+
+      log.info("Loaded {} waitlist entries for studentId={}", list.size(), studentId);
+      return list;
+
+    } catch (SQLException e) {
+      log.error("Waitlist lookup failed for studentId={}", studentId, e);
+      throw new DatabaseException("Failed to load waitlist", e);
+    }
+  }
+
+  static final String HEAD_SQL = """
+      SELECT waitlist_id, student_id FROM waitlist
+      WHERE section_id = ?
+      ORDER BY position
+      LIMIT 1
+      FOR UPDATE
+      """;
+
+  Head head(Connection con, int sectionId) throws SQLException {
+    return queryOne(con, HEAD_SQL, r -> new Head(r.getInt("waitlist_id"), r.getInt("student_id")), sectionId)
+        .orElse(null);
+  }
+
+  void delete(Connection con, int waitlistId) throws SQLException {
+    try (PreparedStatement ps = con.prepareStatement("DELETE FROM waitlist WHERE waitlist_id = ?")) {
+      ps.setInt(1, waitlistId);
+      ps.executeUpdate();
+    }
+  }
+
+  private int rank(Connection con, int studentId, int sectionId) throws SQLException {
+    return queryOne(con, RANK_SQL, r -> r.getInt(1), sectionId, studentId).orElse(0);
+  }
+}
@@ -3,12 +3,22 @@ package edu.univ.erp.domain;
 public class Instructor extends User {
   private final String department;
   private final String email;
+  private final int instructorId;
 
 
   public Instructor(int userId, String username, String department, String email) {
+    this(userId, username, department, email, 0);
+  }
+
+  public Instructor(int userId, String username, String department, String email, int instructorId) {
     super(userId, username, Role.INSTRUCTOR);
     this.department = department;
     this.email = email;
+    this.instructorId = instructorId;
+  }
+
+  public int getInstructorId() {
+    return instructorId;
   }
 
   public String getDepartment() {
@@ -0,0 +1,12 @@
+package edu.univ.erp.domain;
+
+public record SeatCount(int sectionId, int courseId, int capacity, int enrolled) {
+
+  public int available() {
+    return Math.max(0, capacity - enrolled);
+  }
+
+  public SeatCount withEnrolled(int enrolled) {
+    return new SeatCount(sectionId, courseId, capacity, Math.max(0, enrolled));
+  }
+}
@@ -14,6 +14,7 @@ public class Section {
   private String courseTitle;
   private String instructorEmail;
   private int credits;
+  private int enrolled;
 
   public Section(int sectionId, int courseId, Integer instructorId, String dayTime, String room, int capacity, String semester, int year) {
     this.sectionId = sectionId;
@@ -76,6 +77,11 @@ public class Section {
   public int getCredits() { return credits; }
   public void setCredits(int credits) { this.credits = credits; }
 
+  public int getEnrolled() { return enrolled; }
+  public void setEnrolled(int enrolled) { this.enrolled = enrolled; }
+
+  public int getAvailable() { return Math.max(0, capacity - enrolled); }
+
   @Override
   public String toString() {
     return "Section " + sectionId + " - " + dayTime + " - " + semester + " " + year;
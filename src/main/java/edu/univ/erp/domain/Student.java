@@ -5,13 +5,24 @@ public class Student extends User {
   private final String program;
   private final int year;
   private final String email;
+  private final int studentId;
 
   public Student(int userId, String username, String rollNo, String program, int year, String email) {
+    this(userId, username, rollNo, program, year, email, 0);
+  }
+
+  public Student(int userId, String username, String rollNo, String program, int year, String email,
+      int studentId) {
     super(userId, username, Role.STUDENT);
     this.rollNo = rollNo;
     this.program = program;
     this.year = year;
     this.email = email;
+    this.studentId = studentId;
+  }
+
+  public int getStudentId() {
+    return studentId;
   }
 
   public String getRollNo() {
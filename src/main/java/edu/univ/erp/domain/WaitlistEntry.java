@@ -0,0 +1,43 @@
+package edu.univ.erp.domain;
+
+public class WaitlistEntry {
+
+  private final int sectionId;
+  private final String courseCode;
+  private final String courseTitle;
+  private final int position;
+  private final String joinedOn;
+
+  public WaitlistEntry(int sectionId, String courseCode, String courseTitle, int position, String joinedOn) {
+    this.sectionId = sectionId;
+    this.courseCode = courseCode;
+    this.courseTitle = courseTitle;
+    this.position = position;
+    this.joinedOn = joinedOn;
+  }
+
+  public int getSectionId() {
+    return sectionId;
+  }
+
+  public String getCourseCode() {
+    return courseCode;
+  }
+
+  public String getCourseTitle() {
+    return courseTitle;
+  }
+
+  public int getPosition() {
+    return position;
+  }
+
+  public String getJoinedOn() {
+    return joinedOn;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("WaitlistEntry{section=%d, course=%s, position=%d}", sectionId, courseCode, position);
+  }
+}
@@ -0,0 +1,101 @@
+package edu.univ.erp.domain.grades;
+
+import java.util.*;
+
+public class ClassStats {
+  private final int count;
+  private final double average;
+  private final double min;
+  private final double max;
+  private final double median;
+  private final double stdDev;
+  private final double q1;
+  private final double q3;
+  private final Map<String, Integer> letterHistogram;
+
+  private ClassStats(int count, double average, double min, double max, double median,
+      double stdDev, double q1, double q3, Map<String, Integer> letterHistogram) {
+    this.count = count;
+    this.average = average;
+    this.min = min;
+    this.max = max;
+    this.median = median;
+    this.stdDev = stdDev;
+    this.q1 = q1;
+    this.q3 = q3;
+    this.letterHistogram = Collections.unmodifiableMap(letterHistogram);
+  }
+
+  // totals is sorted in place.
+  public static ClassStats of(double[] totals, Map<String, Integer> letterHistogram) {
+    int n = totals.length;
+    if (n == 0)
+      return new ClassStats(0, 0, 0, 0, 0, 0, 0, 0, letterHistogram);
+
+    Arrays.sort(totals);
+
+    double sum = 0;
+    for (double t : totals)
+      sum += t;
+    double avg = sum / n;
+
+    double sq = 0;
+    for (double t : totals)
+      sq += (t - avg) * (t - avg);
+
+    return new ClassStats(n, avg, totals[0], totals[n - 1],
+        percentile(totals, 0.5), Math.sqrt(sq / n),
+        percentile(totals, 0.25), percentile(totals, 0.75),
+        letterHistogram);
+  }
+
+  // Linear interpolation between closest ranks.
+  private static double percentile(double[] sorted, double p) {
+    double pos = p * (sorted.length - 1);
+    int lo = (int) Math.floor(pos);
+    int hi = (int) Math.ceil(pos);
+    return sorted[lo] + (sorted[hi] - sorted[lo]) * (pos - lo);
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  public double getAverage() {
+    return average;
+  }
+
+  public double getMin() {
+    return min;
+  }
+
+  public double getMax() {
+    return max;
+  }
+
+  public double getMedian() {
+    return median;
+  }
+
+  public double getStdDev() {
+    return stdDev;
+  }
+
+  public double getQ1() {
+    return q1;
+  }
+
+  public double getQ3() {
+    return q3;
+  }
+
+  public Map<String, Integer> getLetterHistogram() {
+    return letterHistogram;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("ClassStats{n=%d, avg=%.2f, min=%.2f, max=%.2f, median=%.2f, sd=%.2f}",
+        count, average, min, max, median, stdDev);
+  }
+}
@@ -0,0 +1,85 @@
+package edu.univ.erp.domain.grades;
+
+import java.util.*;
+
+public class GradeImportReport {
+
+  public record RowError(long line, String message) {
+  }
+
+  private final int sectionId;
+  private long rowsRead;
+  private long rowsImported;
+  private long gradesInserted;
+  private long elapsedMillis;
+  private boolean rejected;
+  private final List<RowError> errors = new ArrayList<>();
+
+  public GradeImportReport(int sectionId) {
+    this.sectionId = sectionId;
+  }
+
+  public void rowRead() {
+    rowsRead++;
+  }
+
+  public void rowImported(int grades) {
+    rowsImported++;
+    gradesInserted += grades;
+  }
+
+  public void error(long line, String message) {
+    errors.add(new RowError(line, message));
+  }
+
+  // The file had errors, so nothing was written.
+  public void reject() {
+    rejected = true;
+  }
+
+  public void finish(long elapsedMillis) {
+    this.elapsedMillis = elapsedMillis;
+  }
+
+  public int getSectionId() {
+    return sectionId;
+  }
+
+  public long getRowsRead() {
+    return rowsRead;
+  }
+
+  public long getRowsImported() {
+    return rowsImported;
+  }
+
+  public long getGradesInserted() {
+    return gradesInserted;
+  }
+
+  public long getElapsedMillis() {
+    return elapsedMillis;
+  }
+
+  public double getRowsPerSecond() {
+    return elapsedMillis == 0 ? rowsRead : rowsRead * 1000.0 / elapsedMillis;
+  }
+
+  public boolean hasErrors() {
+    return !errors.isEmpty();
+  }
+
+  public boolean isRejected() {
+    return rejected;
+  }
+
+  public List<RowError> getErrors() {
+    return Collections.unmodifiableList(errors);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("GradeImportReport{section=%d, read=%d, imported=%d, grades=%d, errors=%d, rejected=%b, %.1f rows/s}",
+        sectionId, rowsRead, rowsImported, gradesInserted, errors.size(), rejected, getRowsPerSecond());
+  }
+}
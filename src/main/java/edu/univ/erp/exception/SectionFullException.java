@@ -0,0 +1,20 @@
+package edu.univ.erp.exception;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class SectionFullException extends ValidationException {
+  private static final Logger log = LoggerFactory.getLogger(SectionFullException.class);
+
+  private final int sectionId;
+
+  public SectionFullException(int sectionId) {
+    super("Section is full.");
+    this.sectionId = sectionId;
+    log.info("SectionFullException: sectionId={}", sectionId);
+  }
+
+  public int getSectionId() {
+    return sectionId;
+  }
+}
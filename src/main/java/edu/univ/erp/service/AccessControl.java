@@ -12,6 +12,8 @@ public class AccessControl {
 
   private static final Logger log = LoggerFactory.getLogger(AccessControl.class);
 
+  private static final SettingsDao settingsDao = new SettingsDao();
+
   public void requireRole(Role r) {
     User u = SessionManager.getCurrentUser();
 
@@ -31,7 +33,7 @@ public class AccessControl {
   }
 
   public void requireMaintenanceOff() {
-    boolean on = new SettingsDao().isMaintenanceMode();
+    boolean on = settingsDao.isMaintenanceMode();
 
     if (on) {
       log.warn("Blocked action due to maintenance mode.");
@@ -168,6 +168,8 @@ public class AdminService {
     } catch (NotFoundException ignore) {}
 
     courseDao.insert(codeTrim, title.trim(), description.trim(), credits);
+    CourseCache.invalidate();
+    ChangeFeed.publish(ChangeFeed.Topic.CATALOG);
     log.info("Course created: {}", codeTrim);
 }
 
@@ -193,20 +195,30 @@ public void updateCourse(int courseId, String code, String title, String descrip
       throw new ValidationException("Course description cannot be empty.");
 
   courseDao.update(courseId, codeTrim, title.trim(), description.trim(), credits);
+  CourseCache.invalidate();
+  ChangeFeed.publish(ChangeFeed.Topic.CATALOG);
   log.info("Course updated: {}", codeTrim);
 }
 
 
+  // Advisory count for the UI; deleteSection re-checks in its transaction.
   public int countEnrollmentsForSection(int sectionId) {
-    return sectionDao.countEnrollments(sectionId);
+    SeatCount seats = SeatAvailability.forSection(sectionId);
+    return seats == null ? 0 : seats.enrolled();
   }
 
   public void deleteSection(int sectionId) {
+    // enrollment count and delete run in one transaction
+    UnitOfWork.inTransaction(() -> deleteSectionInTx(sectionId));
+  }
+
+  private void deleteSectionInTx(int sectionId) {
     ac.requireRole(Role.ADMIN);
     int count = sectionDao.countEnrollments(sectionId);
     if (count > 0)
       throw new ValidationException("Cannot delete section with enrolled students.");
     sectionDao.delete(sectionId);
+    UnitOfWork.afterCommit(() -> SeatAvailability.invalidateSection(sectionId));
   }
 
   public void createSection(int courseId, Integer instructorId, String dayTime, String room,
@@ -229,6 +241,7 @@ public void updateCourse(int courseId, String code, String title, String descrip
       throw new ValidationException("Semester must be one of: Summer, Winter, Monsoon.");
 
     sectionDao.insert(courseId, instructorId, dayTime.trim(), room.trim(), capacity, sem, year);
+    SeatAvailability.invalidateCourse(courseId);
   }
 
   public void updateSection(int sectionId, Integer instructorId, String dayTime, String room,
@@ -251,6 +264,7 @@ public void updateCourse(int courseId, String code, String title, String descrip
       throw new ValidationException("Semester must be one of: Summer, Winter, Monsoon.");
 
     sectionDao.update(sectionId, instructorId, dayTime.trim(), room.trim(), capacity, sem, year);
+    SeatAvailability.invalidateSection(sectionId);
   }
 
   public void assignInstructor(int sectionId, int instructorUserId) {
@@ -264,6 +278,11 @@ public void updateCourse(int courseId, String code, String title, String descrip
   }
 
   public void assignInstructorByEmail(int sectionId, String email) {
+    // lookups and the assignment run in one transaction
+    UnitOfWork.inTransaction(() -> assignInstructorByEmailInTx(sectionId, email));
+  }
+
+  private void assignInstructorByEmailInTx(int sectionId, String email) {
     ac.requireRole(Role.ADMIN);
 
     // Finding instructor
@@ -295,7 +314,70 @@ public void updateCourse(int courseId, String code, String title, String descrip
     return now;
   }
 
-  public List<Course> listCourses() { return courseDao.findAll(); }
+  public boolean toggleRushMode() {
+    ac.requireRole(Role.ADMIN);
+
+    boolean now = !settingsDao.isRushMode();
+    settingsDao.setRushMode(now, SessionManager.getCurrentUser().getUserId());
+    log.info("Registration rush mode set to {}", now);
+    return now;
+  }
+
+  // Turning fan-out on expands the notifications sent so far in the same
+  // transaction, so no client sees its inbox shrink.
+  public boolean toggleNotificationFanOut() {
+    ac.requireRole(Role.ADMIN);
+
+    boolean now = !settingsDao.isNotificationFanOut();
+    UnitOfWork.inTransaction(() -> {
+      settingsDao.setNotificationFanOut(now, SessionManager.getCurrentUser().getUserId());
+      if (now) {
+        NotificationService.backfillInbox();
+      }
+    });
+    log.info("Notification fan-out set to {}", now);
+    return now;
+  }
+
+  public String dbMetricsReport() {
+    ac.requireRole(Role.ADMIN);
+    CourseCache.Stats cc = CourseCache.stats();
+    RegistrationQueue.Metrics rq = RegistrationQueue.get().metrics();
+    return DbMetrics.get().dump()
+        + String.format("%nCourse cache: %d hits, %d misses, %d reloads, %d cached%s%n",
+            cc.hits(), cc.misses(), cc.reloads(), cc.size(), cc.complete() ? " (full catalog)" : "")
+        + String.format("Registration queue (this client): depth %d, %d submitted, %d completed, %d failed,"
+            + " %d rejected, wait avg %.1f ms max %d ms%n",
+            rq.queueDepth(), rq.submitted(), rq.completed(), rq.failed(), rq.rejected(), rq.avgWaitMs(),
+            rq.maxWaitMs());
+  }
+
+  public void resetDbMetrics() {
+    ac.requireRole(Role.ADMIN);
+    DbMetrics.get().reset();
+  }
+
+  public String poolSizesReport() {
+    ac.requireRole(Role.ADMIN);
+    return PoolController.describe();
+  }
+
+  // size == null releases the pin and hands the lane back to the controller.
+  public void pinPoolSize(DBPool.Lane lane, Integer size) {
+    ac.requireRole(Role.ADMIN);
+    if (size == null) {
+      PoolController.unpin(lane);
+      log.info("Admin released pool size pin for {}", lane.poolName());
+      return;
+    }
+    if (size < 1 || size > 200) {
+      throw new ValidationException("Pool size must be between 1 and 200.");
+    }
+    PoolController.pin(lane, size);
+    log.info("Admin pinned {} at {} connections", lane.poolName(), size);
+  }
+
+  public List<Course> listCourses() { return CourseCache.all(); }
   public List<Instructor> listInstructors() { return instructorDao.findAll(); }
   public List<Section> listSections() { return sectionDao.findAll(); }
 
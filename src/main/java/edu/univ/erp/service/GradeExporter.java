@@ -0,0 +1,230 @@
+package edu.univ.erp.service;
+
+import com.opencsv.CSVWriter;
+import edu.univ.erp.data.DBPool;
+import edu.univ.erp.exception.DatabaseException;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Writes the pivoted grade sheet of a section without materializing it.
+// Callers are expected to have done the access checks already.
+class GradeExporter {
+
+  private static final Logger log = LoggerFactory.getLogger(GradeExporter.class);
+
+  private static final int FETCH_SIZE = 500;
+
+  private static final String COMPONENTS_SQL = """
+      SELECT DISTINCT g.component_name
+      FROM grades g
+      JOIN enrollments e ON e.enrollment_id = g.enrollment_id
+      WHERE e.section_id = ?
+      """;
+
+  // One row per (enrollment, component), ordered so every enrollment's
+  // grades arrive together and can be flushed as soon as the id changes.
+  private static final String ROWS_SQL = """
+      SELECT e.enrollment_id, s.roll_no, s.email, e.status, e.final_grade,
+             g.component_name, g.score, g.max_score, g.component_type, g.weightage
+      FROM enrollments e
+      JOIN students s ON s.student_id = e.student_id
+      LEFT JOIN grades g ON g.enrollment_id = e.enrollment_id
+      WHERE e.section_id = ?
+      ORDER BY e.enrollment_id
+      """;
+
+  long exportSection(int sectionId, OutputStream out, boolean gzip) throws IOException {
+    OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+    Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), 64 * 1024);
+
+    CSVWriter csv = new CSVWriter(writer);
+    long rows = writeSection(sectionId, csv);
+    csv.flush();
+    if (gzip) {
+      ((GZIPOutputStream) target).finish();
+    }
+    return rows;
+  }
+
+  // Each section is written to its own temp file by a worker, then the
+  // files are copied into the archive in the order given. A worker holds a
+  // connection for a whole section, so there are no more workers than the
+  // caller's lane has connections; extra ones would only wait in Hikari
+  // and could hit its connection timeout.
+  void exportSectionsZip(List<Integer> sectionIds, OutputStream out) throws IOException {
+    if (sectionIds.isEmpty())
+      return;
+
+    DBPool.Lane lane = DBPool.currentLane();
+    int threads = Math.max(1, Math.min(DBPool.laneSize(lane), sectionIds.size()));
+    ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+      Thread t = new Thread(r, "grade-export");
+      t.setDaemon(true);
+      return t;
+    });
+
+    Map<Integer, Future<Path>> parts = new LinkedHashMap<>();
+    long started = System.currentTimeMillis();
+
+    try {
+      for (int sectionId : sectionIds) {
+        parts.put(sectionId, pool.submit(() -> {
+          Path tmp = Files.createTempFile("grades-" + sectionId + "-", ".csv");
+          tmp.toFile().deleteOnExit();
+          try (OutputStream os = Files.newOutputStream(tmp)) {
+            DBPool.withLane(lane, () -> exportSection(sectionId, os, false));
+          } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+          }
+          return tmp;
+        }));
+      }
+
+      ZipOutputStream zip = new ZipOutputStream(new BufferedOutputStream(out, 64 * 1024));
+      for (var entry : parts.entrySet()) {
+        Path tmp = await(entry.getValue());
+        try {
+          zip.putNextEntry(new ZipEntry("section-" + entry.getKey() + "-grades.csv"));
+          Files.copy(tmp, zip);
+          zip.closeEntry();
+        } finally {
+          Files.deleteIfExists(tmp);
+        }
+      }
+      zip.finish();
+      zip.flush();
+
+      log.info("Exported {} sections into archive in {} ms", sectionIds.size(),
+          System.currentTimeMillis() - started);
+
+    } finally {
+      pool.shutdownNow();
+      for (Future<Path> f : parts.values()) {
+        if (f.isDone() && !f.isCancelled()) {
+          try {
+            Files.deleteIfExists(f.get());
+          } catch (Exception ignored) {
+          }
+        }
+      }
+    }
+  }
+
+  private long writeSection(int sectionId, CSVWriter csv) {
+    try (Connection con = DBPool.erp().getConnection()) {
+
+      List<String> names = componentNames(con, sectionId);
+      Map<String, Integer> slot = new HashMap<>();
+      for (int i = 0; i < names.size(); i++) {
+        slot.put(names.get(i), 5 + i * 4);
+      }
+
+      int width = 5 + names.size() * 4;
+      String[] header = new String[width];
+      header[0] = "Enrollment ID";
+      header[1] = "Roll No";
+      header[2] = "Email";
+      header[3] = "Status";
+      header[4] = "Final Grade";
+      for (int i = 0; i < names.size(); i++) {
+        String comp = names.get(i);
+        header[5 + i * 4] = comp + "_score";
+        header[6 + i * 4] = comp + "_max";
+        header[7 + i * 4] = comp + "_type";
+        header[8 + i * 4] = comp + "_weight";
+      }
+      csv.writeNext(header);
+
+      long rows = 0;
+
+      try (PreparedStatement ps = con.prepareStatement(ROWS_SQL)) {
+        ps.setInt(1, sectionId);
+        ps.setFetchSize(FETCH_SIZE);
+
+        try (ResultSet rs = ps.executeQuery()) {
+          String[] row = null;
+          int current = -1;
+
+          while (rs.next()) {
+            int eid = rs.getInt(1);
+            if (eid != current) {
+              if (row != null) {
+                csv.writeNext(row);
+                rows++;
+              }
+              current = eid;
+              row = new String[width];
+              Arrays.fill(row, "-");
+              row[0] = "" + eid;
+              row[1] = rs.getString(2);
+              row[2] = rs.getString(3);
+              row[3] = rs.getString(4);
+              String fg = rs.getString(5);
+              row[4] = fg == null ? "-" : fg;
+            }
+
+            Integer at = slot.get(rs.getString(6));
+            if (at != null) {
+              row[at] = "" + rs.getDouble(7);
+              row[at + 1] = "" + rs.getDouble(8);
+              row[at + 2] = rs.getString(9);
+              row[at + 3] = "" + rs.getDouble(10);
+            }
+          }
+
+          if (row != null) {
+            csv.writeNext(row);
+            rows++;
+          }
+        }
+      }
+
+      log.info("Exported {} rows x {} components for sectionId={}", rows, names.size(), sectionId);
+      return rows;
+
+    } catch (SQLException ex) {
+      log.error("Grade export failed for sectionId={}", sectionId, ex);
+      throw new DatabaseException("Failed exporting grades", ex);
+    }
+  }
+
+  private List<String> componentNames(Connection con, int sectionId) throws SQLException {
+    Set<String> names = new TreeSet<>();
+    try (PreparedStatement ps = con.prepareStatement(COMPONENTS_SQL)) {
+      ps.setInt(1, sectionId);
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) {
+          names.add(rs.getString(1));
+        }
+      }
+    }
+    return new ArrayList<>(names);
+  }
+
+  private static Path await(Future<Path> f) throws IOException {
+    try {
+      return f.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Export interrupted");
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof IOException io)
+        throw io;
+      if (cause instanceof RuntimeException re)
+        throw re;
+      throw new IOException(cause);
+    }
+  }
+}
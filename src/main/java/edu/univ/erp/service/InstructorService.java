@@ -6,6 +6,8 @@ import edu.univ.erp.domain.*;
 import edu.univ.erp.domain.grades.*;
 import edu.univ.erp.exception.*;
 import edu.univ.erp.util.AutoTableResize;
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
 
 import java.sql.*;
 import java.util.*;
@@ -26,6 +28,7 @@ public class InstructorService {
     private final EnrollmentDao enrollmentDao = new EnrollmentDao();
     private final GradeDao gradeDao = new GradeDao();
     private final StudentDao studentDao = new StudentDao();
+    private final GradeExporter gradeExporter = new GradeExporter();
 
    
     public List<String[]> mySections() {
@@ -37,9 +40,7 @@ public class InstructorService {
             SELECT s.section_id, c.code, c.title, s.semester, s.year, s.day_time, s.room, s.capacity
             FROM sections s
             JOIN courses c ON c.course_id = s.course_id
-            WHERE s.instructor_id = (
-                SELECT instructor_id FROM instructors WHERE user_id = ?
-            )
+            WHERE s.instructor_id = ?
             ORDER BY s.year DESC, s.semester
         """;
 
@@ -49,7 +50,7 @@ public class InstructorService {
         try (var con = DBPool.erp().getConnection();
              var ps = con.prepareStatement(sql)) {
 
-            ps.setInt(1, inst.getUserId());
+            ps.setInt(1, currentInstructorId());
             var rs = ps.executeQuery();
 
             while (rs.next()) {
@@ -79,19 +80,18 @@ public class InstructorService {
     public List<String[]> mySectionsRaw() {
         log.debug("mySectionsRaw(): entering");
         try {
-            int userId = SessionManager.getCurrentUser().getUserId();
+            int instructorId = currentInstructorId();
 
             String sql = """
                 SELECT s.section_id, s.course_id
                 FROM sections s
-                JOIN instructors i ON s.instructor_id = i.instructor_id
-                WHERE i.user_id = ?
+                WHERE s.instructor_id = ?
             """;
 
             try (var con = DBPool.erp().getConnection();
                  var ps = con.prepareStatement(sql)) {
 
-                ps.setInt(1, userId);
+                ps.setInt(1, instructorId);
                 var rs = ps.executeQuery();
 
                 List<String[]> list = new java.util.ArrayList<>();
@@ -116,23 +116,17 @@ public class InstructorService {
 
 
     public List<Enrollment> sectionEnrollments(int sectionId) {
+        // ownership check and roster load share one connection
+        return UnitOfWork.withConnection(() -> sectionEnrollmentsShared(sectionId));
+    }
+
+    private List<Enrollment> sectionEnrollmentsShared(int sectionId) {
         log.debug("sectionEnrollments(): sectionId={}", sectionId);
     ac.requireRole(Role.INSTRUCTOR);
     Instructor inst = (Instructor) SessionManager.getCurrentUser();
 
     // verifying ownership
-    int instId;
-    String sqlGetInst = "SELECT instructor_id FROM instructors WHERE user_id = ?";
-    try (var con = DBPool.erp().getConnection();
-         var ps = con.prepareStatement(sqlGetInst)) {
-        ps.setInt(1, inst.getUserId());
-        var rs = ps.executeQuery();
-        rs.next();
-        instId = rs.getInt(1);
-    } catch (Exception ex) {
-        log.error("sectionEnrollments(): Instructor lookup failed for userId={}", inst.getUserId(), ex);
-        throw new DatabaseException("Instructor lookup failed", ex);
-    }
+    int instId = currentInstructorId();
 
     Section sec = sectionDao.findById(sectionId);
     if (sec.getInstructorId() != instId) {
@@ -192,6 +186,14 @@ public class InstructorService {
 
     
     public void addGradeComponent(int enrollmentId, GradeComponent gc) {
+        // ownership lookups and the insert share one connection
+        UnitOfWork.withConnection(() -> {
+            addGradeComponentShared(enrollmentId, gc);
+            return null;
+        });
+    }
+
+    private void addGradeComponentShared(int enrollmentId, GradeComponent gc) {
         log.debug("addGradeComponent(): enrollmentId={} component={}", enrollmentId, gc == null ? "null" : gc.getName());
         ac.requireRole(Role.INSTRUCTOR);
         ac.requireMaintenanceOff();
@@ -201,7 +203,7 @@ public class InstructorService {
         Section sec = sectionDao.findById(e.getSectionId());
 
 
-        int instructorId = getInstructorIdFromUser(inst.getUserId());
+        int instructorId = currentInstructorId();
 
         if (!Objects.equals(sec.getInstructorId(), instructorId)) {
             log.warn("addGradeComponent(): Not your section. userId={} enrollmentId={}", inst.getUserId(), enrollmentId);
@@ -234,6 +236,11 @@ public class InstructorService {
 
 
     public String computeFinalGrade(int enrollmentId) {
+        // ownership check, grade read and update commit together
+        return UnitOfWork.inTransaction(() -> computeFinalGradeInTx(enrollmentId));
+    }
+
+    private String computeFinalGradeInTx(int enrollmentId) {
         log.debug("computeFinalGrade(): enrollmentId={}", enrollmentId);
         ac.requireRole(Role.INSTRUCTOR);
         ac.requireMaintenanceOff();
@@ -245,7 +252,7 @@ public class InstructorService {
 
         Instructor inst = (Instructor) SessionManager.getCurrentUser();
 
-        int instructorId = getInstructorIdFromUser(inst.getUserId());
+        int instructorId = currentInstructorId();
         if (!Objects.equals(sec.getInstructorId(), instructorId)) {
             log.warn("computeFinalGrade(): Not your section. userId={} enrollmentId={}", inst.getUserId(), enrollmentId);
             throw new AccessDeniedException("Not your section.");
@@ -278,6 +285,85 @@ public class InstructorService {
         return letter;
     }
 
+    public Map<String, Integer> computeFinalGradesForSection(int sectionId) {
+        return DBPool.withLane(DBPool.Lane.BATCH, () -> computeFinalGradesForSectionBatch(sectionId));
+    }
+
+    private Map<String, Integer> computeFinalGradesForSectionBatch(int sectionId) {
+        log.debug("computeFinalGradesForSection(): sectionId={}", sectionId);
+        ac.requireRole(Role.INSTRUCTOR);
+        ac.requireMaintenanceOff();
+        requireOwnSection(sectionId);
+
+        // Same weighting as computeFinalGrade, summed per enrollment in one
+        // ordered scan. Enrollments without grades come back with no rows
+        // from the grade side and finish at 0.
+        String sql = """
+            SELECT e.enrollment_id, g.score, g.max_score, g.weightage
+            FROM enrollments e
+            LEFT JOIN grades g ON g.enrollment_id = e.enrollment_id
+            WHERE e.section_id = ? AND e.status <> 'DROPPED'
+            ORDER BY e.enrollment_id
+        """;
+
+        Map<String, Integer> summary = new LinkedHashMap<>();
+        for (String letter : List.of("A+", "A", "A-", "B", "B-", "C", "D", "F")) {
+            summary.put(letter, 0);
+        }
+
+        List<Object[]> updates = new ArrayList<>();
+
+        // the read and the batched write share one transaction
+        UnitOfWork.inTransaction(() -> {
+            try (var con = DBPool.erp().getConnection();
+                 var ps = con.prepareStatement(sql)) {
+
+                ps.setInt(1, sectionId);
+
+                try (var rs = ps.executeQuery()) {
+                    int current = -1;
+                    double total = 0;
+
+                    while (rs.next()) {
+                        int eid = rs.getInt(1);
+                        if (eid != current) {
+                            if (current != -1) {
+                                updates.add(finalGradeRow(current, total, summary));
+                            }
+                            current = eid;
+                            total = 0;
+                        }
+
+                        double max = rs.getDouble(3);
+                        if (!rs.wasNull() && max > 0) {
+                            double pct = (rs.getDouble(2) / max) * 100.0;
+                            total += pct * (rs.getDouble(4) / 100.0);
+                        }
+                    }
+
+                    if (current != -1) {
+                        updates.add(finalGradeRow(current, total, summary));
+                    }
+                }
+
+            } catch (SQLException ex) {
+                log.error("computeFinalGradesForSection(): failed for sectionId={}", sectionId, ex);
+                throw new DatabaseException("Failed computing final grades", ex);
+            }
+
+            enrollmentDao.updateFinalGrades(updates);
+        });
+
+        log.info("computeFinalGradesForSection(): sectionId={} summary={}", sectionId, summary);
+        return summary;
+    }
+
+    private Object[] finalGradeRow(int enrollmentId, double total, Map<String, Integer> summary) {
+        String letter = toLetterGrade(total);
+        summary.merge(letter, 1, Integer::sum);
+        return new Object[] { letter, enrollmentId };
+    }
+
     private String toLetterGrade(double x) {
         if (x>=95) return "A+" ; 
         if (x>=90) return "A" ; 
@@ -290,114 +376,105 @@ public class InstructorService {
     }
 
     
-public List<String[]> exportSectionGrades(int sectionId) {
-    log.debug("exportSectionGrades(): sectionId={}", sectionId);
+public long exportSectionGrades(int sectionId, OutputStream out, boolean gzip) throws IOException {
+    log.debug("exportSectionGrades(): sectionId={} gzip={}", sectionId, gzip);
     ac.requireRole(Role.INSTRUCTOR);
+    requireOwnSection(sectionId);
 
-    Instructor inst = (Instructor) SessionManager.getCurrentUser();
-    Section sec = sectionDao.findById(sectionId);
-
-    int instructorId = getInstructorIdFromUser(inst.getUserId());
-    if (!Objects.equals(sec.getInstructorId(), instructorId)) {
-        throw new AccessDeniedException("Not your section.");
-    }
-
-    // Loading enrollments
-    String sql = """
-        SELECT e.enrollment_id,
-               s.roll_no,
-               s.email,
-               e.status,
-               e.final_grade
-        FROM enrollments e
-        JOIN students s ON s.student_id = e.student_id
-        WHERE e.section_id=?
-    """;
-
-    List<Enrollment> enrollments = new ArrayList<>();
-
-    try (var con = DBPool.erp().getConnection();
-         var ps = con.prepareStatement(sql)) {
+    return DBPool.withLane(DBPool.Lane.REPORTING, () -> gradeExporter.exportSection(sectionId, out, gzip));
+}
 
-        ps.setInt(1, sectionId);
-        var rs = ps.executeQuery();
+public void exportSectionsZip(List<Integer> sectionIds, OutputStream out) throws IOException {
+    log.debug("exportSectionsZip(): sectionIds={}", sectionIds);
+    ac.requireRole(Role.INSTRUCTOR);
 
-        while (rs.next()) {
-            Enrollment e = new Enrollment(
-                    rs.getInt("enrollment_id"),
-                    0, 0,
-                    Enrollment.Status.valueOf(rs.getString("status")),
-                    null, null,
-                    rs.getString("final_grade")
-            );
-            e.setStudentRollNo(rs.getString("roll_no"));
-            e.setStudentEmail(rs.getString("email"));
-            enrollments.add(e);
-        }
-    } catch (SQLException ex) {
-        throw new DatabaseException("Failed exporting grades", ex);
+    // checked up front on this thread; the export workers have no session
+    for (int sectionId : sectionIds) {
+        requireOwnSection(sectionId);
     }
 
-    // Loading components
-    Map<Integer, List<GradeComponent>> compsMap = getComponentsForSection(sectionId);
-
-    // Ensuring Unique component names
-    Set<String> componentNames = new TreeSet<>();
-    compsMap.values().forEach(list -> list.forEach(gc -> componentNames.add(gc.getName())));
-
-
-    List<String> header = new ArrayList<>();
-    header.add("Enrollment ID");
-    header.add("Roll No");
-    header.add("Email");
-    header.add("Status");
-    header.add("Final Grade");
+    DBPool.withLane(DBPool.Lane.REPORTING, () -> {
+        gradeExporter.exportSectionsZip(sectionIds, out);
+        return null;
+    });
+}
 
-    for (String comp : componentNames) {
-        header.add(comp + "_score");
-        header.add(comp + "_max");
-        header.add(comp + "_type");
-        header.add(comp + "_weight");
+private void requireOwnSection(int sectionId) {
+    Section sec = sectionDao.findById(sectionId);
+    if (!Objects.equals(sec.getInstructorId(), currentInstructorId())) {
+        throw new AccessDeniedException("Not your section.");
     }
+}
 
-    List<String[]> output = new ArrayList<>();
-    output.add(header.toArray(new String[0]));
+// Validates one data row and queues its enrollment update and grade
+// inserts. Returns the number of grades queued, or -1 if the row is skipped.
+private int parseImportRow(String[] parts, int width, String[] compNames, Set<Integer> validEnrollments,
+                           long line, GradeImportReport report,
+                           List<Object[]> updates, List<Object[]> grades) {
+    if (parts.length != width) {
+        report.error(line, "Expected " + width + " columns, found " + parts.length);
+        return -1;
+    }
 
+    int enrollmentId;
+    try {
+        enrollmentId = Integer.parseInt(clean(parts[0]));
+    } catch (NumberFormatException ex) {
+        report.error(line, "Invalid enrollment id: " + parts[0]);
+        return -1;
+    }
+    if (!validEnrollments.contains(enrollmentId)) {
+        report.error(line, "Enrollment " + enrollmentId + " is not in this section");
+        return -1;
+    }
 
-    for (Enrollment e : enrollments) {
-        List<String> row = new ArrayList<>();
+    String status = clean(parts[3]);
+    String finalGrade = clean(parts[4]);
+    if (!status.equals("-") && !ENROLLMENT_STATUSES.contains(status)) {
+        report.error(line, "Invalid status: " + status);
+        return -1;
+    }
 
-        row.add("" + e.getEnrollmentId());
-        row.add(e.getStudentRollNo());
-        row.add(e.getStudentEmail());
-        row.add(e.getStatus().name());
-        row.add(e.getFinalGrade() == null ? "-" : e.getFinalGrade());
+    updates.add(new Object[] {
+            status.equals("-") ? null : status,
+            finalGrade.equals("-") ? null : finalGrade,
+            enrollmentId });
 
+    int inserted = 0;
 
-        Map<String, GradeComponent> studentMap = new HashMap<>();
-        compsMap.getOrDefault(e.getEnrollmentId(), List.of())
-                .forEach(gc -> studentMap.put(gc.getName(), gc));
+    // Inserting grade compo
+    for (int c = 0; c < compNames.length; c++) {
+        String scoreStr = clean(parts[5 + c * 4]);
+        String maxStr   = clean(parts[6 + c * 4]);
+        String typeStr  = clean(parts[7 + c * 4]);
+        String wtStr    = clean(parts[8 + c * 4]);
 
-        for (String comp : componentNames) {
-            GradeComponent gc = studentMap.get(comp);
+        // Skiping missing component values
+        if (scoreStr.equals("-") || maxStr.equals("-") || typeStr.equals("-") || wtStr.equals("-"))
+            continue;
 
-            if (gc == null) {
-                row.add("-");
-                row.add("-");
-                row.add("-");
-                row.add("-");
-            } else {
-                row.add("" + gc.getScore());
-                row.add("" + gc.getMaxScore());
-                row.add(gc.getType().name());
-                row.add("" + gc.getWeightage());
-            }
+        double score, max, weight;
+        try {
+            score = Double.parseDouble(scoreStr);
+            max   = Double.parseDouble(maxStr);
+            weight = Double.parseDouble(wtStr);
+            GradeType.valueOf(typeStr);
+        } catch (IllegalArgumentException ex) {
+            report.error(line, "Invalid component '" + compNames[c] + "': "
+                    + scoreStr + ", " + maxStr + ", " + typeStr + ", " + wtStr);
+            continue;
+        }
+        // GradeComponent cannot be built from these when read back
+        if (max <= 0) {
+            report.error(line, "Invalid max score for '" + compNames[c] + "': " + maxStr);
+            continue;
         }
 
-        output.add(row.toArray(new String[0]));
+        grades.add(new Object[] { enrollmentId, typeStr, compNames[c], score, max, weight });
+        inserted++;
     }
 
-    return output;
+    return inserted;
 }
 
 private String clean(String s) {
@@ -411,151 +488,134 @@ private String clean(String s) {
 
 
 
-public void importGradesFromCSV(int sectionId, Path csvPath) throws Exception {
+private static final int IMPORT_CHUNK_ROWS = 500;
+private static final Set<String> ENROLLMENT_STATUSES = Set.of("ENROLLED", "DROPPED", "COMPLETED");
+
+public GradeImportReport importGradesFromCSV(int sectionId, Path csvPath) throws Exception {
+    return DBPool.withLane(DBPool.Lane.BATCH, () -> importGradesFromCSVBatch(sectionId, csvPath));
+}
+
+// Rolls back the import transaction; the report carries the reasons.
+private static final class ImportRejected extends RuntimeException {
+    ImportRejected() {
+        super("Grade import rejected", null, false, false);
+    }
+}
+
+private GradeImportReport importGradesFromCSVBatch(int sectionId, Path csvPath) throws Exception {
     log.debug("importGradesFromCSV(): sectionId={} csvPath={}", sectionId, csvPath);
     ac.requireRole(Role.INSTRUCTOR);
     ac.requireMaintenanceOff();
 
-    Instructor inst = (Instructor) SessionManager.getCurrentUser();
     Section sec = sectionDao.findById(sectionId);
 
-    int instructorId = getInstructorIdFromUser(inst.getUserId());
+    int instructorId = currentInstructorId();
     if (!Objects.equals(sec.getInstructorId(), instructorId)) {
         throw new AccessDeniedException("Not your section.");
     }
 
-    List<String> lines = Files.readAllLines(csvPath);
-    if (lines.isEmpty()) throw new ValidationException("CSV is empty.");
-
-    String[] headers = lines.get(0).trim().split(",");
-
-    // Ensuring correct layout
-    if ((headers.length - 5) % 4 != 0) {
-        throw new ValidationException("Invalid CSV format: components must be groups of 4 columns.");
-    }
-
-    int compCount = (headers.length - 5) / 4;
-    List<String> compNames = new ArrayList<>();
-
-    for (int i = 0; i < compCount; i++) {
-        String h = clean(headers[5 + i * 4]); 
-        String comp = h.substring(0, h.lastIndexOf("_score"));
-        compNames.add(comp);
-    }
-
-    
-    Set<Integer> validEnrollments = new HashSet<>();
-    try (var con = DBPool.erp().getConnection();
-         var ps = con.prepareStatement("SELECT enrollment_id FROM enrollments WHERE section_id=?")) {
-
-        ps.setInt(1, sectionId);
-        var rs = ps.executeQuery();
-        while (rs.next()) validEnrollments.add(rs.getInt(1));
-    }
-
-   
-    try (var con = DBPool.erp().getConnection();
-         var ps = con.prepareStatement("""
-            DELETE g FROM grades g
-            JOIN enrollments e ON g.enrollment_id=e.enrollment_id
-            WHERE e.section_id=?
-         """)) {
-        ps.setInt(1, sectionId);
-        ps.executeUpdate();
-    }
-
-    // Each csv row
-    for (int i = 1; i < lines.size(); i++) {
-        String line = lines.get(i).trim();
-        if (line.isBlank()) continue;
-
-        String[] parts = line.split(",");
+    GradeImportReport report = new GradeImportReport(sectionId);
+    long started = System.nanoTime();
 
-        int enrollmentId = Integer.parseInt(clean(parts[0]));
-        if (!validEnrollments.contains(enrollmentId)) continue;
+    try (var reader = new CSVReader(Files.newBufferedReader(csvPath))) {
 
-        
-        String status = clean(parts[3]);
-        String finalGrade = clean(parts[4]);
-
-        try (var con = DBPool.erp().getConnection();
-             var ps = con.prepareStatement(
-                     "UPDATE enrollments SET status=?, final_grade=? WHERE enrollment_id=?")) {
+        String[] headers = reader.readNext();
+        if (headers == null) throw new ValidationException("CSV is empty.");
 
-            ps.setString(1, status.equals("-") ? null : status);
-            ps.setString(2, finalGrade.equals("-") ? null : finalGrade);
-            ps.setInt(3, enrollmentId);
-            ps.executeUpdate();
+        // Ensuring correct layout
+        if (headers.length < 5 || (headers.length - 5) % 4 != 0) {
+            throw new ValidationException("Invalid CSV format: components must be groups of 4 columns.");
         }
 
-        // Inserting grade compo
-        for (int c = 0; c < compCount; c++) {
-
-            String compName = compNames.get(c);
+        int compCount = (headers.length - 5) / 4;
+        String[] compNames = new String[compCount];
 
-            String scoreStr = clean(parts[5 + c * 4]);
-            String maxStr   = clean(parts[6 + c * 4]);
-            String typeStr  = clean(parts[7 + c * 4]);
-            String wtStr    = clean(parts[8 + c * 4]);
-
-            // Skiping missing component values
-            if (scoreStr.equals("-") || maxStr.equals("-") || typeStr.equals("-") || wtStr.equals("-"))
-                continue;
-
-            double score, max, weight;
-
-            try {
-                score = Double.parseDouble(scoreStr);
-                max   = Double.parseDouble(maxStr);
-                weight = Double.parseDouble(wtStr);
-            } catch (NumberFormatException ex) {
-                log.warn("Skipping invalid numeric component at row {}: {}, {}, {}", i+1, scoreStr, maxStr, wtStr);
-                continue;
-            }
-
-            try (var con = DBPool.erp().getConnection();
-                 var ps = con.prepareStatement("""
-                    INSERT INTO grades (enrollment_id, component_type, component_name, score, max_score, weightage)
-                    VALUES (?, ?, ?, ?, ?, ?)
-                 """)) {
-
-                ps.setInt(1, enrollmentId);
-                ps.setString(2, typeStr);
-                ps.setString(3, compName);
-                ps.setDouble(4, score);
-                ps.setDouble(5, max);
-                ps.setDouble(6, weight);
-
-                ps.executeUpdate();
+        for (int i = 0; i < compCount; i++) {
+            String h = clean(headers[5 + i * 4]);
+            int cut = h.lastIndexOf("_score");
+            if (cut <= 0) {
+                throw new ValidationException("Invalid CSV header: " + h);
             }
+            compNames[i] = h.substring(0, cut);
         }
-    }
-
-    log.info("IMPORT COMPLETED — SAFE RESTORE MODE for sectionId={}", sectionId);
-}
 
+        // The file is parsed row by row and flushed to the DAO batches in
+        // chunks, all inside one transaction. Nothing is visible until the
+        // commit, and any failure rolls back including the delete of the
+        // old grades. So does any bad row: the delete covers the whole
+        // section, and committing without the bad rows would wipe those
+        // students' grades. The rest of the file is still checked so the
+        // report lists every error.
+        try {
+            UnitOfWork.inTransaction(() -> {
+                Set<Integer> validEnrollments = enrollmentDao.findIdsBySection(sectionId);
+                gradeDao.deleteBySection(sectionId);
+
+                List<Object[]> updates = new ArrayList<>();
+                List<Object[]> grades = new ArrayList<>();
+
+                try {
+                    String[] parts;
+                    while ((parts = reader.readNext()) != null) {
+                        long line = reader.getLinesRead();
+                        if (parts.length == 1 && parts[0].isBlank()) continue;
+
+                        report.rowRead();
+                        int inserted = parseImportRow(parts, headers.length, compNames, validEnrollments,
+                                line, report, updates, grades);
+                        if (inserted < 0) continue;
+
+                        report.rowImported(inserted);
+
+                        if (report.hasErrors()) {
+                            updates.clear();
+                            grades.clear();
+                        } else if (updates.size() >= IMPORT_CHUNK_ROWS) {
+                            enrollmentDao.updateStatusAndGrade(updates);
+                            gradeDao.insertBatch(grades);
+                            updates.clear();
+                            grades.clear();
+                        }
+                    }
+                } catch (IOException | CsvValidationException ex) {
+                    throw new ValidationException("Could not read CSV: " + ex.getMessage());
+                }
 
+                if (report.hasErrors()) throw new ImportRejected();
 
-private int getInstructorIdFromUser(int userId) {
-    log.debug("getInstructorIdFromUser(): userId={}", userId);
+                enrollmentDao.updateStatusAndGrade(updates);
+                gradeDao.insertBatch(grades);
+            });
+        } catch (ImportRejected ex) {
+            report.reject();
+            log.warn("importGradesFromCSV(): {} bad rows, nothing written for sectionId={}",
+                    report.getErrors().size(), sectionId);
+        }
 
-    String sql = "SELECT instructor_id FROM instructors WHERE user_id = ?";
+    } catch (RuntimeException ex) {
+        log.error("importGradesFromCSV(): import failed, nothing written for sectionId={}", sectionId, ex);
+        throw ex;
+    }
 
-    try (var con = DBPool.erp().getConnection();
-         var ps = con.prepareStatement(sql)) {
+    report.finish((System.nanoTime() - started) / 1_000_000);
+    log.info("importGradesFromCSV(): {}", report);
+    return report;
+}
 
-        ps.setInt(1, userId);
-        var rs = ps.executeQuery();
 
-        if (rs.next())
-            return rs.getInt(1);
 
-        throw new NotFoundException("Instructor record not found for user " + userId);
+private int currentInstructorId() {
+    Instructor inst = (Instructor) SessionManager.getCurrentUser();
+    if (inst == null) {
+        throw new AccessDeniedException("No active instructor session.");
+    }
 
-    } catch (SQLException ex) {
-        log.error("getInstructorIdFromUser(): failed for userId={}", userId, ex);
-        throw new DatabaseException("Failed to resolve instructor_id", ex);
+    // instructor_id is resolved once at login and carried on the session user
+    if (inst.getInstructorId() <= 0) {
+        log.warn("currentInstructorId(): no instructor record for userId={}", inst.getUserId());
+        throw new NotFoundException("Instructor record not found for user " + inst.getUserId());
     }
+    return inst.getInstructorId();
 }
 
 
@@ -606,121 +666,114 @@ public Map<Integer, List<GradeComponent>> getComponentsForSection(int sectionId)
 }
 
 
-public Map<String, Double> classStats(int sectionId) {
+public ClassStats classStats(int sectionId) {
+    return DBPool.withLane(DBPool.Lane.REPORTING, () -> classStatsReport(sectionId));
+}
+
+private ClassStats classStatsReport(int sectionId) {
     log.debug("classStats(): sectionId={}", sectionId);
     ac.requireRole(Role.INSTRUCTOR);
 
     Instructor inst = (Instructor) SessionManager.getCurrentUser();
     Section sec = sectionDao.findById(sectionId);
 
-    int instructorId = getInstructorIdFromUser(inst.getUserId());
+    int instructorId = currentInstructorId();
     if (!Objects.equals(sec.getInstructorId(), instructorId)) {
         log.warn("classStats(): access denied for userId={} sectionId={}", inst.getUserId(), sectionId);
         throw new AccessDeniedException("Not your section.");
     }
 
-    //  Load all enrollments 
-    String enrollSql = """
-        SELECT enrollment_id
-        FROM enrollments
-        WHERE section_id = ?
+    // One ordered scan of the section's enrollments and their grades.
+    // Enrollments without grades still come back (LEFT JOIN) and count as 0.
+    String sql = """
+        SELECT e.enrollment_id, g.component_name, g.score, g.max_score, g.weightage
+        FROM enrollments e
+        LEFT JOIN grades g ON g.enrollment_id = e.enrollment_id
+        WHERE e.section_id = ?
+        ORDER BY e.enrollment_id
     """;
 
-    List<Integer> enrollmentIds = new ArrayList<>();
+    int rows = 0;
+    int students = 0;
+    int[] rowStudent = new int[256];
+    int[] rowComp = new int[256];
+    double[] rowScore = new double[256];
+
+    // component definition = the max score/weight of its heaviest occurrence
+    Map<String, Integer> compIndex = new HashMap<>();
+    double[] defMax = new double[16];
+    double[] defWeight = new double[16];
 
     try (var con = DBPool.erp().getConnection();
-         var ps = con.prepareStatement(enrollSql)) {
+         var ps = con.prepareStatement(sql)) {
 
         ps.setInt(1, sectionId);
-        var rs = ps.executeQuery();
-
-        while (rs.next()) {
-            enrollmentIds.add(rs.getInt("enrollment_id"));
-        }
-
-    } catch (SQLException ex) {
-        log.error("classStats(): Failed loading enrollments for sectionId={}", sectionId, ex);
-        throw new DatabaseException("Failed loading enrollments", ex);
-    }
+        ps.setFetchSize(500);
 
- 
-    Map<Integer, List<GradeComponent>> allComps = getComponentsForSection(sectionId);
+        try (var rs = ps.executeQuery()) {
+            int lastEid = -1;
 
-    class CompDef {
-        double maxScore;
-        double weight;
-    }
+            while (rs.next()) {
+                int eid = rs.getInt(1);
+                if (eid != lastEid) {
+                    students++;
+                    lastEid = eid;
+                }
 
-    Map<String, CompDef> compDefs = new HashMap<>();
+                String name = rs.getString(2);
+                if (name == null) continue;
 
-    for (var entry : allComps.entrySet()) {
-        for (GradeComponent gc : entry.getValue()) {
-            String name = gc.getName();
+                double maxScore = rs.getDouble(4);
+                double weight = rs.getDouble(5);
 
-            compDefs.compute(name, (k, old) -> {
-                if (old == null) {
-                    CompDef d = new CompDef();
-                    d.maxScore = gc.getMaxScore();
-                    d.weight = gc.getWeightage();
-                    return d;
-                } else {
-                  
-                    if (gc.getWeightage() > old.weight) {
-                        old.maxScore = gc.getMaxScore();
-                        old.weight = gc.getWeightage();
+                Integer c = compIndex.get(name);
+                if (c == null) {
+                    c = compIndex.size();
+                    compIndex.put(name, c);
+                    if (c == defMax.length) {
+                        defMax = Arrays.copyOf(defMax, c * 2);
+                        defWeight = Arrays.copyOf(defWeight, c * 2);
                     }
-                    return old;
+                    defMax[c] = maxScore;
+                    defWeight[c] = weight;
+                } else if (weight > defWeight[c]) {
+                    defMax[c] = maxScore;
+                    defWeight[c] = weight;
                 }
-            });
-        }
-    }
-
-    
-    List<Double> finalScores = new ArrayList<>();
-
-    for (int eid : enrollmentIds) {
-        List<GradeComponent> comps = gradeDao.findByEnrollment(eid);
-
-        Map<String, GradeComponent> studentMap = new HashMap<>();
-        for (GradeComponent gc : comps) {
-            studentMap.put(gc.getName(), gc);
-        }
 
-        double total = 0;
-
-        for (var entry : compDefs.entrySet()) {
-            String name = entry.getKey();
-            CompDef def = entry.getValue();
-
-            GradeComponent gc = studentMap.get(name);
-
-            if (gc == null) {
-                total += 0;
-            } else {
-                total += (gc.getScore() / def.maxScore) * def.weight;
+                if (rows == rowStudent.length) {
+                    rowStudent = Arrays.copyOf(rowStudent, rows * 2);
+                    rowComp = Arrays.copyOf(rowComp, rows * 2);
+                    rowScore = Arrays.copyOf(rowScore, rows * 2);
+                }
+                rowStudent[rows] = students - 1;
+                rowComp[rows] = c;
+                rowScore[rows] = rs.getDouble(3);
+                rows++;
             }
         }
 
-        finalScores.add(total);
+    } catch (SQLException ex) {
+        log.error("classStats(): Failed loading grades for sectionId={}", sectionId, ex);
+        throw new DatabaseException("Failed loading grades", ex);
     }
 
-    // 4. Compute statistics
-    Map<String, Double> out = new HashMap<>();
-    if (finalScores.isEmpty()) {
-        out.put("average", 0.0);
-        out.put("min", 0.0);
-        out.put("max", 0.0);
-        return out;
+    double[] totals = new double[students];
+    for (int i = 0; i < rows; i++) {
+        int c = rowComp[i];
+        totals[rowStudent[i]] += (rowScore[i] / defMax[c]) * defWeight[c];
     }
 
-    double avg = finalScores.stream().mapToDouble(x -> x).average().orElse(0);
-    double min = finalScores.stream().mapToDouble(x -> x).min().orElse(0);
-    double max = finalScores.stream().mapToDouble(x -> x).max().orElse(0);
-
-    out.put("average", avg);
-    out.put("min", min);
-    out.put("max", max);
+    Map<String, Integer> histogram = new LinkedHashMap<>();
+    for (String letter : List.of("A+", "A", "A-", "B", "B-", "C", "D", "F")) {
+        histogram.put(letter, 0);
+    }
+    for (double t : totals) {
+        histogram.merge(toLetterGrade(t), 1, Integer::sum);
+    }
 
-    return out;
+    ClassStats stats = ClassStats.of(totals, histogram);
+    log.info("classStats(): sectionId={} {} from {} grade rows", sectionId, stats, rows);
+    return stats;
     }
-}
\ No newline at end of file
+}
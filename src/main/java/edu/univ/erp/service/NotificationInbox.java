@@ -0,0 +1,284 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.data.NotificationDao;
+import edu.univ.erp.data.NotificationReadDao;
+import edu.univ.erp.data.SettingsDao;
+import edu.univ.erp.data.UnitOfWork;
+import edu.univ.erp.domain.*;
+import edu.univ.erp.util.IdRangeSet;
+import java.util.*;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Notifications already shown to the logged-in user, newest first. A
+// refresh asks for ids above the newest one held minus LOOKBACK_IDS:
+// auto-increment ids do not commit in id order, so a sender's id can
+// become visible after a higher one already arrived. Rows already held
+// are skipped. Older history is paged in on request by keyset
+// (id < oldest held). The user's section and
+// course targets are resolved once per session and reset when the user
+// registers or drops.
+//
+// With the notifications_fanout setting on, recipients are expanded when a
+// notification is sent and the pages come straight from the user's notification_inbox
+// rows; no targets are resolved at all.
+//
+// Read state is one IdRangeSet per user. Unread counts only look at ids
+// above its contiguous 1..n prefix, which "mark all read" extends to the
+// newest id, so the count query stays short.
+class NotificationInbox {
+
+  private static final Logger log = LoggerFactory.getLogger(NotificationInbox.class);
+
+  static final int FIRST_PAGE = 100;
+  static final int PAGE_SIZE = 50;
+  private static final int DELTA_BATCH = 200;
+  static final int LOOKBACK_IDS = 50;
+  static final int UNREAD_CAP = 999;
+
+  private record Targets(List<Integer> sections, List<Integer> courses) {
+  }
+
+  private static final SettingsDao settings = new SettingsDao();
+
+  private static NotificationInbox current;
+
+  private final NotificationDao dao = new NotificationDao();
+  private final NotificationReadDao readDao = new NotificationReadDao();
+  private final User user;
+  private final LinkedList<Notification> items = new LinkedList<>();
+  private final Set<Integer> held = new HashSet<>();
+  private Targets targets;
+  private boolean loaded;
+  private boolean reachedEnd;
+  private IdRangeSet read;
+  private int announcedId;
+
+  private NotificationInbox(User user) {
+    this.user = user;
+  }
+
+  static synchronized NotificationInbox forUser(User u) {
+    if (current == null || current.user.getUserId() != u.getUserId()) {
+      current = new NotificationInbox(u);
+    }
+    return current;
+  }
+
+  // Read through SettingsCache on every use, so a switch reaches all
+  // clients within the cache TTL.
+  static boolean fanOut() {
+    return settings.isNotificationFanOut();
+  }
+
+  // The set of sections decides which notifications are visible, so a
+  // change drops everything loaded rather than patching it.
+  static synchronized void targetsChanged() {
+    if (current != null && !fanOut()) {
+      log.debug("Notification targets changed for userId={}, inbox reset", current.user.getUserId());
+      NotificationInbox next = new NotificationInbox(current.user);
+      next.read = current.read;
+      next.announcedId = current.announcedId;
+      current = next;
+    }
+  }
+
+  // Returns how many notifications arrived since the last call.
+  synchronized int refresh() {
+    if (!loaded) {
+      List<Notification> page = older(Integer.MAX_VALUE, FIRST_PAGE);
+      items.addAll(page);
+      page.forEach(n -> held.add(n.getNotifId()));
+      reachedEnd = page.size() < FIRST_PAGE;
+      loaded = true;
+      log.info("Inbox loaded {} notifications for userId={}", page.size(), user.getUserId());
+      return page.size();
+    }
+
+    int added = 0;
+    int after = Math.max(0, newestId() - LOOKBACK_IDS);
+    while (true) {
+      List<Notification> delta = newer(after, DELTA_BATCH);
+      for (Notification n : delta) {
+        if (held.add(n.getNotifId())) {
+          insert(n);
+          added++;
+        }
+      }
+      if (delta.size() < DELTA_BATCH)
+        break;
+      after = delta.get(delta.size() - 1).getNotifId();
+    }
+
+    log.debug("Inbox refresh for userId={}: {} new, {} held", user.getUserId(), added, items.size());
+    return added;
+  }
+
+  // Returns how many older notifications were added; 0 once history is exhausted.
+  synchronized int loadOlder() {
+    if (!loaded) {
+      refresh();
+      return 0;
+    }
+    if (reachedEnd || items.isEmpty())
+      return 0;
+
+    List<Notification> page = older(items.getLast().getNotifId(), PAGE_SIZE);
+    items.addAll(page);
+    page.forEach(n -> held.add(n.getNotifId()));
+    reachedEnd = page.size() < PAGE_SIZE;
+
+    log.debug("Inbox paged {} older notifications for userId={}", page.size(), user.getUserId());
+    return page.size();
+  }
+
+  synchronized List<Notification> items() {
+    return List.copyOf(items);
+  }
+
+  synchronized int newestId() {
+    return items.isEmpty() ? 0 : items.getFirst().getNotifId();
+  }
+
+  synchronized boolean hasOlder() {
+    return !reachedEnd;
+  }
+
+  synchronized boolean isRead(int notifId) {
+    return read().contains(notifId);
+  }
+
+  // Unread notifications visible to the user, capped at UNREAD_CAP.
+  synchronized int unreadCount() {
+    IdRangeSet r = read();
+    int prefix = r.contiguousPrefix();
+    List<Integer> ids = fanOut()
+        ? dao.inboxIdsNewer(user.getUserId(), prefix, UNREAD_CAP + r.runCount())
+        : idsNewer(prefix, UNREAD_CAP + r.runCount());
+    int unread = 0;
+    for (int id : ids) {
+      if (!r.contains(id) && ++unread == UNREAD_CAP)
+        break;
+    }
+    return unread;
+  }
+
+  // True once for each refresh that brought in something unread; keeps the
+  // "new notification" banner per user instead of per JVM.
+  synchronized boolean announceNew() {
+    boolean fresh = false;
+    for (Notification n : items) {
+      if (n.getNotifId() <= announcedId)
+        break;
+      if (!read().contains(n.getNotifId())) {
+        fresh = true;
+        break;
+      }
+    }
+    announcedId = Math.max(announcedId, newestId());
+    return fresh;
+  }
+
+  synchronized void markRead(Collection<Integer> ids) {
+    if (ids.isEmpty() || ids.stream().allMatch(read()::contains))
+      return;
+    persist(set -> set.addAll(ids));
+  }
+
+  // Everything below the lookback window, including ids this user cannot
+  // see: they never count as unread, and marking them keeps one run.
+  // Inside the window only the ids held are marked, since one still
+  // committing may turn up on a later refresh.
+  synchronized void markAllRead() {
+    int settled = newestId() - LOOKBACK_IDS;
+    List<Integer> recent = new ArrayList<>();
+    for (Notification n : items) {
+      if (n.getNotifId() <= settled)
+        break;
+      recent.add(n.getNotifId());
+    }
+    IdRangeSet r = read();
+    if (r.contiguousPrefix() >= settled && recent.stream().allMatch(r::contains))
+      return;
+    persist(set -> {
+      if (settled > 0)
+        set.addRange(1, settled);
+      set.addAll(recent);
+    });
+  }
+
+  // Keeps items newest first. New ids go to the front; one that committed
+  // late lands just behind the ids above it, near the front too.
+  private void insert(Notification n) {
+    ListIterator<Notification> it = items.listIterator();
+    while (it.hasNext()) {
+      if (it.next().getNotifId() < n.getNotifId()) {
+        it.previous();
+        break;
+      }
+    }
+    it.add(n);
+  }
+
+  private void persist(Consumer<IdRangeSet> change) {
+    // reload under lock so marks made from another session are kept
+    read = UnitOfWork.inTransaction(() -> {
+      IdRangeSet fresh = readDao.load(user.getUserId(), true);
+      change.accept(fresh);
+      readDao.save(user.getUserId(), fresh);
+      return fresh;
+    });
+    log.debug("Read state for userId={} now {}", user.getUserId(), read);
+  }
+
+  private IdRangeSet read() {
+    if (read == null)
+      read = readDao.load(user.getUserId(), false);
+    return read;
+  }
+
+  private List<Integer> idsNewer(int afterId, int limit) {
+    Targets t = targets();
+    return dao.idsNewer(user.getRole().name(), user.getUserId(), t.sections(), t.courses(), afterId, limit);
+  }
+
+  private List<Notification> newer(int afterId, int limit) {
+    if (fanOut())
+      return dao.inboxNewer(user.getUserId(), afterId, limit);
+    Targets t = targets();
+    return dao.fetchNewer(user.getRole().name(), user.getUserId(), t.sections(), t.courses(), afterId, limit);
+  }
+
+  private List<Notification> older(int beforeId, int limit) {
+    if (fanOut())
+      return dao.inboxOlder(user.getUserId(), beforeId, limit);
+    Targets t = targets();
+    return dao.fetchOlder(user.getRole().name(), user.getUserId(), t.sections(), t.courses(), beforeId, limit);
+  }
+
+  private Targets targets() {
+    if (targets != null)
+      return targets;
+
+    List<Integer> sections = List.of();
+    List<Integer> courses = List.of();
+
+    if (user instanceof Student) {
+      log.debug("Resolving student sections for userId={}", user.getUserId());
+      var reg = new StudentService().myRegisteredSections();
+      sections = reg.stream().map(Section::getSectionId).toList();
+      courses = reg.stream().map(Section::getCourseId).distinct().toList();
+    }
+
+    if (user instanceof Instructor) {
+      log.debug("Resolving instructor sections for userId={}", user.getUserId());
+      var my = new InstructorService().mySectionsRaw();
+      sections = my.stream().map(arr -> Integer.parseInt(arr[0])).toList();
+      courses = my.stream().map(arr -> Integer.parseInt(arr[1])).distinct().toList();
+    }
+
+    targets = new Targets(sections, courses);
+    return targets;
+  }
+}
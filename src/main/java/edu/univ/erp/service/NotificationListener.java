@@ -1,32 +1,37 @@
 package edu.univ.erp.service;
 
-import java.util.ArrayList;
-import java.util.List;
+import edu.univ.erp.util.EventBus;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+// "Something unread arrived" for the logged-in user. Listeners run on the
+// EDT, once per burst of events however many were published.
 public class NotificationListener {
 
     private static final Logger log = LoggerFactory.getLogger(NotificationListener.class);
 
-    private static final List<Runnable> listeners = new ArrayList<>();
+    public record NewNotifications(int userId, int newestId) {
+    }
+
+    public static final EventBus.Topic<NewNotifications> NEW_NOTIFICATIONS =
+            new EventBus.Topic<>("notifications.new");
 
-    public static void register(Runnable r) {
+    public static EventBus.Subscription register(Runnable r) {
         log.info("Registering new notification listener: {}", r);
-        listeners.add(r);
+        return EventBus.subscribeOnEdt(NEW_NOTIFICATIONS, events -> r.run());
+    }
+
+    // For panels: dropped automatically once the owner is garbage collected,
+    // so a panel thrown away at logout stops receiving events.
+    public static <O> EventBus.Subscription register(O owner, Consumer<? super O> action) {
+        log.info("Registering notification listener for {}", owner.getClass().getSimpleName());
+        return EventBus.subscribeWeakOnEdt(NEW_NOTIFICATIONS, owner, (o, events) -> action.accept(o));
     }
 
-    
-    public static void fire() {
-        log.info("Firing {} notification listeners", listeners.size());
-        for (Runnable r : listeners) {
-            try {
-                log.debug("Executing listener {}", r);
-                r.run();
-            } catch (Exception ignored) {
-                log.error("Listener threw exception but was ignored: {}", r, ignored);
-            }
-        }
-        log.info("All listeners executed");
+    static void fire(int userId, int newestId) {
+        log.debug("Publishing new notifications for userId={} (newest id {}) to {} listeners",
+                userId, newestId, NEW_NOTIFICATIONS.listenerCount());
+        EventBus.publish(NEW_NOTIFICATIONS, new NewNotifications(userId, newestId));
     }
 }
@@ -1,10 +1,11 @@
 package edu.univ.erp.service;
 
 import edu.univ.erp.auth.SessionManager;
+import edu.univ.erp.data.ChangeFeed;
 import edu.univ.erp.data.NotificationDao;
+import edu.univ.erp.data.UnitOfWork;
 import edu.univ.erp.domain.*;
 import edu.univ.erp.exception.AccessDeniedException;
-import java.util.Collections;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,7 +15,27 @@ public class NotificationService {
     private static final Logger log = LoggerFactory.getLogger(NotificationService.class);
 
     private final NotificationDao dao = new NotificationDao();
-    private static int lastMaxId = 0;
+
+    // The notifications_fanout setting makes senders write one
+    // notification_inbox row per recipient. Anything sent while it was off
+    // is expanded when it is switched on (and at startup, in case a switch
+    // was interrupted) so older notifications stay visible.
+    public static void init() {
+        boolean fanOut = NotificationInbox.fanOut();
+        if (fanOut) {
+            backfillInbox();
+        }
+        log.info("Notification delivery: {}", fanOut ? "fan-out on write" : "resolved on read");
+    }
+
+    static void backfillInbox() {
+        NotificationDao dao = new NotificationDao();
+        int[] backlog = dao.inboxBacklog();
+        if (backlog[0] <= backlog[1]) {
+            dao.fanOut(backlog[0], backlog[1]);
+            log.info("Notification inbox backfilled for ids {}..{}", backlog[0], backlog[1]);
+        }
+    }
 
     // send notification
     public void sendNotification(String type, Integer targetId,
@@ -39,11 +60,21 @@ public class NotificationService {
             }
         }
 
-        dao.insert(u.getUserId(), type, targetId, title, message);
+        UnitOfWork.inTransaction(() -> {
+            int id = dao.insert(u.getUserId(), type, targetId, title, message);
+            if (NotificationInbox.fanOut()) {
+                // from the backlog start, to also expand anything a client
+                // that had not seen the switch yet sent without fan-out
+                dao.fanOut(Math.min(dao.inboxBacklog()[0], id), id);
+            }
+            ChangeFeed.publish(ChangeFeed.Topic.NOTIFICATIONS);
+        });
         log.info("Notification sent successfully by userId={}", u.getUserId());
     }
 
 
+    // Incremental: only notifications newer than the ones already held
+    // for this session are fetched.
     public List<Notification> getMyNotifications() {
 
         User u = SessionManager.getCurrentUser();
@@ -54,36 +85,68 @@ public class NotificationService {
             return List.of(); // Admin never receives
         }
 
-        String role = u.getRole().name();
+        NotificationInbox inbox = NotificationInbox.forUser(u);
+        int added = inbox.refresh();
+        List<Notification> list = inbox.items();
+        log.info("Inbox for userId={} holds {} notifications ({} new)", u.getUserId(), list.size(), added);
 
-        List<Integer> sections = Collections.emptyList();
-        List<Integer> courses = Collections.emptyList();
+        if (inbox.announceNew()) {
+            log.info("New unread notification for userId={} (newest id {})", u.getUserId(), inbox.newestId());
+            NotificationListener.fire(u.getUserId(), inbox.newestId());
+        }
 
-        if (u instanceof Student) {
-            log.debug("Resolving student sections for userId={}", u.getUserId());
-            var reg = new StudentService().myRegisteredSections();
-            sections = reg.stream().map(Section::getSectionId).toList();
-            courses  = reg.stream().map(Section::getCourseId).toList();
+        return list;
+    }
+
+    // Pages the next block of older notifications into the inbox and
+    // returns the whole inbox.
+    public List<Notification> loadOlderNotifications() {
+        User u = SessionManager.getCurrentUser();
+        if (u instanceof Admin) {
+            return List.of();
         }
 
-        if (u instanceof Instructor) {
-            log.debug("Resolving instructor sections for userId={}", u.getUserId());
-            var my = new InstructorService().mySectionsRaw();
-            sections = my.stream().map(arr -> Integer.parseInt(arr[0])).toList();
-            courses  = my.stream().map(arr -> Integer.parseInt(arr[1])).toList();
+        NotificationInbox inbox = NotificationInbox.forUser(u);
+        int added = inbox.loadOlder();
+        log.debug("Loaded {} older notifications for userId={}", added, u.getUserId());
+        return inbox.items();
+    }
+
+    public boolean hasOlderNotifications() {
+        User u = SessionManager.getCurrentUser();
+        return !(u instanceof Admin) && NotificationInbox.forUser(u).hasOlder();
+    }
+
+    public static final int UNREAD_CAP = NotificationInbox.UNREAD_CAP;
+
+    // Stops counting at UNREAD_CAP.
+    public int unreadCount() {
+        User u = SessionManager.getCurrentUser();
+        if (u instanceof Admin) {
+            return 0;
         }
+        return NotificationInbox.forUser(u).unreadCount();
+    }
 
-        List<Notification> list = dao.fetchForUser(role, u.getUserId(), sections, courses);
-        log.info("Fetched {} notifications for userId={}", list.size(), u.getUserId());
+    public boolean isUnread(Notification n) {
+        User u = SessionManager.getCurrentUser();
+        return !(u instanceof Admin) && !NotificationInbox.forUser(u).isRead(n.getNotifId());
+    }
 
-        if (!list.isEmpty() && list.get(0).getNotifId() > lastMaxId) {
-            int old = lastMaxId;
-            lastMaxId = list.get(0).getNotifId();
-            log.info("New notification detected for userId={}, lastMaxId {} -> {}", 
-                     u.getUserId(), old, lastMaxId);
-            NotificationListener.fire();
+    public void markRead(List<Notification> shown) {
+        User u = SessionManager.getCurrentUser();
+        if (u instanceof Admin) {
+            return;
         }
+        NotificationInbox.forUser(u).markRead(shown.stream().map(Notification::getNotifId).toList());
+    }
 
-        return list;
+    public void markAllRead() {
+        User u = SessionManager.getCurrentUser();
+        if (u instanceof Admin) {
+            return;
+        }
+        log.info("Marking all notifications read for userId={}", u.getUserId());
+        NotificationInbox.forUser(u).markAllRead();
     }
 }
@@ -0,0 +1,316 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.data.RegistrationDao;
+import edu.univ.erp.exception.DatabaseException;
+import edu.univ.erp.exception.ValidationException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Admission queue for registrations in rush mode. It lives in each client
+// JVM: it paces what this client sends, not the total load on the database.
+public class RegistrationQueue implements RegistrationQueueMXBean {
+
+  private static final Logger log = LoggerFactory.getLogger(RegistrationQueue.class);
+
+  private static volatile RegistrationQueue INSTANCE;
+
+  public static final class Ticket {
+    private final long id;
+    private final int studentId;
+    private final int sectionId;
+    private final int positionAtSubmit;
+    private final long enqueuedAtNanos = System.nanoTime();
+    private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+    private Ticket(long id, int studentId, int sectionId, int positionAtSubmit) {
+      this.id = id;
+      this.studentId = studentId;
+      this.sectionId = sectionId;
+      this.positionAtSubmit = positionAtSubmit;
+    }
+
+    public long getId() { return id; }
+    public int getStudentId() { return studentId; }
+    public int getSectionId() { return sectionId; }
+    public int getPositionAtSubmit() { return positionAtSubmit; }
+    public CompletableFuture<Void> getResult() { return result; }
+  }
+
+  public record Metrics(int queueDepth, long submitted, long completed, long failed, long rejected,
+      double avgWaitMs, long maxWaitMs) {
+  }
+
+  private final RegistrationDao registrationDao = new RegistrationDao();
+  private final BlockingQueue<Ticket> queue;
+  private final int workers;
+  private final long intervalNanos;
+  private final long waitMillis;
+
+  private final AtomicLong ticketSeq = new AtomicLong();
+  private final AtomicLong submitted = new AtomicLong();
+  private final AtomicLong completed = new AtomicLong();
+  private final AtomicLong failed = new AtomicLong();
+  private final AtomicLong rejected = new AtomicLong();
+  private final AtomicLong totalWaitNanos = new AtomicLong();
+  private final AtomicLong maxWaitNanos = new AtomicLong();
+
+  private final Object rateLock = new Object();
+  private long nextSlotNanos = System.nanoTime();
+
+  private final List<Thread> threads = new ArrayList<>();
+  private volatile boolean started;
+  private volatile boolean stopped;
+
+  private RegistrationQueue(int capacity, int workers, double ratePerSecond, long waitMillis) {
+    this.queue = new ArrayBlockingQueue<>(capacity, true);
+    this.workers = workers;
+    this.intervalNanos = ratePerSecond <= 0 ? 0 : (long) (1_000_000_000L / ratePerSecond);
+    this.waitMillis = waitMillis;
+  }
+
+  public static void init(Properties props) {
+    int capacity = Integer.parseInt(props.getProperty("registration.queue.capacity", "200"));
+    int workers = Integer.parseInt(props.getProperty("registration.queue.workers", "2"));
+    double rate = Double.parseDouble(props.getProperty("registration.queue.rate", "20"));
+    long waitMs = Long.parseLong(props.getProperty("registration.queue.wait.ms", "30000"));
+
+    RegistrationQueue old = INSTANCE;
+    INSTANCE = new RegistrationQueue(capacity, workers, rate, waitMs);
+    if (old != null) {
+      old.stop();
+    }
+    registerMBean(INSTANCE);
+    log.info("Registration queue configured: capacity={} workers={} rate={}/s wait={}ms",
+        capacity, workers, rate, waitMs);
+  }
+
+  private static void registerMBean(RegistrationQueue q) {
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName("edu.univ.erp:type=RegistrationQueue");
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+      server.registerMBean(q, name);
+    } catch (Exception e) {
+      log.warn("Could not register RegistrationQueue MBean", e);
+    }
+  }
+
+  public static RegistrationQueue get() {
+    if (INSTANCE == null) {
+      synchronized (RegistrationQueue.class) {
+        if (INSTANCE == null) {
+          init(new Properties());
+        }
+      }
+    }
+    return INSTANCE;
+  }
+
+  public static void shutdown() {
+    RegistrationQueue q = INSTANCE;
+    if (q != null) {
+      q.stop();
+    }
+  }
+
+  public Ticket submit(int studentId, int sectionId) {
+    if (stopped) {
+      rejected.incrementAndGet();
+      throw new ValidationException("Registration queue is shut down.");
+    }
+    ensureStarted();
+
+    Ticket t = new Ticket(ticketSeq.incrementAndGet(), studentId, sectionId, queue.size() + 1);
+    if (!queue.offer(t)) {
+      rejected.incrementAndGet();
+      log.warn("Registration queue full, rejected studentId={} sectionId={}", studentId, sectionId);
+      throw new ValidationException("Registration queue is full. Please try again shortly.");
+    }
+
+    submitted.incrementAndGet();
+    log.info("Queued registration ticket={} studentId={} sectionId={} position={}",
+        t.getId(), studentId, sectionId, t.getPositionAtSubmit());
+    return t;
+  }
+
+  // Blocks until the ticket has been processed. A ticket still queued after
+  // registration.queue.wait.ms is withdrawn, so it cannot go through after
+  // the caller was told it failed. One already being processed is waited
+  // for; that is a single registration and bounded by the pool timeouts.
+  public void await(Ticket t) {
+    try {
+      t.getResult().get(waitMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      withdraw(t, "Registration queue is busy. Please try again shortly.");
+      unwrap(() -> t.getResult().join());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      withdraw(t, "Registration cancelled.");
+      unwrap(() -> t.getResult().join());
+    } catch (ExecutionException e) {
+      throw rethrow(e.getCause());
+    }
+  }
+
+  private void withdraw(Ticket t, String message) {
+    if (queue.remove(t)) {
+      rejected.incrementAndGet();
+      log.warn("Withdrew registration ticket={} studentId={} sectionId={} after {} ms in queue",
+          t.getId(), t.getStudentId(), t.getSectionId(), (System.nanoTime() - t.enqueuedAtNanos) / 1_000_000);
+      t.getResult().completeExceptionally(new ValidationException(message));
+    }
+  }
+
+  private static void unwrap(Runnable join) {
+    try {
+      join.run();
+    } catch (CompletionException e) {
+      throw rethrow(e.getCause());
+    }
+  }
+
+  private static RuntimeException rethrow(Throwable cause) {
+    if (cause instanceof RuntimeException re)
+      return re;
+    return new DatabaseException("Registration failed", cause);
+  }
+
+  public Metrics metrics() {
+    long done = completed.get() + failed.get();
+    double avgWaitMs = done == 0 ? 0 : totalWaitNanos.get() / 1_000_000.0 / done;
+    return new Metrics(queue.size(), submitted.get(), completed.get(), failed.get(), rejected.get(),
+        avgWaitMs, maxWaitNanos.get() / 1_000_000L);
+  }
+
+  private synchronized void ensureStarted() {
+    if (started)
+      return;
+
+    for (int i = 0; i < workers; i++) {
+      Thread t = new Thread(this::workLoop, "registration-worker-" + (i + 1));
+      t.setDaemon(true);
+      t.start();
+      threads.add(t);
+    }
+    started = true;
+    log.info("Started {} registration workers", workers);
+  }
+
+  @Override
+  public int getQueueDepth() {
+    return queue.size();
+  }
+
+  @Override
+  public long getSubmitted() {
+    return submitted.get();
+  }
+
+  @Override
+  public long getCompleted() {
+    return completed.get();
+  }
+
+  @Override
+  public long getFailed() {
+    return failed.get();
+  }
+
+  @Override
+  public long getRejected() {
+    return rejected.get();
+  }
+
+  @Override
+  public double getAvgWaitMs() {
+    return metrics().avgWaitMs();
+  }
+
+  @Override
+  public long getMaxWaitMs() {
+    return metrics().maxWaitMs();
+  }
+
+  // Tickets still queued are failed rather than left for callers to wait
+  // on forever.
+  private synchronized void stop() {
+    stopped = true;
+    threads.forEach(Thread::interrupt);
+    threads.clear();
+    started = false;
+
+    List<Ticket> abandoned = new ArrayList<>();
+    queue.drainTo(abandoned);
+    for (Ticket t : abandoned) {
+      rejected.incrementAndGet();
+      t.getResult().completeExceptionally(new ValidationException("Registration queue was shut down."));
+    }
+    log.info("Registration queue stopped, {} queued tickets failed: {}", abandoned.size(), metrics());
+  }
+
+  private void workLoop() {
+    while (!Thread.currentThread().isInterrupted()) {
+      Ticket t;
+      try {
+        t = queue.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+
+      awaitSlot();
+      if (stopped) {
+        rejected.incrementAndGet();
+        t.getResult().completeExceptionally(new ValidationException("Registration queue was shut down."));
+        return;
+      }
+
+      long waited = System.nanoTime() - t.enqueuedAtNanos;
+      totalWaitNanos.addAndGet(waited);
+      maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+      try {
+        registrationDao.register(t.getStudentId(), t.getSectionId());
+        completed.incrementAndGet();
+        NotificationInbox.targetsChanged();
+        t.getResult().complete(null);
+      } catch (Exception e) {
+        failed.incrementAndGet();
+        t.getResult().completeExceptionally(e);
+      }
+
+      if (queue.isEmpty()) {
+        log.info("Registration queue drained: {}", metrics());
+      }
+    }
+  }
+
+  // Spaces dispatches across all workers to the configured rate.
+  private void awaitSlot() {
+    if (intervalNanos == 0)
+      return;
+
+    long slot;
+    synchronized (rateLock) {
+      long now = System.nanoTime();
+      slot = Math.max(now, nextSlotNanos);
+      nextSlotNanos = slot + intervalNanos;
+    }
+
+    long delay = slot - System.nanoTime();
+    if (delay > 0) {
+      LockSupport.parkNanos(delay);
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package edu.univ.erp.service;
+
+// JMX view of this client's RegistrationQueue, registered as
+// edu.univ.erp:type=RegistrationQueue.
+public interface RegistrationQueueMXBean {
+
+  int getQueueDepth();
+
+  long getSubmitted();
+
+  long getCompleted();
+
+  long getFailed();
+
+  long getRejected();
+
+  double getAvgWaitMs();
+
+  long getMaxWaitMs();
+}
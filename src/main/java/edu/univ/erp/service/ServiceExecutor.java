@@ -0,0 +1,97 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.auth.SessionManager;
+import edu.univ.erp.data.DBPool;
+import edu.univ.erp.domain.User;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Runs service calls off the EDT. The session user and DB lane of the
+// submitting thread are captured at submit time and installed on the
+// worker for the duration of the call, so AccessControl and lane routing
+// behave exactly as they would have on the caller's thread.
+//
+// Platform threads, service.async.threads of them: each call holds a
+// pooled connection for most of its life, so more threads than
+// connections would only queue inside Hikari instead of here.
+public final class ServiceExecutor {
+
+  private static final Logger log = LoggerFactory.getLogger(ServiceExecutor.class);
+
+  private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+
+  private static volatile ThreadPoolExecutor pool = newPool(8);
+
+  private ServiceExecutor() {
+  }
+
+  public static synchronized void init(Properties props) {
+    int threads = Integer.parseInt(props.getProperty("service.async.threads", "8"));
+    ThreadPoolExecutor old = pool;
+    pool = newPool(threads);
+    old.shutdown();
+    log.info("Service executor: {} threads", threads);
+  }
+
+  // The future's cancel() also interrupts the worker if the call is running.
+  public static <T> CompletableFuture<T> supply(Callable<T> work) {
+    Call<T> call = new Call<>();
+    Callable<T> bound = withContext(work);
+    call.task = pool.submit(() -> {
+      if (call.isDone())
+        return;
+      try {
+        call.complete(bound.call());
+      } catch (Throwable t) {
+        call.completeExceptionally(t);
+      }
+    });
+    return call;
+  }
+
+  public static CompletableFuture<Void> run(Runnable work) {
+    return supply(() -> {
+      work.run();
+      return null;
+    });
+  }
+
+  public static <T> Callable<T> withContext(Callable<T> work) {
+    User user = SessionManager.getCurrentUser();
+    DBPool.Lane lane = DBPool.currentLane();
+    return () -> SessionManager.callAs(user, () -> DBPool.withLane(lane, work::call));
+  }
+
+  private static final class Call<T> extends CompletableFuture<T> {
+    volatile Future<?> task;
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean cancelled = super.cancel(mayInterruptIfRunning);
+      Future<?> t = task;
+      if (cancelled && t != null) {
+        t.cancel(true);
+      }
+      return cancelled;
+    }
+  }
+
+  private static ThreadPoolExecutor newPool(int threads) {
+    ThreadPoolExecutor p = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), r -> {
+          Thread t = new Thread(r, "service-" + THREAD_IDS.incrementAndGet());
+          t.setDaemon(true);
+          return t;
+        });
+    p.allowCoreThreadTimeOut(true);
+    return p;
+  }
+}
@@ -18,19 +18,19 @@ public class StudentService {
   private static final Logger log = LoggerFactory.getLogger(StudentService.class);
 
   private final AccessControl ac = new AccessControl();
-  private final CourseDao courseDao = new CourseDao();
   private final SectionDao sectionDao = new SectionDao();
   private final EnrollmentDao enrollmentDao = new EnrollmentDao();
   private final GradeDao gradeDao = new GradeDao();
+  private final RegistrationDao registrationDao = new RegistrationDao();
 
   public List<Course> browseCatalog() {
     ac.requireRole(Role.STUDENT);
     log.debug("Student browsing course catalog");
-    return courseDao.findAll();
+    return CourseCache.all();
   }
 
 
-  public List<String[]> listSections(int courseId) {
+  public List<Section> listSections(int courseId) {
     ac.requireRole(Role.STUDENT);
     log.info("Listing sections for courseId={}", courseId);
 
@@ -41,7 +41,7 @@ public class StudentService {
 
     // ensure course exists (fail fast with clear message)
     try {
-      Course c = courseDao.findById(courseId);
+      Course c = CourseCache.byId(courseId);
       if (c == null) {
         log.warn("Course not found for courseId={}", courseId);
         throw new NotFoundException("Course not found: " + courseId);
@@ -56,6 +56,8 @@ public class StudentService {
     String sql = """
         SELECT 
             s.section_id,
+            s.course_id,
+            s.instructor_id,
             i.email AS instructor_name,
             s.day_time,
             s.room,
@@ -67,24 +69,30 @@ public class StudentService {
         WHERE s.course_id = ?
     """;
 
-    List<String[]> rows = new ArrayList<>();
+    List<Section> rows = new ArrayList<>();
+    Map<Integer, SeatCount> seats = SeatAvailability.forCourse(courseId);
 
-    try (Connection con = DBPool.erp().getConnection();
+    try (Connection con = DBPool.erpRead().getConnection();
          PreparedStatement ps = con.prepareStatement(sql)) {
 
         ps.setInt(1, courseId);
         ResultSet rs = ps.executeQuery();
 
         while (rs.next()) {
-            rows.add(new String[] {
-                rs.getString("section_id"),
-                rs.getString("instructor_name"),
+            Section s = new Section(
+                rs.getInt("section_id"),
+                rs.getInt("course_id"),
+                rs.getObject("instructor_id", Integer.class),
                 rs.getString("day_time"),
                 rs.getString("room"),
-                rs.getString("capacity"),
+                rs.getInt("capacity"),
                 rs.getString("semester"),
-                rs.getString("year")
-            });
+                rs.getInt("year"));
+            s.setInstructorEmail(rs.getString("instructor_name"));
+
+            SeatCount sc = seats.get(s.getSectionId());
+            s.setEnrolled(sc == null ? 0 : sc.enrolled());
+            rows.add(s);
         }
 
         log.info("Found {} sections for courseId={}", rows.size(), courseId);
@@ -99,6 +107,33 @@ public class StudentService {
 
 
   public void register(int sectionId) {
+    int studentId = prepareRegistration(sectionId);
+
+    if (new SettingsDao().isRushMode()) {
+      // Rush mode: even synchronous callers go through the admission queue
+      RegistrationQueue queue = RegistrationQueue.get();
+      queue.await(queue.submit(studentId, sectionId));
+    } else {
+      registrationDao.register(studentId, sectionId);
+    }
+
+    log.info("Registration successful studentId={}, sectionId={}", studentId, sectionId);
+    NotificationInbox.targetsChanged();
+}
+
+
+  public RegistrationQueue.Ticket submitRegistration(int sectionId) {
+    int studentId = prepareRegistration(sectionId);
+    return RegistrationQueue.get().submit(studentId, sectionId);
+  }
+
+
+  public boolean isRushMode() {
+    return new SettingsDao().isRushMode();
+  }
+
+
+  private int prepareRegistration(int sectionId) {
     ac.requireRole(Role.STUDENT);
     ac.requireMaintenanceOff();
 
@@ -122,145 +157,17 @@ public class StudentService {
     }
 
     log.info("Student userId={} attempting to register for sectionId={}", stu.getUserId(), sectionId);
-
-   
-    int studentId = 0;
-    String sqlGetStudentId = "SELECT student_id FROM students WHERE roll_no = ?";
-
-    try (Connection con0 = DBPool.erp().getConnection();
-         PreparedStatement ps0 = con0.prepareStatement(sqlGetStudentId)) {
-
-        ps0.setString(1, stu.getRollNo());
-        ResultSet rs0 = ps0.executeQuery();
-
-        if (rs0.next()) {
-            studentId = rs0.getInt("student_id");
-        } else {
-            throw new ValidationException("Student record not found for roll no: " + stu.getRollNo());
-        }
-
-    } catch (SQLException ex) {
-        throw new DatabaseException("Failed to lookup student_id", ex);
-    }
-
-    
-    Section sec;
-    try {
-        sec = sectionDao.findById(sectionId);
-        if (sec == null) {
-            throw new NotFoundException("Section not found: " + sectionId);
-        }
-    } catch (Exception ex) {
-        throw new DatabaseException("Failed to lookup section", ex);
-    }
-
-    if (sec.getCapacity() < 0) {
-        throw new ValidationException("Section capacity is invalid.");
-    }
-
-    
-    try (Connection con = DBPool.erp().getConnection()) {
-        con.setAutoCommit(false);
-
-        
-        String dupCheck = """
-            SELECT COUNT(*) FROM enrollments
-            WHERE student_id=? AND section_id=? AND status='ENROLLED'
-        """;
-
-        try (PreparedStatement ps = con.prepareStatement(dupCheck)) {
-            ps.setInt(1, studentId);
-            ps.setInt(2, sectionId);
-            ResultSet rs = ps.executeQuery();
-            rs.next();
-
-            if (rs.getInt(1) > 0) {
-                con.rollback();
-                throw new ValidationException("Already enrolled in this section.");
-            }
-        }
-
-       
-        Course course;
-        try {
-            course = courseDao.findById(sec.getCourseId());
-            if (course == null) {
-                con.rollback();
-                throw new NotFoundException("Course for section not found.");
-            }
-        } catch (Exception ex) {
-            con.rollback();
-            throw new DatabaseException("Failed to lookup course for section", ex);
-        }
-
-       
-        String multiCheck = """
-            SELECT COUNT(*)
-            FROM enrollments e
-            JOIN sections s ON s.section_id = e.section_id
-            WHERE e.student_id = ?
-              AND s.course_id = ?
-              AND e.status = 'ENROLLED'
-        """;
-
-        try (PreparedStatement ps = con.prepareStatement(multiCheck)) {
-            ps.setInt(1, studentId);
-            ps.setInt(2, sec.getCourseId());
-
-            ResultSet rs = ps.executeQuery();
-            rs.next();
-
-            if (rs.getInt(1) > 0) {
-                con.rollback();
-                throw new ValidationException("You are already enrolled in another section of this course.");
-            }
-        }
-
-        
-        String countSql = "SELECT COUNT(*) FROM enrollments WHERE section_id=? AND status='ENROLLED'";
-        int count;
-
-        try (PreparedStatement ps = con.prepareStatement(countSql)) {
-            ps.setInt(1, sectionId);
-            ResultSet rs = ps.executeQuery();
-            rs.next();
-            count = rs.getInt(1);
-        }
-
-        if (count >= sec.getCapacity()) {
-            con.rollback();
-            throw new ValidationException("Section is full.");
-        }
-
-       
-        String insert = """
-            INSERT INTO enrollments (student_id, section_id, status, registered_on)
-            VALUES (?, ?, 'ENROLLED', NOW())
-        """;
-
-        try (PreparedStatement ps = con.prepareStatement(insert)) {
-            ps.setInt(1, studentId);
-            ps.setInt(2, sectionId);
-            ps.executeUpdate();
-        }
-
-        con.commit();
-        log.info("Registration successful studentId={}, sectionId={}", studentId, sectionId);
-
-    } catch (SQLException e) {
-        throw new DatabaseException("Registration failed", e);
-    }
+    return getRealStudentId();
 }
 
 
 
-
-
-
-
-
-
 public void drop(int enrollmentId) {
+    // ownership check, drop and waitlist promotion commit together
+    UnitOfWork.inTransaction(() -> dropInTx(enrollmentId));
+}
+
+private void dropInTx(int enrollmentId) {
   ac.requireRole(Role.STUDENT);
   ac.requireMaintenanceOff();
 
@@ -297,20 +204,10 @@ public void drop(int enrollmentId) {
   }
 
 
-  String sql = "UPDATE enrollments SET status='DROPPED', dropped_on=NOW() WHERE enrollment_id=?";
-
-  try (Connection con = DBPool.erp().getConnection();
-       PreparedStatement ps = con.prepareStatement(sql)) {
-
-      ps.setInt(1, enrollmentId);
-      ps.executeUpdate();
-
-      log.info("Drop successful enrollmentId={} studentId={}", enrollmentId, studentId);
-
-  } catch (SQLException ex) {
-      log.error("Failed to drop enrollment {}", enrollmentId, ex);
-      throw new DatabaseException("Failed to drop enrollment", ex);
-  }
+  // Dropping and promoting the head of the waitlist commit together
+  Integer promoted = registrationDao.drop(studentId, enrollmentId, e.getSectionId());
+  log.info("Drop successful enrollmentId={} studentId={} promotedStudentId={}", enrollmentId, studentId, promoted);
+  UnitOfWork.afterCommit(NotificationInbox::targetsChanged);
 }
 
 
@@ -328,26 +225,7 @@ public void drop(int enrollmentId) {
 
     log.debug("Fetching enrollments for student userId={}, rollNo={}", stu.getUserId(), stu.getRollNo());
 
-    int studentId = 0;
-
-    String sqlId = "SELECT student_id FROM students WHERE roll_no = ?";
-    try (Connection con = DBPool.erp().getConnection();
-         PreparedStatement ps = con.prepareStatement(sqlId)) {
-
-        ps.setString(1, stu.getRollNo());
-        ResultSet rs = ps.executeQuery();
-        if (rs.next()) studentId = rs.getInt(1);
-        else {
-          log.warn("Student record missing when fetching enrollments for rollNo={}", stu.getRollNo());
-          throw new NotFoundException("Student record not found for roll " + stu.getRollNo());
-        }
-
-        log.debug("Resolved studentId={} for myEnrollments()", studentId);
-
-    } catch (SQLException e) {
-        log.error("Failed to resolve studentId for myEnrollments()", e);
-        throw new DatabaseException("Failed to get student_id", e);
-    }
+    int studentId = getRealStudentId();
 
     String sql = """
     SELECT e.enrollment_id,
@@ -367,7 +245,7 @@ public void drop(int enrollmentId) {
 
     List<String[]> rows = new ArrayList<>();
 
-    try (Connection con = DBPool.erp().getConnection();
+    try (Connection con = DBPool.erpRead().getConnection();
          PreparedStatement ps = con.prepareStatement(sql)) {
 
         ps.setInt(1, studentId);
@@ -398,6 +276,11 @@ public void drop(int enrollmentId) {
 
 
   public List<edu.univ.erp.domain.grades.GradeComponent> viewGrades(int enrollmentId) {
+    // ownership lookup and grade load share one connection
+    return UnitOfWork.withConnection(() -> viewGradesShared(enrollmentId));
+  }
+
+  private List<edu.univ.erp.domain.grades.GradeComponent> viewGradesShared(int enrollmentId) {
     ac.requireRole(Role.STUDENT);
     Student s = (Student) SessionManager.getCurrentUser();
     if (s == null) {
@@ -462,7 +345,7 @@ public void drop(int enrollmentId) {
 
     List<Section> list = new ArrayList<>();
 
-    try (var con = DBPool.erp().getConnection();
+    try (var con = DBPool.erpRead().getConnection();
          var ps = con.prepareStatement(sql)) {
 
         int realStudentId = getRealStudentId();
@@ -524,7 +407,7 @@ public void drop(int enrollmentId) {
             ORDER BY s.year DESC, s.semester
         """;
     List<TranscriptRow> list = new ArrayList<>();
-    try (var con = DBPool.erp().getConnection();
+    try (var con = DBPool.erpRead().getConnection();
         var ps = con.prepareStatement(sql)) {
       ps.setInt(1, getRealStudentId()); 
       var rs = ps.executeQuery();
@@ -549,34 +432,19 @@ public void drop(int enrollmentId) {
 
 
 
-  private int getRealStudentId() {
+  int getRealStudentId() {
     Student stu = (Student) SessionManager.getCurrentUser();
     if (stu == null) {
       log.warn("No current student session in getRealStudentId()");
       throw new AccessDeniedException("No active student session.");
     }
 
-    log.debug("Resolving real studentId for rollNo={}", stu.getRollNo());
-
-    String sql = "SELECT student_id FROM students WHERE roll_no = ?";
-    try (Connection con = DBPool.erp().getConnection();
-         PreparedStatement ps = con.prepareStatement(sql)) {
-
-        ps.setString(1, stu.getRollNo());
-        ResultSet rs = ps.executeQuery();
-        if (rs.next()) {
-            int id = rs.getInt(1);
-            log.debug("Resolved realStudentId={} for rollNo={}", id, stu.getRollNo());
-            return id;
-        }
-
-        log.warn("Student record missing for rollNo={}", stu.getRollNo());
-        throw new NotFoundException("Student record missing for roll " + stu.getRollNo());
-
-    } catch (SQLException e) {
-        log.error("Failed student lookup for rollNo={}", stu.getRollNo(), e);
-        throw new DatabaseException("Lookup failed", e);
+    // student_id is resolved once at login and carried on the session user
+    if (stu.getStudentId() <= 0) {
+      log.warn("Student record missing for rollNo={}", stu.getRollNo());
+      throw new NotFoundException("Student record missing for roll " + stu.getRollNo());
     }
+    return stu.getStudentId();
   }
 
 
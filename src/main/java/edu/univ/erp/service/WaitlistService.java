@@ -0,0 +1,61 @@
+package edu.univ.erp.service;
+
+import edu.univ.erp.auth.SessionManager;
+import edu.univ.erp.data.SettingsDao;
+import edu.univ.erp.data.WaitlistDao;
+import edu.univ.erp.domain.*;
+import edu.univ.erp.exception.*;
+import java.time.LocalDate;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class WaitlistService {
+
+  private static final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+
+  private final AccessControl ac = new AccessControl();
+  private final WaitlistDao waitlistDao = new WaitlistDao();
+  private final StudentService studentService = new StudentService();
+
+  public int join(int sectionId) {
+    ac.requireRole(Role.STUDENT);
+    ac.requireMaintenanceOff();
+
+    SettingsDao dao = new SettingsDao();
+    LocalDate addDeadline = dao.getAddDeadline();
+    if (addDeadline != null && LocalDate.now().isAfter(addDeadline)) {
+      throw new ValidationException("Registration closed on " + dao.formatDMY(addDeadline));
+    }
+
+    if (sectionId <= 0) {
+      log.warn("Invalid sectionId passed to join: {}", sectionId);
+      throw new ValidationException("Invalid section id.");
+    }
+
+    int studentId = studentService.getRealStudentId();
+    log.info("Student studentId={} joining waitlist for sectionId={}", studentId, sectionId);
+    return waitlistDao.join(studentId, sectionId);
+  }
+
+  public void leave(int sectionId) {
+    ac.requireRole(Role.STUDENT);
+    ac.requireMaintenanceOff();
+
+    int studentId = studentService.getRealStudentId();
+    log.info("Student studentId={} leaving waitlist for sectionId={}", studentId, sectionId);
+    waitlistDao.leave(studentId, sectionId);
+  }
+
+  public int myPosition(int sectionId) {
+    ac.requireRole(Role.STUDENT);
+    return waitlistDao.position(studentService.getRealStudentId(), sectionId);
+  }
+
+  public List<WaitlistEntry> myWaitlist() {
+    ac.requireRole(Role.STUDENT);
+    Student stu = (Student) SessionManager.getCurrentUser();
+    log.debug("Fetching waitlist for userId={}", stu.getUserId());
+    return waitlistDao.findByStudent(studentService.getRealStudentId());
+  }
+}
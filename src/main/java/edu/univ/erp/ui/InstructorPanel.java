@@ -11,15 +11,20 @@ import edu.univ.erp.data.SettingsDao;
 import edu.univ.erp.ui.components.MaintenanceBanner;
 import edu.univ.erp.ui.components.DeadlineRefresher;
 import edu.univ.erp.ui.components.MaintenanceRefresher;
+import edu.univ.erp.ui.components.NotificationRefresher;
 import edu.univ.erp.ui.components.NotificationBanner;
+import edu.univ.erp.ui.components.UiTask;
 import edu.univ.erp.domain.Notification;
 import edu.univ.erp.ui.NotificationDialog;
 import edu.univ.erp.service.NotificationListener;
 import edu.univ.erp.ui.UIError;
+import edu.univ.erp.util.EventBus;
 
 import javax.swing.*;
 import net.miginfocom.swing.MigLayout;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
 import java.util.*;
 
 public class InstructorPanel extends JPanel {
@@ -36,12 +41,25 @@ public class InstructorPanel extends JPanel {
     private JButton addGradeButton;
     private JButton computeFinalButton;
     private JButton exportGradesButton;
+    private JButton exportAllButton;
+    private JButton computeSectionButton;
     private JButton importGradesButton;
     private JButton statsButton;
     private JButton changePwdButton;
     private JButton notifyButton;
     private JButton showNotifButton;
 
+    private UiTask<List<String[]>> sectionsTask;
+    private UiTask<GradeImportReport> importTask;
+    private UiTask<ClassStats> statsTask;
+    private UiTask<Long> exportTask;
+    private UiTask<Boolean> lockTask;
+    private UiTask<List<Notification>> notifCheckTask;
+
+    private MaintenanceRefresher maintenanceRefresher;
+    private NotificationRefresher notificationRefresher;
+    private EventBus.Subscription notificationToast;
+
     public InstructorPanel() {
         setLayout(new MigLayout("fill, insets 15", "[grow][grow]", "[grow]"));
 
@@ -60,6 +78,8 @@ public class InstructorPanel extends JPanel {
         addGradeButton = new JButton("Add Grade Component");
         computeFinalButton = new JButton("Compute Final Grade");
         exportGradesButton = new JButton("Export Grades CSV");
+        exportAllButton = new JButton("Export All Sections (zip)");
+        computeSectionButton = new JButton("Compute Section Grades");
         importGradesButton = new JButton("Import Grades CSV");
         statsButton = new JButton("Class Stats");
         notifyButton = new JButton("Send Notification");
@@ -75,7 +95,9 @@ public class InstructorPanel extends JPanel {
         right.add(statsButton, "growx");
         right.add(notifyButton, "growx");
         right.add(showNotifButton, "growx");
-        right.add(changePwdButton, "growx");
+        right.add(changePwdButton, "growx, wrap");
+        right.add(exportAllButton, "growx");
+        right.add(computeSectionButton, "growx");
 
         add(left, "grow");
         add(right, "grow");
@@ -83,11 +105,13 @@ public class InstructorPanel extends JPanel {
         add(notifBanner, "dock north");
 
         refreshLockState();
-        new MaintenanceRefresher(() -> SwingUtilities.invokeLater(() -> {
-            boolean on = new SettingsDao().isMaintenanceMode();
-            banner.showBanner(on);
-            refreshLockState();
-        }));
+
+        sectionsTask = UiTask.reading(this, loadSectionsButton);
+        importTask = UiTask.writing(this, importGradesButton);
+        statsTask = UiTask.reading(this, statsButton);
+        exportTask = UiTask.writing(this, exportGradesButton, exportAllButton);
+        lockTask = UiTask.background(this);
+        notifCheckTask = UiTask.background(this);
 
         // actionlisteners
         loadSectionsButton.addActionListener(e -> loadSections());
@@ -95,21 +119,45 @@ public class InstructorPanel extends JPanel {
         addGradeButton.addActionListener(e -> addGradeComponentDialog());
         computeFinalButton.addActionListener(e -> computeFinalGradeDialog());
         exportGradesButton.addActionListener(e -> exportGradesCSV());
+        exportAllButton.addActionListener(e -> exportAllGradesZip());
+        computeSectionButton.addActionListener(e -> computeSectionGradesDialog());
         importGradesButton.addActionListener(e -> importGradesCSV());
         statsButton.addActionListener(e -> showStats());
         notifyButton.addActionListener(e ->
                 new NotificationDialog(SwingUtilities.getWindowAncestor(this)).setVisible(true));
         showNotifButton.addActionListener(e -> showNotifications());
         changePwdButton.addActionListener(e -> showChangePasswordDialog());
+    }
 
-        NotificationListener.register(() -> notifBanner.showMessage("New notification received!"));
+    // Change subscriptions live while the panel is showing. Their callbacks
+    // hold the panel, so they are cancelled when it goes away.
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        maintenanceRefresher = new MaintenanceRefresher(() -> SwingUtilities.invokeLater(() ->
+                lockTask.start(this::isLocked, on -> {
+                    banner.showBanner(on);
+                    refreshLockState(on);
+                })));
+        notificationToast = NotificationListener.register(this,
+                p -> p.notifBanner.showMessage("New notification received!"));
+        // the toast is raised through NotificationListener; a failed check
+        // is retried by the next change or by opening the dialog
+        notificationRefresher = new NotificationRefresher(() -> SwingUtilities.invokeLater(() ->
+                notifCheckTask.start(notifSvc::getMyNotifications, list -> { })));
     }
 
+    @Override
+    public void removeNotify() {
+        maintenanceRefresher.stop();
+        notificationRefresher.stop();
+        notificationToast.cancel();
+        super.removeNotify();
+    }
 
- private void loadSections() {
-    try {
-        List<String[]> rows = svc.mySections();   
 
+ private void loadSections() {
+    sectionsTask.start(svc::mySections, rows -> {
         if (rows.size() <= 1) {
             UIError.info("You have no assigned sections.");
             return;
@@ -122,10 +170,7 @@ public class InstructorPanel extends JPanel {
         tableSections.setModel(new javax.swing.table.DefaultTableModel(data, cols));
 
         AutoTableResize.autoResize(tableSections);
-
-    } catch (Exception ex) {
-        UIError.show(ex);
-    }
+    });
 }
 
     private String promptNonEmpty(String title, String message) {
@@ -322,12 +367,37 @@ public class InstructorPanel extends JPanel {
         }
     }
 
-    private void exportGradesCSV() {
+    private void computeSectionGradesDialog() {
+        if (isLocked()) {
+            UIError.info("Maintenance Mode: cannot compute final grades.");
+            return;
+        }
+
         try {
             Integer sectionId = getSelectedSectionId();
             if (sectionId == null) return;
 
-            List<String[]> rows = svc.exportSectionGrades(sectionId);
+            int ok = JOptionPane.showConfirmDialog(this,
+                    "Compute and overwrite final grades for every active student in this section?",
+                    "Finalize Section", JOptionPane.OK_CANCEL_OPTION);
+            if (ok != JOptionPane.OK_OPTION) return;
+
+            Map<String, Integer> summary = svc.computeFinalGradesForSection(sectionId);
+
+            StringBuilder msg = new StringBuilder("Final grades computed:\n");
+            summary.forEach((letter, n) -> msg.append(String.format("%n  %-3s %d", letter, n)));
+            UIError.info(msg.toString());
+
+            loadStudents();
+        } catch (Exception ex) {
+            UIError.show(ex);
+        }
+    }
+
+    private void exportGradesCSV() {
+        try {
+            Integer sectionId = getSelectedSectionId();
+            if (sectionId == null) return;
 
             JFileChooser fc = new JFileChooser();
             fc.setSelectedFile(new File("grades.csv"));
@@ -341,8 +411,46 @@ public class InstructorPanel extends JPanel {
                 return;
             }
 
-            edu.univ.erp.util.export.CSVExporter.writeCSV(file.getAbsolutePath(), rows);
-            UIError.info("CSV Exported.");
+            boolean gzip = file.getName().toLowerCase().endsWith(".gz");
+            exportTask.start(() -> {
+                try (OutputStream out = new FileOutputStream(file)) {
+                    return svc.exportSectionGrades(sectionId, out, gzip);
+                }
+            }, rows -> UIError.info("CSV Exported: " + rows + " rows."));
+
+        } catch (Exception ex) {
+            UIError.show(ex);
+        }
+    }
+
+    private void exportAllGradesZip() {
+        try {
+            JFileChooser fc = new JFileChooser();
+            fc.setSelectedFile(new File("grades.zip"));
+
+            if (fc.showSaveDialog(this) != JFileChooser.APPROVE_OPTION)
+                return;
+
+            File file = fc.getSelectedFile();
+            if (file == null) {
+                UIError.info("Invalid file selected.");
+                return;
+            }
+
+            exportTask.start(() -> {
+                List<Integer> sectionIds = new ArrayList<>();
+                for (String[] r : svc.mySectionsRaw()) {
+                    sectionIds.add(Integer.parseInt(r[0]));
+                }
+                if (sectionIds.isEmpty())
+                    return 0L;
+                try (OutputStream out = new FileOutputStream(file)) {
+                    svc.exportSectionsZip(sectionIds, out);
+                }
+                return (long) sectionIds.size();
+            }, sections -> UIError.info(sections == 0
+                    ? "You have no assigned sections."
+                    : "Exported " + sections + " sections."));
 
         } catch (Exception ex) {
             UIError.show(ex);
@@ -369,9 +477,24 @@ public class InstructorPanel extends JPanel {
                 return;
             }
 
-            svc.importGradesFromCSV(sectionId, file.toPath());
-            UIError.info("CSV Imported.");
-            loadStudents();
+            importTask.start(() -> svc.importGradesFromCSV(sectionId, file.toPath()), report -> {
+                StringBuilder msg = new StringBuilder(report.isRejected()
+                    ? String.format("CSV not imported: %d errors in %d rows. Existing grades were kept.",
+                        report.getErrors().size(), report.getRowsRead())
+                    : String.format("CSV Imported: %d of %d rows, %d grades (%.0f rows/s).",
+                        report.getRowsImported(), report.getRowsRead(),
+                        report.getGradesInserted(), report.getRowsPerSecond()));
+
+                if (report.hasErrors()) {
+                    msg.append("\n\nErrors:");
+                    report.getErrors().stream().limit(20).forEach(err ->
+                            msg.append("\n  line ").append(err.line()).append(": ").append(err.message()));
+                    if (report.getErrors().size() > 20)
+                        msg.append("\n  ... ").append(report.getErrors().size() - 20).append(" more");
+                }
+                UIError.info(msg.toString());
+                loadStudents();
+            });
 
         } catch (Exception ex) {
             UIError.show(ex);
@@ -379,31 +502,41 @@ public class InstructorPanel extends JPanel {
     }
 
  private void showStats() {
-    try {
-        Integer sectionId = getSelectedSectionId();
-        if (sectionId == null) return;
+    Integer sectionId = getSelectedSectionId();
+    if (sectionId == null) return;
 
-        int sectionIdInt = sectionId.intValue();
+    int sectionIdInt = sectionId.intValue();
 
-        var stats = svc.classStats(sectionIdInt);
+    statsTask.start(() -> svc.classStats(sectionIdInt), stats -> {
+        StringBuilder hist = new StringBuilder();
+        stats.getLetterHistogram().forEach((letter, n) ->
+                hist.append(String.format("  %-3s %d%n", letter, n)));
 
         String msg = String.format("""
-                Class Statistics:
+                Class Statistics (%d students):
 
                 Average: %.2f
                 Minimum: %.2f
                 Maximum: %.2f
-                """,
-                stats.get("average"),
-                stats.get("min"),
-                stats.get("max"));
+                Median: %.2f
+                Std Dev: %.2f
+                Q1 / Q3: %.2f / %.2f
+
+                Grade Distribution:
+                %s""",
+                stats.getCount(),
+                stats.getAverage(),
+                stats.getMin(),
+                stats.getMax(),
+                stats.getMedian(),
+                stats.getStdDev(),
+                stats.getQ1(),
+                stats.getQ3(),
+                hist);
 
         JOptionPane.showMessageDialog(this, msg, "Class Stats",
                 JOptionPane.INFORMATION_MESSAGE);
-
-    } catch (Exception ex) {
-        UIError.show(ex);
-    }
+    });
 }
     private void showChangePasswordDialog() {
         try {
@@ -457,23 +590,49 @@ public class InstructorPanel extends JPanel {
                 return;
             }
 
-            StringBuilder sb = new StringBuilder();
-            for (Notification n : list) {
-                sb.append("[").append(n.getCreatedAt()).append("] ")
-                        .append(n.getTitle()).append("\n")
-                        .append(n.getMessage()).append("\n\n");
-            }
+            while (true) {
+                int unread = notifSvc.unreadCount();
+                StringBuilder sb = new StringBuilder();
+                for (Notification n : list) {
+                    if (notifSvc.isUnread(n))
+                        sb.append("* ");
+                    sb.append("[").append(n.getCreatedAt()).append("] ")
+                            .append(n.getTitle()).append("\n")
+                            .append(n.getMessage()).append("\n\n");
+                }
 
-            JOptionPane.showMessageDialog(this, sb.toString(),
-                    "Notifications", JOptionPane.INFORMATION_MESSAGE);
+                JTextArea area = new JTextArea(sb.toString(), 20, 60);
+                area.setEditable(false);
+                area.setLineWrap(true);
+                area.setWrapStyleWord(true);
+
+                boolean older = notifSvc.hasOlderNotifications();
+                Object[] options = older ? new Object[] { "Close", "Mark All Read", "Load Older" }
+                        : new Object[] { "Close", "Mark All Read" };
+                String title = unread == 0 ? "Notifications"
+                        : "Notifications (" + (unread >= NotificationService.UNREAD_CAP ? unread + "+" : unread) + " unread)";
+                int choice = JOptionPane.showOptionDialog(this, new JScrollPane(area), title,
+                        JOptionPane.DEFAULT_OPTION, JOptionPane.INFORMATION_MESSAGE, null, options, options[0]);
+
+                notifSvc.markRead(list);
+                if (choice == 1) {
+                    notifSvc.markAllRead();
+                    break;
+                }
+                if (!older || choice != 2)
+                    break;
+                list = notifSvc.loadOlderNotifications();
+            }
 
         } catch (Exception ex) {
             UIError.show(ex);
         }
     }
      private void refreshLockState() {
-        boolean readonly = new SettingsDao().isMaintenanceMode();
+        refreshLockState(isLocked());
+    }
 
+    private void refreshLockState(boolean readonly) {
         loadSectionsButton.setEnabled(true);
         loadStudentsButton.setEnabled(true);
         statsButton.setEnabled(true);
@@ -481,8 +640,10 @@ public class InstructorPanel extends JPanel {
 
         addGradeButton.setEnabled(!readonly);
         computeFinalButton.setEnabled(!readonly);
+        computeSectionButton.setEnabled(!readonly);
         importGradesButton.setEnabled(!readonly);
         exportGradesButton.setEnabled(!readonly);
+        exportAllButton.setEnabled(!readonly);
         notifyButton.setEnabled(!readonly);
         changePwdButton.setEnabled(!readonly);
     }
@@ -1,7 +1,16 @@
 package edu.univ.erp.ui;
 
 import com.formdev.flatlaf.intellijthemes.FlatOneDarkIJTheme;
+import edu.univ.erp.data.ChangeFeed;
+import edu.univ.erp.data.CourseCache;
 import edu.univ.erp.data.DBPool;
+import edu.univ.erp.data.QueryPlanChecker;
+import edu.univ.erp.data.SchemaMigrator;
+import edu.univ.erp.data.SeatAvailability;
+import edu.univ.erp.data.SettingsCache;
+import edu.univ.erp.service.NotificationService;
+import edu.univ.erp.service.RegistrationQueue;
+import edu.univ.erp.service.ServiceExecutor;
 import javax.swing.*;
 import java.io.FileInputStream;
 import java.util.Properties;
@@ -28,6 +37,17 @@ public class Main {
 
       log.debug("Initializing DBPool...");
       DBPool.init(props);
+      SchemaMigrator.migrateAll(props);
+      if (Boolean.parseBoolean(props.getProperty("db.explain.check", "false"))) {
+        QueryPlanChecker.check();
+      }
+      SettingsCache.init(props);
+      CourseCache.init(props);
+      SeatAvailability.init(props);
+      RegistrationQueue.init(props);
+      NotificationService.init();
+      ChangeFeed.init(props);
+      ServiceExecutor.init(props);
 
       log.info("Launching LoginFrame...");
       SwingUtilities.invokeLater(() -> new LoginFrame().setVisible(true));
@@ -4,12 +4,17 @@ import edu.univ.erp.domain.*;
 import edu.univ.erp.util.AutoTableResize;
 import edu.univ.erp.domain.grades.GradeComponent;
 import edu.univ.erp.service.StudentService;
+import edu.univ.erp.service.WaitlistService;
+import edu.univ.erp.service.RegistrationQueue;
+import edu.univ.erp.exception.SectionFullException;
 import edu.univ.erp.data.SettingsDao;
 import edu.univ.erp.ui.*;
 import edu.univ.erp.ui.timetable.TimetableFrame;
 import edu.univ.erp.ui.components.MaintenanceBanner;
 import edu.univ.erp.ui.components.MaintenanceRefresher;
 import edu.univ.erp.ui.components.DeadlineRefresher;
+import edu.univ.erp.ui.components.NotificationRefresher;
+import edu.univ.erp.ui.components.UiTask;
 import edu.univ.erp.auth.AuthService;
 import edu.univ.erp.auth.SessionManager;
 import javax.swing.*;
@@ -17,6 +22,7 @@ import net.miginfocom.swing.MigLayout;
 import edu.univ.erp.ui.components.NotificationBanner;
 import edu.univ.erp.service.NotificationListener;
 import edu.univ.erp.service.NotificationService;
+import edu.univ.erp.util.EventBus;
 
 import com.lowagie.text.Document;
 import com.lowagie.text.DocumentException;
@@ -41,6 +47,7 @@ public class StudentPanel extends JPanel {
   private static final Logger log = LoggerFactory.getLogger(StudentPanel.class);
 
   private final StudentService svc = new StudentService();
+  private final WaitlistService waitlistSvc = new WaitlistService();
   private final MaintenanceBanner banner = new MaintenanceBanner();
   private final NotificationBanner toast = new NotificationBanner();
 
@@ -57,6 +64,16 @@ public class StudentPanel extends JPanel {
   private JButton transcriptButton;
   private JButton changePwdButton;
   private JButton showNotifButton;
+  private JButton waitlistButton;
+
+  private UiTask<List<TranscriptRow>> transcriptTask;
+  private UiTask<LockState> lockTask;
+  private UiTask<List<Notification>> notifCheckTask;
+
+  private MaintenanceRefresher maintenanceRefresher;
+  private NotificationRefresher notificationRefresher;
+  private DeadlineRefresher deadlineRefresher;
+  private EventBus.Subscription notificationToast;
 
   public StudentPanel() {
     log.info("Initializing StudentPanel UI");
@@ -92,6 +109,7 @@ public class StudentPanel extends JPanel {
     transcriptButton = new JButton("Download Transcript");
     showNotifButton = new JButton("Show Notifications");
     changePwdButton = new JButton("Change Password");
+    waitlistButton = new JButton("My Waitlist");
 
     right.add(new JLabel("My Enrollments:"), "wrap");
     right.add(new JScrollPane(tableEnrollments), "grow, wrap");
@@ -101,7 +119,8 @@ public class StudentPanel extends JPanel {
     right.add(viewTimetableButton, "growx");
     right.add(transcriptButton, "growx");
     right.add(showNotifButton, "growx, wrap");
-    right.add(changePwdButton, "growx");
+    right.add(changePwdButton, "growx, split 2");
+    right.add(waitlistButton, "growx");
 
     add(left, "grow");
     add(right, "grow");
@@ -110,13 +129,6 @@ public class StudentPanel extends JPanel {
     add(toast, "dock north");
 
     refreshLockState();
-    new MaintenanceRefresher(() -> SwingUtilities.invokeLater(() -> {
-      boolean on = new SettingsDao().isMaintenanceMode();
-      banner.showBanner(on);    
-      refreshLockState();        
-      refreshDeadlineState();  
-  }));
-  
 
     // listeners
     viewCatalogButton.addActionListener(e -> loadCatalog());
@@ -128,24 +140,61 @@ public class StudentPanel extends JPanel {
     transcriptButton.addActionListener(e -> downloadTranscript());
     showNotifButton.addActionListener(e -> showNotifications());
     changePwdButton.addActionListener(e -> showChangePasswordDialog());
+    waitlistButton.addActionListener(e -> showWaitlist());
 
-    viewEnrollments();
+    transcriptTask = UiTask.reading(this, transcriptButton);
+    lockTask = UiTask.background(this);
+    notifCheckTask = UiTask.background(this);
 
-    NotificationListener.register(() ->
-      toast.showMessage("New notification received!"));
-  
+    viewEnrollments();
 
   refreshDeadlineState();
+  }
 
-new DeadlineRefresher(() -> SwingUtilities.invokeLater(() -> {
-    refreshDeadlineState();
-}));
- 
+  // Change subscriptions live while the panel is showing. Their callbacks
+  // hold the panel, so they are cancelled when it goes away.
+  @Override
+  public void addNotify() {
+    super.addNotify();
+    maintenanceRefresher = new MaintenanceRefresher(() -> SwingUtilities.invokeLater(this::reloadLockState));
+    notificationToast = NotificationListener.register(this, p ->
+      p.toast.showMessage("New notification received!"));
+    notificationRefresher = new NotificationRefresher(() -> SwingUtilities.invokeLater(this::checkNotifications));
+    deadlineRefresher = new DeadlineRefresher(() -> SwingUtilities.invokeLater(this::reloadLockState));
+  }
+
+  // The settings the buttons depend on, read in one go off the EDT.
+  private record LockState(boolean readonly, LocalDate addDeadline, LocalDate dropDeadline) {
+    static LockState read() {
+      SettingsDao dao = new SettingsDao();
+      return new LockState(dao.isMaintenanceMode(), dao.getAddDeadline(), dao.getDropDeadline());
+    }
+  }
+
+  private void reloadLockState() {
+    lockTask.start(LockState::read, s -> {
+      banner.showBanner(s.readonly());
+      refreshLockState(s);
+      refreshDeadlineState(s);
+    });
+  }
+
+  @Override
+  public void removeNotify() {
+    maintenanceRefresher.stop();
+    notificationRefresher.stop();
+    deadlineRefresher.stop();
+    notificationToast.cancel();
+    super.removeNotify();
   }
 
   private void refreshLockState() {
+    refreshLockState(LockState.read());
+  }
+
+  private void refreshLockState(LockState s) {
     log.debug("Refreshing lock state (maintenance mode)");
-    boolean readonly = new SettingsDao().isMaintenanceMode();
+    boolean readonly = s.readonly();
     registerButton.setEnabled(!readonly);
     dropButton.setEnabled(!readonly);
     changePwdButton.setEnabled(!readonly);
@@ -154,11 +203,10 @@ new DeadlineRefresher(() -> SwingUtilities.invokeLater(() -> {
     transcriptButton.setEnabled(true);
     showNotifButton.setEnabled(true);
 
-    SettingsDao dao = new SettingsDao();
     LocalDate today = LocalDate.now();
 
-    LocalDate addDeadline = dao.getAddDeadline();
-    LocalDate dropDeadline = dao.getDropDeadline();
+    LocalDate addDeadline = s.addDeadline();
+    LocalDate dropDeadline = s.dropDeadline();
 
     if (addDeadline != null && today.isAfter(addDeadline)) {
         registerButton.setEnabled(false);
@@ -215,17 +263,25 @@ new DeadlineRefresher(() -> SwingUtilities.invokeLater(() -> {
         }
 
         int cid = Integer.parseInt(maybeId.get().trim());
-        List<String[]> rows = svc.listSections(cid);
+        List<Section> rows = svc.listSections(cid);
 
-        String[] cols = { "Section ID", "Instructor", "Time", "Room", "Capacity", "Semester", "Year" };
+        String[] cols = { "Section ID", "Instructor", "Time", "Room", "Capacity", "Enrolled", "Seats Left",
+            "Semester", "Year" };
 
-        String[][] data = new String[rows.size()][7];
+        Object[][] data = new Object[rows.size()][];
         for (int i = 0; i < rows.size(); i++) {
-            String[] r = rows.get(i);
-
-            for (int j = 0; j < 7; j++) {
-                data[i][j] = (r != null && j < r.length && r[j] != null) ? r[j] : "";
-            }
+            Section s = rows.get(i);
+            data[i] = new Object[] {
+                String.valueOf(s.getSectionId()),
+                s.getInstructorEmail() == null ? "" : s.getInstructorEmail(),
+                s.getDayTime(),
+                s.getRoom(),
+                s.getCapacity(),
+                s.getEnrolled(),
+                s.getAvailable(),
+                s.getSemester(),
+                s.getYear()
+            };
         }
 
         tableSections.setModel(new javax.swing.table.DefaultTableModel(data, cols));
@@ -295,16 +351,91 @@ new DeadlineRefresher(() -> SwingUtilities.invokeLater(() -> {
         int sid = Integer.parseInt(maybeSid.get().trim());
         log.info("Registering student in section {}", sid);
 
+        if (svc.isRushMode()) {
+            submitQueuedRegistration(sid);
+            return;
+        }
+
         svc.register(sid);
         UIError.info("Registered.");
         viewEnrollments();
 
+    } catch (SectionFullException full) {
+        offerWaitlist(full.getSectionId());
     } catch (Exception ex) {
         log.error("Failed to register in section", ex);
         UIError.show(ex);
     }
 }
 
+  private void submitQueuedRegistration(int sectionId) {
+    RegistrationQueue.Ticket ticket = svc.submitRegistration(sectionId);
+    toast.showMessage("Registration queued (ticket #" + ticket.getId()
+        + ", position " + ticket.getPositionAtSubmit() + ")");
+
+    ticket.getResult().whenComplete((ok, err) -> SwingUtilities.invokeLater(() -> {
+      if (err == null) {
+        UIError.info("Registered (ticket #" + ticket.getId() + ").");
+        viewEnrollments();
+      } else if (err instanceof SectionFullException full) {
+        offerWaitlist(full.getSectionId());
+      } else {
+        log.error("Queued registration failed ticket={}", ticket.getId(), err);
+        UIError.show(err);
+      }
+    }));
+  }
+
+  private void offerWaitlist(int sectionId) {
+    int ok = JOptionPane.showConfirmDialog(this,
+        "This section is full.\nJoin the waitlist? You will be enrolled automatically when a seat frees up.",
+        "Section Full", JOptionPane.YES_NO_OPTION);
+    if (ok != JOptionPane.YES_OPTION)
+      return;
+
+    try {
+      int position = waitlistSvc.join(sectionId);
+      UIError.info("Added to waitlist. Your position: " + position);
+    } catch (Exception ex) {
+      log.error("Failed to join waitlist for section {}", sectionId, ex);
+      UIError.show(ex);
+    }
+  }
+
+  private void showWaitlist() {
+    log.info("Showing waitlist for student");
+    try {
+      List<WaitlistEntry> list = waitlistSvc.myWaitlist();
+      if (list.isEmpty()) {
+        JOptionPane.showMessageDialog(this, "You are not on any waitlist.");
+        return;
+      }
+
+      String[] opts = list.stream()
+          .map(w -> w.getCourseCode() + " - Section " + w.getSectionId() + " (position " + w.getPosition() + ")")
+          .toArray(String[]::new);
+
+      String choice = (String) JOptionPane.showInputDialog(this,
+          "Select an entry to leave its waitlist:", "My Waitlist",
+          JOptionPane.PLAIN_MESSAGE, null, opts, opts[0]);
+      if (choice == null)
+        return;
+
+      WaitlistEntry selected = list.get(java.util.Arrays.asList(opts).indexOf(choice));
+      int confirm = JOptionPane.showConfirmDialog(this,
+          "Leave the waitlist for " + choice + "?", "Confirm", JOptionPane.YES_NO_OPTION);
+      if (confirm != JOptionPane.YES_OPTION)
+        return;
+
+      waitlistSvc.leave(selected.getSectionId());
+      UIError.info("Removed from waitlist.");
+
+    } catch (Exception ex) {
+      log.error("Failed to show waitlist", ex);
+      UIError.show(ex);
+    }
+  }
+
   private void dropSection() {
     if (isLocked()) {
       log.warn("Drop blocked: maintenance mode active");
@@ -425,10 +556,11 @@ new DeadlineRefresher(() -> SwingUtilities.invokeLater(() -> {
 
   private void downloadTranscript() {
     log.info("Downloading transcript as PDF");
+    transcriptTask.start(svc::getTranscriptRows, this::writeTranscript);
+  }
 
+  private void writeTranscript(List<TranscriptRow> rows) {
     try {
-      var rows = svc.getTranscriptRows();
-
       rows.sort((a, b) -> {
         int cmp = Integer.compare(b.getYear(), a.getYear());
         if (cmp != 0) return cmp;
@@ -604,10 +736,16 @@ new DeadlineRefresher(() -> SwingUtilities.invokeLater(() -> {
     }
   }
 
+  // Fires the toast through NotificationListener when something unread arrived.
+  private void checkNotifications() {
+    notifCheckTask.start(new NotificationService()::getMyNotifications, list -> { });
+  }
+
   private void showNotifications() {
     log.info("Showing notifications for student");
     try {
-      List<Notification> list = new NotificationService().getMyNotifications();
+      NotificationService notifSvc = new NotificationService();
+      List<Notification> list = notifSvc.getMyNotifications();
 
       if (list.isEmpty()) {
         log.debug("Student has no notifications");
@@ -615,15 +753,39 @@ new DeadlineRefresher(() -> SwingUtilities.invokeLater(() -> {
         return;
       }
 
-      StringBuilder sb = new StringBuilder();
-      for (Notification n : list) {
-        sb.append("[").append(n.getCreatedAt()).append("] ")
-            .append(n.getTitle()).append("\n")
-            .append(n.getMessage()).append("\n\n");
-      }
+      while (true) {
+        int unread = notifSvc.unreadCount();
+        StringBuilder sb = new StringBuilder();
+        for (Notification n : list) {
+          if (notifSvc.isUnread(n))
+            sb.append("* ");
+          sb.append("[").append(n.getCreatedAt()).append("] ")
+              .append(n.getTitle()).append("\n")
+              .append(n.getMessage()).append("\n\n");
+        }
 
-      JOptionPane.showMessageDialog(this, sb.toString(),
-          "Notifications", JOptionPane.INFORMATION_MESSAGE);
+        JTextArea area = new JTextArea(sb.toString(), 20, 60);
+        area.setEditable(false);
+        area.setLineWrap(true);
+        area.setWrapStyleWord(true);
+
+        boolean older = notifSvc.hasOlderNotifications();
+        Object[] options = older ? new Object[] { "Close", "Mark All Read", "Load Older" }
+            : new Object[] { "Close", "Mark All Read" };
+        String title = unread == 0 ? "Notifications"
+            : "Notifications (" + (unread >= NotificationService.UNREAD_CAP ? unread + "+" : unread) + " unread)";
+        int choice = JOptionPane.showOptionDialog(this, new JScrollPane(area), title,
+            JOptionPane.DEFAULT_OPTION, JOptionPane.INFORMATION_MESSAGE, null, options, options[0]);
+
+        notifSvc.markRead(list);
+        if (choice == 1) {
+          notifSvc.markAllRead();
+          break;
+        }
+        if (!older || choice != 2)
+          break;
+        list = notifSvc.loadOlderNotifications();
+      }
 
     } catch (Exception ex) {
       log.error("Failed to display notifications", ex);
@@ -658,17 +820,20 @@ new DeadlineRefresher(() -> SwingUtilities.invokeLater(() -> {
 
 
   private void refreshDeadlineState() {
-    SettingsDao dao = new SettingsDao();
+    refreshDeadlineState(LockState.read());
+  }
+
+  private void refreshDeadlineState(LockState s) {
     LocalDate today = LocalDate.now();
 
-    LocalDate addDeadline = dao.getAddDeadline();
-    LocalDate dropDeadline = dao.getDropDeadline();
+    LocalDate addDeadline = s.addDeadline();
+    LocalDate dropDeadline = s.dropDeadline();
 
     boolean canAdd = (addDeadline == null || !today.isAfter(addDeadline));
     boolean canDrop = (dropDeadline == null || !today.isAfter(dropDeadline));
 
-    registerButton.setEnabled(canAdd && !isLocked());
-    dropButton.setEnabled(canDrop && !isLocked());
+    registerButton.setEnabled(canAdd && !s.readonly());
+    dropButton.setEnabled(canDrop && !s.readonly());
 }
 
 
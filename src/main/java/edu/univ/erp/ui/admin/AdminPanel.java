@@ -8,6 +8,7 @@ import edu.univ.erp.auth.AuthService;
 import edu.univ.erp.auth.SessionManager;
 import edu.univ.erp.ui.components.MaintenanceBanner;
 import edu.univ.erp.ui.components.MaintenanceRefresher;
+import edu.univ.erp.ui.components.UiTask;
 import javax.swing.*;
 import net.miginfocom.swing.MigLayout;
 import java.io.File;
@@ -21,6 +22,8 @@ public class AdminPanel extends JPanel {
 
   private final AdminService svc = new AdminService();
   private final MaintenanceBanner banner = new MaintenanceBanner();
+  private MaintenanceRefresher maintenanceRefresher;
+  private final UiTask<Boolean> bannerTask = UiTask.background(this);
 
   private static final String[] SEMESTERS = { "Summer", "Winter", "Monsoon" };
 
@@ -30,11 +33,6 @@ public class AdminPanel extends JPanel {
     setLayout(new MigLayout("fillx, insets 12", "[grow]", "[][][][][][]"));
 
     add(banner, "dock north");
-    new MaintenanceRefresher(() -> SwingUtilities.invokeLater(() -> {
-      boolean on = new SettingsDao().isMaintenanceMode();
-      banner.showBanner(on);     // update banner
-  }));
-  
     log.debug("Maintenance banner attached");
 
     JButton createUserButton = new JButton("Create User");
@@ -46,12 +44,16 @@ public class AdminPanel extends JPanel {
     JButton editSectionButton = new JButton("Edit Section");
     JButton assignInstructorButton = new JButton("Assign Instructor");
     JButton maintenanceToggleButton = new JButton("Toggle Maintenance Mode");
+    JButton rushToggleButton = new JButton("Toggle Registration Rush Mode");
+    JButton fanOutToggleButton = new JButton("Toggle Notification Fan-out");
     JButton backupButton = new JButton("Backup DB");
     JButton restoreButton = new JButton("Restore DB");
     JButton setAddDeadlineButton = new JButton("Set Add Deadline");
     JButton setDropDeadlineButton = new JButton("Set Drop Deadline");
     JButton notifyButton = new JButton("Send Notification");
     JButton changePwdButton = new JButton("Change Password");
+    JButton dbMetricsButton = new JButton("DB Metrics");
+    JButton poolSizeButton = new JButton("Pool Size Override");
 
     add(createUserButton, "growx, wrap");
     add(deleteUserButton, "growx, wrap");
@@ -62,12 +64,16 @@ public class AdminPanel extends JPanel {
     add(editSectionButton, "growx, wrap");
     add(assignInstructorButton, "growx, wrap");
     add(maintenanceToggleButton, "growx, wrap");
+    add(rushToggleButton, "growx, wrap");
+    add(fanOutToggleButton, "growx, wrap");
     add(backupButton, "growx, wrap");
     add(restoreButton, "growx, wrap");
     add(setAddDeadlineButton, "growx, wrap");
     add(setDropDeadlineButton, "growx, wrap");
     add(changePwdButton, "growx, wrap");
     add(notifyButton, "growx, wrap");
+    add(dbMetricsButton, "growx, wrap");
+    add(poolSizeButton, "growx, wrap");
 
     createUserButton.addActionListener(e -> createUserDialog());
     deleteUserButton.addActionListener(e -> deleteUserDialog());
@@ -78,6 +84,8 @@ public class AdminPanel extends JPanel {
     editSectionButton.addActionListener(e -> editSectionDialog());
     assignInstructorButton.addActionListener(e -> assignInstructorDialog());
     maintenanceToggleButton.addActionListener(e -> toggleMaintenance());
+    rushToggleButton.addActionListener(e -> toggleRushMode());
+    fanOutToggleButton.addActionListener(e -> toggleNotificationFanOut());
     backupButton.addActionListener(e -> backupDialog());
     restoreButton.addActionListener(e -> restoreDialog());
     setAddDeadlineButton.addActionListener(e -> setAddDeadline());
@@ -86,10 +94,26 @@ public class AdminPanel extends JPanel {
     notifyButton.addActionListener(e ->
         new NotificationDialog(SwingUtilities.getWindowAncestor(this)).setVisible(true));
     changePwdButton.addActionListener(e -> showChangePasswordDialog());
+    dbMetricsButton.addActionListener(e -> showDbMetrics());
+    poolSizeButton.addActionListener(e -> poolSizeDialog());
 
     log.debug("AdminPanel initialized successfully");
   }
 
+  // Subscribed only while showing, so a discarded panel is not kept alive.
+  @Override
+  public void addNotify() {
+    super.addNotify();
+    maintenanceRefresher = new MaintenanceRefresher(() -> SwingUtilities.invokeLater(() ->
+        bannerTask.start(new SettingsDao()::isMaintenanceMode, banner::showBanner)));
+  }
+
+  @Override
+  public void removeNotify() {
+    maintenanceRefresher.stop();
+    super.removeNotify();
+  }
+
 
   private Integer askingPositiveInt(String message) {
     String input = JOptionPane.showInputDialog(message);
@@ -260,7 +284,7 @@ public class AdminPanel extends JPanel {
         String cc = askCourseCode("Enter Course Code to edit:");
         if (cc == null) return;
 
-        Course c = new CourseDao().findByCode(cc);
+        Course c = CourseCache.byCode(cc);
         if (c == null) {
             UIError.info("Course not found.");
             return;
@@ -313,7 +337,7 @@ public class AdminPanel extends JPanel {
       String courseCode = askCourseCode("Course Code (e.g., CSE121):");
       if (courseCode == null) return;
 
-      Course course = new CourseDao().findByCode(courseCode);
+      Course course = CourseCache.byCode(courseCode);
       if (course == null) {
         UIError.info("Course not found.");
         return;
@@ -367,7 +391,7 @@ public class AdminPanel extends JPanel {
       String courseCode = askCourseCode("Course Code:");
       if (courseCode == null) return;
 
-      Course course = new CourseDao().findByCode(courseCode);
+      Course course = CourseCache.byCode(courseCode);
       if (course == null) {
         UIError.info("Course not found.");
         return;
@@ -425,7 +449,7 @@ public class AdminPanel extends JPanel {
       String courseCode = askCourseCode("Course Code:");
       if (courseCode == null) return;
 
-      Course course = new CourseDao().findByCode(courseCode);
+      Course course = CourseCache.byCode(courseCode);
       if (course == null) {
         UIError.info("Course not found.");
         return;
@@ -509,7 +533,7 @@ public class AdminPanel extends JPanel {
       String courseCode = askCourseCode("Course Code:");
       if (courseCode == null) return;
 
-      Course course = new CourseDao().findByCode(courseCode);
+      Course course = CourseCache.byCode(courseCode);
       if (course == null) {
         UIError.info("Course not found.");
         return;
@@ -575,6 +599,83 @@ public class AdminPanel extends JPanel {
     }
   }
 
+  private void toggleRushMode() {
+    try {
+      boolean state = svc.toggleRushMode();
+      UIError.info("Registration rush mode is now: " + (state ? "ON" : "OFF"));
+    } catch (Exception ex) {
+      UIError.show(ex);
+    }
+  }
+
+  private void toggleNotificationFanOut() {
+    try {
+      boolean state = svc.toggleNotificationFanOut();
+      UIError.info("Notification fan-out is now: " + (state ? "ON" : "OFF"));
+    } catch (Exception ex) {
+      UIError.show(ex);
+    }
+  }
+
+  private void showDbMetrics() {
+    try {
+      JTextArea area = new JTextArea(svc.dbMetricsReport(), 25, 110);
+      area.setEditable(false);
+      area.setFont(new java.awt.Font(java.awt.Font.MONOSPACED, java.awt.Font.PLAIN, 12));
+
+      Object[] options = { "Close", "Reset Counters" };
+      int choice = JOptionPane.showOptionDialog(this, new JScrollPane(area), "DB Metrics",
+          JOptionPane.DEFAULT_OPTION, JOptionPane.PLAIN_MESSAGE, null, options, options[0]);
+
+      if (choice == 1) {
+        svc.resetDbMetrics();
+        UIError.info("DB metrics reset.");
+      }
+    } catch (Exception ex) {
+      UIError.show(ex);
+    }
+  }
+
+  private void poolSizeDialog() {
+    try {
+      JComboBox<DBPool.Lane> laneBox = new JComboBox<>(DBPool.Lane.values());
+      JTextField sizeField = new JTextField();
+
+      JTextArea current = new JTextArea(svc.poolSizesReport());
+      current.setEditable(false);
+      current.setFont(new java.awt.Font(java.awt.Font.MONOSPACED, java.awt.Font.PLAIN, 12));
+
+      JPanel p = new JPanel(new MigLayout("wrap 2", "[][grow]"));
+      p.add(current, "span 2, growx");
+      p.add(new JLabel("Pool:"));
+      p.add(laneBox, "growx");
+      p.add(new JLabel("Size (blank = automatic):"));
+      p.add(sizeField, "growx");
+
+      int ok = JOptionPane.showConfirmDialog(this, p, "Pool Size Override", JOptionPane.OK_CANCEL_OPTION);
+      if (ok != JOptionPane.OK_OPTION) return;
+
+      DBPool.Lane lane = (DBPool.Lane) laneBox.getSelectedItem();
+      String text = sizeField.getText().trim();
+      Integer size = null;
+      if (!text.isEmpty()) {
+        try {
+          size = Integer.parseInt(text);
+        } catch (NumberFormatException nfe) {
+          UIError.info("Invalid number.");
+          return;
+        }
+      }
+
+      svc.pinPoolSize(lane, size);
+      UIError.info(size == null
+          ? "Pool " + lane.key() + " is sized automatically again."
+          : "Pool " + lane.key() + " pinned at " + size + " connections.");
+    } catch (Exception ex) {
+      UIError.show(ex);
+    }
+  }
+
   private void backupDialog() {
     try {
       JFileChooser fc = new JFileChooser();
@@ -1,20 +1,43 @@
 package edu.univ.erp.ui.components;
 
-import edu.univ.erp.data.SettingsDao;
-import java.time.LocalDate;
+import edu.univ.erp.data.ChangeFeed;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 
 import javax.swing.*;
 
 public class DeadlineRefresher {
 
-    private final Timer timer;
+    private final ChangeFeed.Subscription subscription;
+    private final Timer clock;
 
+    // Runs when an admin changes a deadline, and just after each local
+    // midnight: deadlines are whole days, so that is the only moment one
+    // passes without anything changing in the database.
     public DeadlineRefresher(Runnable refreshFn) {
-        timer = new Timer(3000, e -> refreshFn.run());
-        timer.start();
+        subscription = ChangeFeed.subscribe(ChangeFeed.Topic.DEADLINES, refreshFn);
+        clock = new Timer(0, null);
+        clock.setRepeats(false);
+        clock.addActionListener(e -> {
+            refreshFn.run();
+            scheduleNext();
+        });
+        scheduleNext();
     }
 
     public void stop() {
-        timer.stop();
+        subscription.cancel();
+        clock.stop();
+    }
+
+    // A second past midnight, so "today" has already moved on when it fires.
+    private void scheduleNext() {
+        ZoneId zone = ZoneId.systemDefault();
+        ZonedDateTime now = ZonedDateTime.now(zone);
+        ZonedDateTime midnight = now.toLocalDate().plusDays(1).atStartOfDay(zone);
+        long delay = Duration.between(now, midnight).toMillis() + 1000;
+        clock.setInitialDelay((int) Math.min(Integer.MAX_VALUE, delay));
+        clock.restart();
     }
 }
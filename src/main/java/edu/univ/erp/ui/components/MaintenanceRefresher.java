@@ -1,8 +1,7 @@
 package edu.univ.erp.ui.components;
 
-import edu.univ.erp.data.SettingsDao;
+import edu.univ.erp.data.ChangeFeed;
 
-import javax.swing.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -10,25 +9,16 @@ public class MaintenanceRefresher {
 
   private static final Logger log = LoggerFactory.getLogger(MaintenanceRefresher.class);
 
-  private final SettingsDao settingsDao = new SettingsDao();
-  private final Timer timer;
+  private final ChangeFeed.Subscription subscription;
 
+  // refreshFn runs on the change-feed thread whenever maintenance mode is
+  // switched, by this client or any other.
   public MaintenanceRefresher(Runnable refreshFn) {
-    timer = new Timer(3000, e -> {
-      try {
-        boolean on = settingsDao.isMaintenanceMode();
-        log.debug("Maintenance mode status refreshed: {}", on);
-        refreshFn.run();  // <-- CRITICAL FIX
-      } catch (Exception ex) {
-        log.error("Failed to refresh maintenance mode", ex);
-      }
-    });
-
-    log.info("MaintenanceRefresher timer started (3s interval)");
-    timer.start();
+    subscription = ChangeFeed.subscribe(ChangeFeed.Topic.MAINTENANCE, refreshFn);
+    log.info("MaintenanceRefresher subscribed to change feed");
   }
 
   public void stop() {
-    timer.stop();
+    subscription.cancel();
   }
 }
@@ -0,0 +1,16 @@
+package edu.univ.erp.ui.components;
+
+import edu.univ.erp.data.ChangeFeed;
+
+public class NotificationRefresher {
+
+    private final ChangeFeed.Subscription subscription;
+
+    public NotificationRefresher(Runnable refreshFn) {
+        subscription = ChangeFeed.subscribe(ChangeFeed.Topic.NOTIFICATIONS, refreshFn);
+    }
+
+    public void stop() {
+        subscription.cancel();
+    }
+}
@@ -0,0 +1,142 @@
+package edu.univ.erp.ui.components;
+
+import edu.univ.erp.service.ServiceExecutor;
+import edu.univ.erp.ui.UIError;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// One background action of a panel. While it runs the panel shows a wait
+// cursor and the given controls are disabled. Starting it again replaces a
+// run still in progress. Read tasks can also be cancelled with Escape;
+// write tasks cannot, since the change may commit anyway. Background
+// tasks (refreshes nobody asked for) change nothing on screen while they
+// run and only log their errors.
+// The result (or error) is delivered on the EDT, unless the run was
+// cancelled or replaced.
+public final class UiTask<T> {
+
+    private static final Logger log = LoggerFactory.getLogger(UiTask.class);
+
+    private static final String TASKS_KEY = "uiTask.tasks";
+    private static final String CANCEL_ACTION = "uiTask.cancel";
+
+    private final JComponent owner;
+    private final boolean cancellable;
+    private final boolean quiet;
+    private final JComponent[] controls;
+    private final boolean[] wasEnabled;
+    private CompletableFuture<T> current;
+    private boolean busy;
+
+    private UiTask(JComponent owner, boolean cancellable, boolean quiet, JComponent... controls) {
+        this.owner = owner;
+        this.cancellable = cancellable;
+        this.quiet = quiet;
+        this.controls = controls;
+        this.wasEnabled = new boolean[controls.length];
+        if (cancellable) {
+            installEscape(owner, this);
+        }
+    }
+
+    public static <T> UiTask<T> reading(JComponent owner, JComponent... controls) {
+        return new UiTask<>(owner, true, false, controls);
+    }
+
+    public static <T> UiTask<T> writing(JComponent owner, JComponent... controls) {
+        return new UiTask<>(owner, false, false, controls);
+    }
+
+    public static <T> UiTask<T> background(JComponent owner) {
+        return new UiTask<>(owner, false, true);
+    }
+
+    // Call on the EDT. work runs on a service thread with the caller's session.
+    public void start(Callable<T> work, Consumer<? super T> onDone) {
+        if (current != null) {
+            current.cancel(true);
+        }
+        setBusy(true);
+
+        CompletableFuture<T> run = ServiceExecutor.supply(work);
+        current = run;
+        run.whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+            if (current != run)
+                return;
+            current = null;
+            setBusy(false);
+            if (error == null) {
+                onDone.accept(result);
+            } else if (!(error instanceof CancellationException)) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                if (quiet) {
+                    log.warn("Background refresh failed", cause);
+                } else {
+                    UIError.show(cause);
+                }
+            }
+        }));
+    }
+
+    public void cancel() {
+        if (current != null && cancellable) {
+            log.info("Background task cancelled");
+            current.cancel(true);
+            current = null;
+            setBusy(false);
+        }
+    }
+
+    public boolean isRunning() {
+        return current != null;
+    }
+
+    // Controls get back the enabled state they had before, so a button
+    // disabled by maintenance mode stays disabled.
+    private void setBusy(boolean on) {
+        if (on == busy || quiet)
+            return;
+        busy = on;
+        owner.setCursor(on ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+        for (int i = 0; i < controls.length; i++) {
+            if (on) {
+                wasEnabled[i] = controls[i].isEnabled();
+                controls[i].setEnabled(false);
+            } else {
+                controls[i].setEnabled(wasEnabled[i]);
+            }
+        }
+    }
+
+    // One Escape binding per panel, cancelling whichever of its tasks run.
+    @SuppressWarnings("unchecked")
+    private static void installEscape(JComponent owner, UiTask<?> task) {
+        List<UiTask<?>> tasks = (List<UiTask<?>>) owner.getClientProperty(TASKS_KEY);
+        if (tasks == null) {
+            tasks = new ArrayList<>();
+            owner.putClientProperty(TASKS_KEY, tasks);
+            List<UiTask<?>> all = tasks;
+            owner.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                    .put(KeyStroke.getKeyStroke("ESCAPE"), CANCEL_ACTION);
+            owner.getActionMap().put(CANCEL_ACTION, new AbstractAction() {
+                @Override
+                public void actionPerformed(ActionEvent e) {
+                    all.forEach(UiTask::cancel);
+                }
+            });
+        }
+        tasks.add(task);
+    }
+}
@@ -0,0 +1,162 @@
+package edu.univ.erp.util;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// In-process publish/subscribe. publish() never runs listeners on the
+// caller's thread: everything is handed to the single "event-bus" thread,
+// which delivers events in publish order. The *OnEdt variants collect the
+// events that arrive before the EDT gets to them and hand them over as one
+// batch, so a burst costs one UI refresh. Weak subscriptions go away with
+// their owner; their handler gets the owner passed in and must not capture
+// it.
+public final class EventBus {
+
+  private static final Logger log = LoggerFactory.getLogger(EventBus.class);
+
+  public static final class Topic<T> {
+    private final String name;
+    private final List<Listener<T>> listeners = new CopyOnWriteArrayList<>();
+
+    public Topic(String name) {
+      this.name = name;
+    }
+
+    public String name() {
+      return name;
+    }
+
+    public int listenerCount() {
+      return listeners.size();
+    }
+
+    @Override
+    public String toString() {
+      return name;
+    }
+  }
+
+  public interface Subscription {
+    void cancel();
+  }
+
+  // Returns false once it can never deliver again (weak owner collected).
+  private interface Listener<T> {
+    boolean deliver(T event);
+  }
+
+  private static final ExecutorService DISPATCH = Executors.newSingleThreadExecutor(r -> {
+    Thread t = new Thread(r, "event-bus");
+    t.setDaemon(true);
+    return t;
+  });
+
+  private EventBus() {
+  }
+
+  public static <T> void publish(Topic<T> topic, T event) {
+    if (topic.listeners.isEmpty()) {
+      log.trace("No listeners for {}", topic);
+      return;
+    }
+    DISPATCH.execute(() -> deliver(topic, event));
+  }
+
+  // handler runs on the event-bus thread, once per event.
+  public static <T> Subscription subscribe(Topic<T> topic, Consumer<? super T> handler) {
+    return add(topic, event -> {
+      handler.accept(event);
+      return true;
+    });
+  }
+
+  public static <T> Subscription subscribeOnEdt(Topic<T> topic, Consumer<? super List<T>> handler) {
+    EdtBatch<T> batch = new EdtBatch<>(handler);
+    return add(topic, event -> {
+      batch.add(event);
+      return true;
+    });
+  }
+
+  public static <O, T> Subscription subscribeWeakOnEdt(Topic<T> topic, O owner,
+      BiConsumer<? super O, ? super List<T>> handler) {
+    WeakReference<O> ref = new WeakReference<>(owner);
+    EdtBatch<T> batch = new EdtBatch<>(events -> {
+      O o = ref.get();
+      if (o != null)
+        handler.accept(o, events);
+    });
+    return add(topic, event -> {
+      if (ref.get() == null)
+        return false;
+      batch.add(event);
+      return true;
+    });
+  }
+
+  private static <T> Subscription add(Topic<T> topic, Listener<T> listener) {
+    topic.listeners.add(listener);
+    log.debug("Listener added to {} ({} total)", topic, topic.listeners.size());
+    return () -> {
+      if (topic.listeners.remove(listener))
+        log.debug("Listener removed from {} ({} left)", topic, topic.listeners.size());
+    };
+  }
+
+  private static <T> void deliver(Topic<T> topic, T event) {
+    for (Listener<T> l : topic.listeners) {
+      try {
+        if (!l.deliver(event)) {
+          topic.listeners.remove(l);
+          log.debug("Dropped collected listener from {}", topic);
+        }
+      } catch (RuntimeException e) {
+        log.error("Listener on {} failed for {}", topic, event, e);
+      }
+    }
+  }
+
+  private static final class EdtBatch<T> {
+    private final Consumer<? super List<T>> handler;
+    private final ConcurrentLinkedQueue<T> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    EdtBatch(Consumer<? super List<T>> handler) {
+      this.handler = handler;
+    }
+
+    void add(T event) {
+      pending.add(event);
+      if (scheduled.compareAndSet(false, true))
+        SwingUtilities.invokeLater(this::drain);
+    }
+
+    // Cleared before draining: an event added meanwhile schedules another
+    // drain, which may find nothing left and do nothing.
+    private void drain() {
+      scheduled.set(false);
+      List<T> events = new ArrayList<>();
+      T e;
+      while ((e = pending.poll()) != null)
+        events.add(e);
+      if (events.isEmpty())
+        return;
+      try {
+        handler.accept(events);
+      } catch (RuntimeException ex) {
+        log.error("EDT listener failed for {} events", events.size(), ex);
+      }
+    }
+  }
+}
@@ -0,0 +1,215 @@
+package edu.univ.erp.util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+// A set of positive int ids kept as sorted, non-overlapping [start, end]
+// runs. Ids that are read in order (or marked read in bulk) collapse into a
+// handful of runs, so a user's whole read history usually fits in a few
+// bytes. encode() writes each run as varint (gap from previous end, length).
+public final class IdRangeSet {
+
+  private int[] starts;
+  private int[] ends;
+  private int runs;
+
+  public IdRangeSet() {
+    this(4);
+  }
+
+  private IdRangeSet(int capacity) {
+    starts = new int[capacity];
+    ends = new int[capacity];
+  }
+
+  public boolean contains(int id) {
+    int i = runAtOrBefore(id);
+    return i >= 0 && id <= ends[i];
+  }
+
+  public void add(int id) {
+    addRange(id, id);
+  }
+
+  // Adds every id in from..to (inclusive), merging with touching runs.
+  public void addRange(int from, int to) {
+    if (from < 1 || to < from) {
+      throw new IllegalArgumentException("Invalid id range " + from + ".." + to);
+    }
+
+    // first run that could merge: ends at from - 1 or later
+    int lo = runAtOrBefore(from);
+    if (lo < 0 || ends[lo] < from - 1)
+      lo++;
+    // last run that could merge: starts at to + 1 or earlier
+    int hi = to == Integer.MAX_VALUE ? runs - 1 : runAtOrBefore(to + 1);
+
+    if (lo > hi) {
+      insertRun(lo, from, to);
+      return;
+    }
+
+    int start = Math.min(from, starts[lo]);
+    int end = Math.max(to, ends[hi]);
+    starts[lo] = start;
+    ends[lo] = end;
+
+    int removed = hi - lo;
+    if (removed > 0) {
+      System.arraycopy(starts, hi + 1, starts, lo + 1, runs - hi - 1);
+      System.arraycopy(ends, hi + 1, ends, lo + 1, runs - hi - 1);
+      runs -= removed;
+    }
+  }
+
+  public void addAll(Iterable<Integer> ids) {
+    for (int id : ids)
+      add(id);
+  }
+
+  // Bounds the size of the set by filling the gaps between its oldest runs:
+  // everything from 1 up to the end of the run that leaves at most maxRuns
+  // becomes a member. Returns the highest id added that way, or 0 if the
+  // set already had few enough runs.
+  public int collapseTo(int maxRuns) {
+    if (maxRuns < 1) {
+      throw new IllegalArgumentException("maxRuns must be >= 1");
+    }
+    if (runs <= maxRuns)
+      return 0;
+    int upTo = ends[runs - maxRuns];
+    addRange(1, upTo);
+    return upTo;
+  }
+
+  // Highest id such that every id from 1 up to it is in the set; 0 if 1 is
+  // missing. Anything above it has to be checked individually.
+  public int contiguousPrefix() {
+    return runs > 0 && starts[0] == 1 ? ends[0] : 0;
+  }
+
+  public long cardinality() {
+    long n = 0;
+    for (int i = 0; i < runs; i++)
+      n += (long) ends[i] - starts[i] + 1;
+    return n;
+  }
+
+  public int runCount() {
+    return runs;
+  }
+
+  public boolean isEmpty() {
+    return runs == 0;
+  }
+
+  public byte[] encode() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(2 + runs * 4);
+    writeVarint(out, runs);
+    int prevEnd = 0;
+    for (int i = 0; i < runs; i++) {
+      writeVarint(out, starts[i] - prevEnd);
+      writeVarint(out, ends[i] - starts[i]);
+      prevEnd = ends[i];
+    }
+    return out.toByteArray();
+  }
+
+  public static IdRangeSet decode(byte[] data) {
+    if (data == null || data.length == 0)
+      return new IdRangeSet();
+
+    int[] pos = { 0 };
+    int n = readVarint(data, pos);
+    IdRangeSet set = new IdRangeSet(Math.max(4, n));
+    int prevEnd = 0;
+    for (int i = 0; i < n; i++) {
+      int start = prevEnd + readVarint(data, pos);
+      int end = start + readVarint(data, pos);
+      if (start <= prevEnd || end < start) {
+        throw new IllegalArgumentException("Corrupt id range data at run " + i);
+      }
+      set.starts[i] = start;
+      set.ends[i] = end;
+      prevEnd = end;
+    }
+    set.runs = n;
+    return set;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (!(o instanceof IdRangeSet other) || other.runs != runs)
+      return false;
+    return Arrays.equals(starts, 0, runs, other.starts, 0, runs)
+        && Arrays.equals(ends, 0, runs, other.ends, 0, runs);
+  }
+
+  @Override
+  public int hashCode() {
+    int h = runs;
+    for (int i = 0; i < runs; i++)
+      h = 31 * (31 * h + starts[i]) + ends[i];
+    return h;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("[");
+    for (int i = 0; i < runs; i++) {
+      if (i > 0)
+        sb.append(", ");
+      sb.append(starts[i]);
+      if (ends[i] != starts[i])
+        sb.append("..").append(ends[i]);
+    }
+    return sb.append(']').toString();
+  }
+
+  // Index of the last run starting at or before id, or -1.
+  private int runAtOrBefore(int id) {
+    int lo = 0, hi = runs - 1;
+    while (lo <= hi) {
+      int mid = (lo + hi) >>> 1;
+      if (starts[mid] <= id)
+        lo = mid + 1;
+      else
+        hi = mid - 1;
+    }
+    return hi;
+  }
+
+  private void insertRun(int at, int start, int end) {
+    if (runs == starts.length) {
+      starts = Arrays.copyOf(starts, runs * 2);
+      ends = Arrays.copyOf(ends, runs * 2);
+    }
+    System.arraycopy(starts, at, starts, at + 1, runs - at);
+    System.arraycopy(ends, at, ends, at + 1, runs - at);
+    starts[at] = start;
+    ends[at] = end;
+    runs++;
+  }
+
+  private static void writeVarint(ByteArrayOutputStream out, int v) {
+    while ((v & ~0x7F) != 0) {
+      out.write((v & 0x7F) | 0x80);
+      v >>>= 7;
+    }
+    out.write(v);
+  }
+
+  private static int readVarint(byte[] data, int[] pos) {
+    int v = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      if (pos[0] >= data.length) {
+        throw new IllegalArgumentException("Truncated id range data");
+      }
+      byte b = data[pos[0]++];
+      v |= (b & 0x7F) << shift;
+      if ((b & 0x80) == 0)
+        return v;
+    }
+    throw new IllegalArgumentException("Malformed varint in id range data");
+  }
+}
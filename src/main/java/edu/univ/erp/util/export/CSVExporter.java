@@ -1,6 +1,7 @@
 package edu.univ.erp.util.export;
 
 import com.opencsv.CSVWriter;
+import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.util.List;
 import org.slf4j.Logger;
@@ -12,7 +13,7 @@ public class CSVExporter {
 
   public static void writeCSV(String filePath, List<String[]> rows) throws Exception {
     log.info("Writing CSV file to {}", filePath);
-    try (CSVWriter writer = new CSVWriter(new FileWriter(filePath))) {
+    try (CSVWriter writer = new CSVWriter(new BufferedWriter(new FileWriter(filePath), 64 * 1024))) {
       for (String[] row : rows) {
         writer.writeNext(row);
       }
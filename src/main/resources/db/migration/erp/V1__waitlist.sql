@@ -0,0 +1,13 @@
+-- Databases created before the waitlist was introduced.
+CREATE TABLE IF NOT EXISTS waitlist (
+  waitlist_id INT UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
+  section_id INT UNSIGNED NOT NULL,
+  student_id INT UNSIGNED NOT NULL,
+  position INT UNSIGNED NOT NULL,
+  joined_on DATETIME DEFAULT CURRENT_TIMESTAMP,
+  UNIQUE KEY unique_waitlist_student (section_id, student_id),
+  UNIQUE KEY unique_waitlist_position (section_id, position),
+  KEY idx_waitlist_student (student_id),
+  FOREIGN KEY (section_id) REFERENCES sections(section_id) ON DELETE CASCADE,
+  FOREIGN KEY (student_id) REFERENCES students(student_id) ON DELETE CASCADE
+);
@@ -0,0 +1,11 @@
+-- Seat counts and roster loads filter a section's enrollments by status.
+CREATE INDEX IF NOT EXISTS idx_enrollments_section_status ON enrollments (section_id, status);
+
+-- Timetable, "my enrollments" and same-course checks start from the student.
+CREATE INDEX IF NOT EXISTS idx_enrollments_student_status ON enrollments (student_id, status);
+
+-- Per-enrollment grade lookups and component-name pivots.
+CREATE INDEX IF NOT EXISTS idx_grades_enrollment_component ON grades (enrollment_id, component_name);
+
+-- Inbox query: target match, newest first.
+CREATE INDEX IF NOT EXISTS idx_notifications_target ON notifications (target_type, target_id, created_at);
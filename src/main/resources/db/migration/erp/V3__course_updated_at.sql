@@ -0,0 +1,5 @@
+-- Lets the course cache detect catalog edits made by other clients with a
+-- COUNT/MAX probe. Microsecond precision so back-to-back edits still differ.
+ALTER TABLE courses
+  ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) NOT NULL
+    DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
@@ -0,0 +1,9 @@
+-- One row per (recipient, notification) when notifications.fanout=true.
+-- The primary key is the read path: WHERE user_id = ? ORDER BY notif_id DESC.
+CREATE TABLE IF NOT EXISTS notification_inbox (
+  user_id INT UNSIGNED NOT NULL,
+  notif_id INT UNSIGNED NOT NULL,
+  PRIMARY KEY (user_id, notif_id),
+  KEY idx_notification_inbox_notif (notif_id),
+  CONSTRAINT fk_inbox_notification FOREIGN KEY (notif_id) REFERENCES notifications(id) ON DELETE CASCADE
+) ENGINE=InnoDB;
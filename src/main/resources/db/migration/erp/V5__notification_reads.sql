@@ -0,0 +1,7 @@
+-- Read state per user as an encoded run-length id set (see IdRangeSet),
+-- one row per user however many notifications they have read.
+CREATE TABLE IF NOT EXISTS notification_reads (
+  user_id INT UNSIGNED NOT NULL PRIMARY KEY,
+  read_ranges VARBINARY(8192) NOT NULL,
+  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+) ENGINE=InnoDB;
@@ -0,0 +1,10 @@
+-- One row per change-feed topic. Writers bump the version; each client
+-- reads the whole table in one query to see what changed.
+CREATE TABLE IF NOT EXISTS change_log (
+  topic VARCHAR(32) NOT NULL PRIMARY KEY,
+  version BIGINT UNSIGNED NOT NULL DEFAULT 0,
+  updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6)
+) ENGINE=InnoDB;
+
+INSERT IGNORE INTO change_log (topic) VALUES
+  ('maintenance'), ('deadlines'), ('notifications'), ('catalog');
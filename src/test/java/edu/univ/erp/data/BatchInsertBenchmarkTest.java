@@ -0,0 +1,86 @@
+package edu.univ.erp.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// 10k grade rows written in one transaction: one runUpdate per row, then
+// runBatch with the connector's bulk statements off and on (db.batch.bulk).
+// Logs ms per 10k rows for each; asserts each step is faster than the one
+// before.
+@Tag("benchmark")
+class BatchInsertBenchmarkTest {
+
+  private static final Logger log = LoggerFactory.getLogger(BatchInsertBenchmarkTest.class);
+
+  private static final int STUDENTS = 1_000;
+  private static final int COMPONENTS = 10;
+  private static final int RUNS = 3;
+
+  private static final String SQL = """
+      INSERT INTO grades (enrollment_id, component_type, component_name, score, max_score, weightage)
+      VALUES (?, ?, ?, ?, ?, ?)
+      """;
+
+  private final GradeDao dao = new GradeDao();
+  private final List<Object[]> rows = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    TestDatabase.start();
+    TestDatabase.reset();
+
+    int section = TestDatabase.section(TestDatabase.course(), STUDENTS);
+    for (int i = 0; i < STUDENTS; i++) {
+      int enrollment = TestDatabase.enroll(TestDatabase.student(), section);
+      for (int c = 0; c < COMPONENTS; c++)
+        rows.add(new Object[] {enrollment, "QUIZ", "Quiz " + c, 7.5, 10, 5});
+    }
+  }
+
+  interface Write {
+    void run(Connection con) throws Exception;
+  }
+
+  @Test
+  void rowByRowVersusBatched() throws Exception {
+    double single = time("row by row", "useBulkStmts=false", con -> {
+      for (Object[] r : rows)
+        dao.runUpdate(con, SQL, r);
+    });
+    double batched = time("runBatch", "useBulkStmts=false",
+        con -> assertEquals(rows.size(), dao.runBatch(con, SQL, rows).length));
+    double bulk = time("runBatch bulk", "useBulkStmts=true",
+        con -> assertEquals(rows.size(), dao.runBatch(con, SQL, rows).length));
+    log.info(String.format("grade insert: row by row %.0f ms, runBatch %.0f ms, runBatch bulk %.0f ms per %d rows",
+        single, batched, bulk, rows.size()));
+    assertTrue(batched < single, "runBatch should beat one statement per row");
+    assertTrue(bulk < batched, "bulk statements should beat a plain JDBC batch");
+  }
+
+  // Best of RUNS, each on a fresh connection into an emptied table.
+  private double time(String label, String options, Write write) throws Exception {
+    double best = Double.MAX_VALUE;
+    for (int i = 0; i < RUNS; i++) {
+      TestDatabase.insert("DELETE FROM grades");
+      try (Connection con = TestDatabase.connect(options)) {
+        con.setAutoCommit(false);
+        long start = System.nanoTime();
+        write.run(con);
+        con.commit();
+        best = Math.min(best, (System.nanoTime() - start) / 1_000_000.0);
+      }
+      assertEquals(rows.size(), TestDatabase.count("SELECT COUNT(*) FROM grades"), label);
+    }
+    log.info(String.format("%s: %.0f ms per %d rows", label, best, rows.size()));
+    return best;
+  }
+}
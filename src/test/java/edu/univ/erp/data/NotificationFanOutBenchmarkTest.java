@@ -0,0 +1,165 @@
+package edu.univ.erp.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.univ.erp.domain.Notification;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Resolving recipients on read (pull) against expanding them into
+// notification_inbox on send (fan-out), on the same data: 10k students in
+// 5 of 40 sections each, 200 notifications to sections, courses and all
+// students. Logs send and read timings; asserts both paths show every
+// student the same notifications and that fan-out pages read faster.
+@Tag("benchmark")
+class NotificationFanOutBenchmarkTest {
+
+  private static final Logger log = LoggerFactory.getLogger(NotificationFanOutBenchmarkTest.class);
+
+  private static final int STUDENTS = 10_000;
+  private static final int COURSES = 10;
+  private static final int SECTIONS_PER_COURSE = 4;
+  private static final int SECTIONS_PER_STUDENT = 5;
+  private static final int NOTIFICATIONS = 200;
+  private static final int READERS = 200;
+  private static final int PAGE = 100;
+  private static final int FIRST_USER_ID = 1_000_000;
+
+  private final NotificationDao dao = new NotificationDao();
+
+  private final List<Integer> courses = new ArrayList<>();
+  private final List<Integer> sections = new ArrayList<>();
+  private final Map<Integer, Integer> courseOfSection = new HashMap<>();
+  private final Map<Integer, List<Integer>> sectionsOfUser = new HashMap<>();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    TestDatabase.start();
+    TestDatabase.reset();
+
+    Random rnd = new Random(11);
+    for (int c = 0; c < COURSES; c++) {
+      int course = TestDatabase.course();
+      courses.add(course);
+      for (int s = 0; s < SECTIONS_PER_COURSE; s++) {
+        int section = TestDatabase.section(course, STUDENTS);
+        sections.add(section);
+        courseOfSection.put(section, course);
+      }
+    }
+    // batched: one insert per row would take longer than the benchmark
+    try (Connection con = TestDatabase.connect("")) {
+      con.setAutoCommit(false);
+      try (PreparedStatement ps = con.prepareStatement(
+          "INSERT INTO students (user_id, roll_no, program, year) VALUES (?, ?, 'B.Tech', 2)")) {
+        for (int i = 0; i < STUDENTS; i++) {
+          ps.setInt(1, FIRST_USER_ID + i);
+          ps.setString(2, "FB" + i);
+          ps.addBatch();
+        }
+        ps.executeBatch();
+      }
+
+      Map<Integer, Integer> studentOfUser = new HashMap<>();
+      try (PreparedStatement ps = con.prepareStatement(
+          "SELECT user_id, student_id FROM students WHERE user_id >= ?")) {
+        ps.setInt(1, FIRST_USER_ID);
+        try (ResultSet rs = ps.executeQuery()) {
+          while (rs.next())
+            studentOfUser.put(rs.getInt(1), rs.getInt(2));
+        }
+      }
+
+      try (PreparedStatement ps = con.prepareStatement(
+          "INSERT INTO enrollments (student_id, section_id, status) VALUES (?, ?, 'ENROLLED')")) {
+        for (int i = 0; i < STUDENTS; i++) {
+          int userId = FIRST_USER_ID + i;
+          List<Integer> mine = new ArrayList<>();
+          while (mine.size() < SECTIONS_PER_STUDENT) {
+            int section = sections.get(rnd.nextInt(sections.size()));
+            if (!mine.contains(section)) {
+              mine.add(section);
+              ps.setInt(1, studentOfUser.get(userId));
+              ps.setInt(2, section);
+              ps.addBatch();
+            }
+          }
+          sectionsOfUser.put(userId, mine);
+        }
+        ps.executeBatch();
+      }
+      con.commit();
+    }
+  }
+
+  @Test
+  void pullVersusFanOut() throws Exception {
+    int sender = TestDatabase.authUser("INSTRUCTOR");
+    Random rnd = new Random(12);
+
+    long pullSendNanos = 0;
+    long fanOutSendNanos = 0;
+    for (int i = 0; i < NOTIFICATIONS; i++) {
+      String type;
+      Integer target;
+      switch (rnd.nextInt(10)) {
+        case 0 -> { type = "ALL_STUDENTS"; target = null; }
+        case 1, 2, 3 -> { type = "COURSE"; target = courses.get(rnd.nextInt(courses.size())); }
+        default -> { type = "SECTION"; target = sections.get(rnd.nextInt(sections.size())); }
+      }
+      long t0 = System.nanoTime();
+      int id = dao.insert(sender, type, target, "title " + i, "message " + i);
+      long t1 = System.nanoTime();
+      dao.fanOut(id, id);
+      long t2 = System.nanoTime();
+      pullSendNanos += t1 - t0;
+      fanOutSendNanos += t2 - t0;
+    }
+
+    List<Integer> readers = new ArrayList<>(sectionsOfUser.keySet()).subList(0, READERS);
+    long pullReadNanos = 0;
+    long fanOutReadNanos = 0;
+    for (int userId : readers) {
+      List<Integer> mySections = sectionsOfUser.get(userId);
+      List<Integer> myCourses = mySections.stream().map(courseOfSection::get).distinct().toList();
+
+      long t0 = System.nanoTime();
+      List<Notification> pulled = dao.fetchNewer("STUDENT", userId, mySections, myCourses, 0, PAGE);
+      long t1 = System.nanoTime();
+      List<Notification> fannedOut = dao.inboxNewer(userId, 0, PAGE);
+      long t2 = System.nanoTime();
+      pullReadNanos += t1 - t0;
+      fanOutReadNanos += t2 - t1;
+
+      assertEquals(ids(pulled), ids(fannedOut), "userId " + userId);
+    }
+
+    int inboxRows = TestDatabase.count("SELECT COUNT(*) FROM notification_inbox");
+    log.info(String.format("send: pull %.2f ms, fan-out %.2f ms per notification (%d inbox rows, %.0f per send)",
+        ms(pullSendNanos) / NOTIFICATIONS, ms(fanOutSendNanos) / NOTIFICATIONS, inboxRows,
+        (double) inboxRows / NOTIFICATIONS));
+    log.info(String.format("read: pull %.2f ms, fan-out %.2f ms per first page of %d",
+        ms(pullReadNanos) / READERS, ms(fanOutReadNanos) / READERS, PAGE));
+    assertTrue(fanOutReadNanos < pullReadNanos, "fan-out should make the first page cheaper to read");
+  }
+
+  private static List<Integer> ids(List<Notification> list) {
+    return list.stream().map(Notification::getNotifId).toList();
+  }
+
+  private static double ms(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+}
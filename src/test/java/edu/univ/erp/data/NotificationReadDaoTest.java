@@ -0,0 +1,50 @@
+package edu.univ.erp.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.univ.erp.util.IdRangeSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NotificationReadDaoTest {
+
+  private final NotificationReadDao dao = new NotificationReadDao();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    TestDatabase.start();
+    TestDatabase.reset();
+  }
+
+  // Scattered single marks add a run each; far more of them than fit in
+  // VARBINARY(8192) must still save, keeping the newest marks exact.
+  @Test
+  void sparseMarksAreCollapsedToFitTheColumn() {
+    IdRangeSet read = new IdRangeSet();
+    for (int id = 1_000_001; id <= 1_030_000; id += 3)
+      read.add(id);
+    assertTrue(read.runCount() > NotificationReadDao.MAX_RUNS);
+
+    dao.save(42, read);
+    IdRangeSet stored = dao.load(42, false);
+
+    assertEquals(read, stored);
+    assertTrue(stored.runCount() <= NotificationReadDao.MAX_RUNS);
+    assertTrue(stored.encode().length <= 8192);
+    assertTrue(stored.contains(1_029_998));
+    assertFalse(stored.contains(1_029_997));
+    assertTrue(stored.contains(1), "oldest gaps count as read");
+  }
+
+  @Test
+  void smallHistoryRoundTrips() {
+    IdRangeSet read = new IdRangeSet();
+    read.addRange(1, 500);
+    read.add(700);
+    dao.save(7, read);
+    assertEquals(read, dao.load(7, false));
+    assertTrue(dao.load(8, false).isEmpty());
+  }
+}
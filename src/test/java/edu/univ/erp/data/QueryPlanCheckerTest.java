@@ -0,0 +1,21 @@
+package edu.univ.erp.data;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class QueryPlanCheckerTest {
+
+  @BeforeEach
+  void setUp() throws Exception {
+    TestDatabase.start();
+  }
+
+  // Plans on an almost empty test schema say little, but every probe must
+  // still be a statement EXPLAIN accepts with the parameters it binds.
+  @Test
+  void everyProbeExplains() {
+    assertNotNull(QueryPlanChecker.check());
+  }
+}
@@ -0,0 +1,64 @@
+package edu.univ.erp.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.univ.erp.exception.SectionFullException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RegistrationDaoConcurrencyTest {
+
+  private static final int THREADS = 30;
+  private static final int CAPACITY = 5;
+
+  private final RegistrationDao dao = new RegistrationDao();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    TestDatabase.start();
+    TestDatabase.reset();
+  }
+
+  // Everyone races for the same few seats; the section lock must let
+  // exactly CAPACITY of them in and turn the rest away as full.
+  @Test
+  void concurrentRegistrationsNeverOverbook() throws Exception {
+    int section = TestDatabase.section(TestDatabase.course(), CAPACITY);
+    List<Integer> students = new ArrayList<>();
+    for (int i = 0; i < THREADS; i++)
+      students.add(TestDatabase.student());
+
+    ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch go = new CountDownLatch(1);
+    List<Future<Boolean>> results = new ArrayList<>();
+    for (int student : students) {
+      results.add(pool.submit(() -> {
+        go.await();
+        try {
+          dao.register(student, section);
+          return true;
+        } catch (SectionFullException e) {
+          return false;
+        }
+      }));
+    }
+    go.countDown();
+
+    int admitted = 0;
+    for (Future<Boolean> f : results) {
+      if (f.get(60, TimeUnit.SECONDS))
+        admitted++;
+    }
+    pool.shutdown();
+
+    assertEquals(CAPACITY, admitted);
+    assertEquals(CAPACITY, TestDatabase.enrolled(section));
+  }
+}
@@ -0,0 +1,119 @@
+package edu.univ.erp.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.univ.erp.domain.grades.*;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Mapping one section's grades (the class stats scan: 1000 enrollments x
+// 10 components) the old way, SELECT * with every column looked up by
+// name on every row, against GradeDao's RowMapper through queryList and
+// queryStream. Logs ms per scan and rows per second; asserts queryList
+// beats the by-name loop.
+@Tag("benchmark")
+class RowMapperBenchmarkTest {
+
+  private static final Logger log = LoggerFactory.getLogger(RowMapperBenchmarkTest.class);
+
+  private static final int STUDENTS = 1_000;
+  private static final int COMPONENTS = 10;
+  private static final int WARMUP = 5;
+  private static final int RUNS = 20;
+
+  private static final String BY_NAME_SQL = """
+      SELECT g.* FROM grades g
+      JOIN enrollments e ON e.enrollment_id = g.enrollment_id
+      WHERE e.section_id = ?
+      """;
+  private static final String MAPPED_SQL = """
+      SELECT g.component_type, g.component_name, g.score, g.max_score, g.weightage
+      FROM grades g
+      JOIN enrollments e ON e.enrollment_id = g.enrollment_id
+      WHERE e.section_id = ?
+      """;
+
+  private final GradeDao dao = new GradeDao();
+  private int section;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    TestDatabase.start();
+    TestDatabase.reset();
+
+    section = TestDatabase.section(TestDatabase.course(), STUDENTS);
+    List<Object[]> rows = new ArrayList<>();
+    for (int i = 0; i < STUDENTS; i++) {
+      int enrollment = TestDatabase.enroll(TestDatabase.student(), section);
+      for (int c = 0; c < COMPONENTS; c++)
+        rows.add(new Object[] {enrollment, "QUIZ", "Quiz " + c, 7.5, 10, 5});
+    }
+    dao.insertBatch(rows);
+  }
+
+  interface Scan {
+    List<GradeComponent> run(Connection con) throws Exception;
+  }
+
+  @Test
+  void byNameVersusRowMapper() throws Exception {
+    double byName = time("by name", this::byName);
+    double list = time("queryList", con -> dao.queryList(con, MAPPED_SQL, GradeDao.GRADE, section));
+    double stream = time("queryStream", con -> {
+      try (Stream<GradeComponent> s = dao.queryStream(con, MAPPED_SQL, GradeDao.GRADE, section)) {
+        return s.toList();
+      }
+    });
+    log.info(String.format("grade mapping: by name %.2f ms, queryList %.2f ms, queryStream %.2f ms"
+        + " per scan of %d rows", byName, list, stream, STUDENTS * COMPONENTS));
+    assertTrue(list < byName, "mapping by cached column index should be faster than by name");
+  }
+
+  // The pre-RowMapper GradeDao loop.
+  private List<GradeComponent> byName(Connection con) throws Exception {
+    try (PreparedStatement ps = con.prepareStatement(BY_NAME_SQL)) {
+      ps.setInt(1, section);
+      try (ResultSet rs = ps.executeQuery()) {
+        List<GradeComponent> list = new ArrayList<>();
+        while (rs.next()) {
+          GradeType type = GradeType.valueOf(rs.getString("component_type"));
+          String name = rs.getString("component_name");
+          double score = rs.getDouble("score");
+          double max = rs.getDouble("max_score");
+          double weight = rs.getDouble("weightage");
+          list.add(switch (type) {
+            case QUIZ -> new QuizComponent(name, score, max, weight);
+            case MIDSEM -> new MidsemComponent(name, score, max, weight);
+            case ENDSEM -> new EndsemComponent(name, score, max, weight);
+            case ASSIGNMENT -> new AssignmentComponent(name, score, max, weight);
+            case PROJECT -> new ProjectComponent(name, score, max, weight);
+          });
+        }
+        return list;
+      }
+    }
+  }
+
+  private double time(String label, Scan scan) throws Exception {
+    try (Connection con = DBPool.erp().getConnection()) {
+      for (int i = 0; i < WARMUP; i++)
+        assertEquals(STUDENTS * COMPONENTS, scan.run(con).size(), label);
+      long start = System.nanoTime();
+      for (int i = 0; i < RUNS; i++)
+        scan.run(con);
+      double ms = (System.nanoTime() - start) / 1_000_000.0 / RUNS;
+      log.info(String.format("%s: %.2f ms per scan, %.0f rows/s", label, ms, STUDENTS * COMPONENTS / ms * 1000));
+      return ms;
+    }
+  }
+}
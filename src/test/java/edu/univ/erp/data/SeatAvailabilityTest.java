@@ -0,0 +1,50 @@
+package edu.univ.erp.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.univ.erp.domain.SeatCount;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SeatAvailabilityTest {
+
+  @BeforeEach
+  void setUp() throws Exception {
+    TestDatabase.start();
+    TestDatabase.reset();
+  }
+
+  // Changes made by "another client" straight in the database reach the
+  // courses this client holds, including a newly added section.
+  @Test
+  void reconcileRefreshesHeldCourses() throws Exception {
+    int course = TestDatabase.course();
+    int section = TestDatabase.section(course, 10);
+    TestDatabase.enroll(TestDatabase.student(), section);
+
+    assertEquals(1, SeatAvailability.forCourse(course).get(section).enrolled());
+
+    TestDatabase.enroll(TestDatabase.student(), section);
+    int added = TestDatabase.section(course, 5);
+    SeatAvailability.reconcile();
+
+    Map<Integer, SeatCount> seats = SeatAvailability.forCourse(course);
+    assertEquals(2, seats.get(section).enrolled());
+    assertTrue(seats.containsKey(added));
+  }
+
+  @Test
+  void deletedSectionsAreDropped() throws Exception {
+    int course = TestDatabase.course();
+    int kept = TestDatabase.section(course, 10);
+    int deleted = TestDatabase.section(course, 10);
+    assertEquals(2, SeatAvailability.forCourse(course).size());
+
+    TestDatabase.insert("DELETE FROM sections WHERE section_id = ?", deleted);
+    SeatAvailability.reconcile();
+
+    assertEquals(Map.of(kept, SeatAvailability.forSection(kept)), SeatAvailability.forCourse(course));
+  }
+}
@@ -0,0 +1,177 @@
+package edu.univ.erp.data;
+
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import org.junit.jupiter.api.Assumptions;
+
+// One embedded MariaDB per test JVM, loaded with the docker-init schemas and
+// wired into DBPool the way Main does it. Tests that need it call start();
+// on machines where the server cannot run they are skipped, not failed.
+public final class TestDatabase {
+
+  private static DB db;
+  private static String baseUrl;
+  private static Throwable failure;
+
+  private TestDatabase() {
+  }
+
+  public static synchronized void start() {
+    if (db == null && failure == null) {
+      try {
+        boot();
+      } catch (Throwable t) {
+        failure = t;
+      }
+    }
+    Assumptions.assumeTrue(failure == null, () -> "embedded MariaDB unavailable: " + failure);
+  }
+
+  private static void boot() throws Exception {
+    DBConfigurationBuilder cfg = DBConfigurationBuilder.newBuilder();
+    cfg.setPort(0);
+    if ("root".equals(System.getProperty("user.name")))
+      cfg.addArg("--user=root");
+    db = DB.newEmbeddedDB(cfg.build());
+    db.start();
+
+    baseUrl = "jdbc:mariadb://localhost:" + cfg.getPort() + "/";
+    try (Connection con = DriverManager.getConnection(baseUrl, "root", "")) {
+      runScript(con, Path.of("docker-init", "auth_schema.sql"));
+      runScript(con, Path.of("docker-init", "erp_schema.sql"));
+    }
+
+    Properties props = new Properties();
+    props.setProperty("db.auth.url", baseUrl + "authdb");
+    props.setProperty("db.erp.url", baseUrl + "erpdb");
+    props.setProperty("db.user", "root");
+    props.setProperty("db.pass", "");
+    props.setProperty("db.pool.max", "20");
+    props.setProperty("db.pool.control.enabled", "false");
+    props.setProperty("db.migrate", "false");
+    DBPool.init(props);
+  }
+
+  // A connection to erpdb outside the pools, with extra driver options
+  // (e.g. "useBulkStmts=false").
+  public static Connection connect(String options) throws SQLException {
+    return DriverManager.getConnection(baseUrl + "erpdb?" + options, "root", "");
+  }
+
+  // The schema files are plain statements separated by ';' (no routines).
+  private static void runScript(Connection con, Path file) throws Exception {
+    StringBuilder sql = new StringBuilder();
+    for (String line : Files.readAllLines(file)) {
+      String trimmed = line.trim();
+      if (trimmed.startsWith("--"))
+        continue;
+      sql.append(line).append('\n');
+    }
+    try (Statement st = con.createStatement()) {
+      for (String stmt : sql.toString().split(";")) {
+        if (!stmt.isBlank())
+          st.execute(stmt);
+      }
+    }
+  }
+
+  // Empties the ERP tables between tests; auth users are kept. DELETE, not
+  // TRUNCATE, so ids keep counting up and are never reused across tests.
+  public static void reset() throws SQLException {
+    try (Connection con = DBPool.erp().getConnection(); Statement st = con.createStatement()) {
+      st.execute("SET FOREIGN_KEY_CHECKS = 0");
+      try (ResultSet rs = con.getMetaData().getTables("erpdb", null, "%", new String[] {"TABLE"})) {
+        List<String> tables = new ArrayList<>();
+        while (rs.next())
+          tables.add(rs.getString("TABLE_NAME"));
+        for (String t : tables) {
+          if (!t.equals("settings") && !t.equals("change_log") && !t.equals("schema_version"))
+            st.execute("DELETE FROM " + t);
+        }
+      }
+      st.execute("SET FOREIGN_KEY_CHECKS = 1");
+    }
+  }
+
+  private static int seq;
+
+  public static synchronized int course() throws SQLException {
+    seq++;
+    return insert("INSERT INTO courses (code, title, credits) VALUES (?, ?, 4)", "T" + seq, "Test course " + seq);
+  }
+
+  public static int section(int courseId, int capacity) throws SQLException {
+    return insert("INSERT INTO sections (course_id, day_time, capacity, semester, year) "
+        + "VALUES (?, 'Mon 10:00', ?, 'Monsoon', 2026)", courseId, capacity);
+  }
+
+  public static synchronized int student() throws SQLException {
+    seq++;
+    return insert("INSERT INTO students (user_id, roll_no, program, year) VALUES (?, ?, 'B.Tech', 2)",
+        100_000 + seq, "R" + seq);
+  }
+
+  public static synchronized int authUser(String role) throws SQLException {
+    seq++;
+    try (Connection con = DBPool.auth().getConnection();
+        PreparedStatement ps = con.prepareStatement(
+            "INSERT INTO users_auth (username, role, password_hash) VALUES (?, ?, 'x')",
+            Statement.RETURN_GENERATED_KEYS)) {
+      ps.setString(1, "user" + seq);
+      ps.setString(2, role);
+      ps.executeUpdate();
+      try (ResultSet rs = ps.getGeneratedKeys()) {
+        rs.next();
+        return rs.getInt(1);
+      }
+    }
+  }
+
+  public static int enroll(int studentId, int sectionId) throws SQLException {
+    return insert("INSERT INTO enrollments (student_id, section_id, status) VALUES (?, ?, 'ENROLLED')",
+        studentId, sectionId);
+  }
+
+  public static void waitlist(int studentId, int sectionId, int position) throws SQLException {
+    insert("INSERT INTO waitlist (section_id, student_id, position) VALUES (?, ?, ?)",
+        sectionId, studentId, position);
+  }
+
+  public static int enrolled(int sectionId) throws SQLException {
+    return count("SELECT COUNT(*) FROM enrollments WHERE section_id = ? AND status = 'ENROLLED'", sectionId);
+  }
+
+  public static int insert(String sql, Object... args) throws SQLException {
+    try (Connection con = DBPool.erp().getConnection();
+        PreparedStatement ps = con.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+      for (int i = 0; i < args.length; i++)
+        ps.setObject(i + 1, args[i]);
+      ps.executeUpdate();
+      try (ResultSet rs = ps.getGeneratedKeys()) {
+        return rs.next() ? rs.getInt(1) : 0;
+      }
+    }
+  }
+
+  public static int count(String sql, Object... args) throws SQLException {
+    try (Connection con = DBPool.erp().getConnection(); PreparedStatement ps = con.prepareStatement(sql)) {
+      for (int i = 0; i < args.length; i++)
+        ps.setObject(i + 1, args[i]);
+      try (ResultSet rs = ps.executeQuery()) {
+        rs.next();
+        return rs.getInt(1);
+      }
+    }
+  }
+}
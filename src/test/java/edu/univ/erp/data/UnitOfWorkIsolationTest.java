@@ -0,0 +1,50 @@
+package edu.univ.erp.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UnitOfWorkIsolationTest {
+
+  private final RegistrationDao dao = new RegistrationDao();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    TestDatabase.start();
+    TestDatabase.reset();
+  }
+
+  // The StudentService.drop shape: something is read inside the unit of
+  // work before the section is locked, another client takes the last seat,
+  // then the drop promotes from the waitlist. The promotion's seat count
+  // must see that registration, not the start-of-transaction snapshot.
+  @Test
+  void dropAfterEarlierReadDoesNotOverbook() throws Exception {
+    int section = TestDatabase.section(TestDatabase.course(), 3);
+    int a = TestDatabase.student();
+    int b = TestDatabase.student();
+    int c = TestDatabase.student();
+    int d = TestDatabase.student();
+    int w = TestDatabase.student();
+    int enrollmentA = TestDatabase.enroll(a, section);
+    TestDatabase.enroll(b, section);
+    TestDatabase.waitlist(c, section, 1);
+    TestDatabase.waitlist(w, section, 2);
+
+    UnitOfWork.inTransaction(() -> {
+      try {
+        assertEquals(2, TestDatabase.enrolled(section));
+        CompletableFuture.runAsync(() -> dao.register(d, section)).get(30, TimeUnit.SECONDS);
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+      dao.drop(a, enrollmentA, section);
+    });
+
+    assertEquals(3, TestDatabase.enrolled(section));
+    assertEquals(1, TestDatabase.count("SELECT COUNT(*) FROM waitlist WHERE section_id = ?", section));
+  }
+}
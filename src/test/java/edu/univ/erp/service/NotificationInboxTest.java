@@ -0,0 +1,68 @@
+package edu.univ.erp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.univ.erp.data.NotificationDao;
+import edu.univ.erp.data.TestDatabase;
+import edu.univ.erp.domain.Admin;
+import edu.univ.erp.domain.Notification;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NotificationInboxTest {
+
+  private final NotificationDao dao = new NotificationDao();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    TestDatabase.start();
+    TestDatabase.reset();
+  }
+
+  // A sender's id that commits after a higher one was already fetched still
+  // reaches the inbox, and "mark all read" in between does not mark it.
+  @Test
+  void lateCommittedIdIsFetchedAndStaysUnread() throws Exception {
+    int sender = TestDatabase.authUser("INSTRUCTOR");
+    NotificationInbox inbox = NotificationInbox.forUser(new Admin(TestDatabase.authUser("ADMIN"), "admin"));
+    inbox.refresh();
+
+    try (Connection slow = TestDatabase.connect("")) {
+      slow.setAutoCommit(false);
+      int late = insertAll(slow, sender);
+      int early = dao.insert(sender, "ALL", null, "early", "committed first");
+      assertTrue(early > late);
+
+      assertEquals(1, inbox.refresh());
+      inbox.markAllRead();
+      assertTrue(inbox.isRead(early));
+
+      slow.commit();
+      assertEquals(1, inbox.refresh());
+      assertEquals(early, inbox.items().get(0).getNotifId());
+      assertEquals(late, inbox.items().get(1).getNotifId());
+      assertFalse(inbox.isRead(late));
+      assertEquals(0, inbox.refresh());
+      assertEquals(2, inbox.items().stream().map(Notification::getNotifId).distinct().count());
+    }
+  }
+
+  private static int insertAll(Connection con, int sender) throws Exception {
+    try (PreparedStatement ps = con.prepareStatement(
+        "INSERT INTO notifications (sender_user_id, target_type, title, message) VALUES (?, 'ALL', 'late', 'x')",
+        Statement.RETURN_GENERATED_KEYS)) {
+      ps.setInt(1, sender);
+      ps.executeUpdate();
+      try (ResultSet rs = ps.getGeneratedKeys()) {
+        rs.next();
+        return rs.getInt(1);
+      }
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package edu.univ.erp.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.univ.erp.data.TestDatabase;
+import edu.univ.erp.exception.ValidationException;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RegistrationQueueTest {
+
+  private int section;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    TestDatabase.start();
+    TestDatabase.reset();
+    section = TestDatabase.section(TestDatabase.course(), 10);
+  }
+
+  @AfterEach
+  void tearDown() {
+    RegistrationQueue.shutdown();
+  }
+
+  // One worker, one dispatch every 5 s: the first ticket goes through, the
+  // second waits for its slot and the third stays queued.
+  private static RegistrationQueue slowQueue(long waitMs) {
+    Properties props = new Properties();
+    props.setProperty("registration.queue.workers", "1");
+    props.setProperty("registration.queue.rate", "0.2");
+    props.setProperty("registration.queue.wait.ms", String.valueOf(waitMs));
+    RegistrationQueue.init(props);
+    return RegistrationQueue.get();
+  }
+
+  @Test
+  void shutdownFailsQueuedTickets() throws Exception {
+    RegistrationQueue q = slowQueue(30_000);
+    RegistrationQueue.Ticket first = q.submit(TestDatabase.student(), section);
+    first.getResult().get(5, TimeUnit.SECONDS);
+    RegistrationQueue.Ticket second = q.submit(TestDatabase.student(), section);
+    RegistrationQueue.Ticket third = q.submit(TestDatabase.student(), section);
+
+    RegistrationQueue.shutdown();
+
+    for (RegistrationQueue.Ticket t : new RegistrationQueue.Ticket[] {second, third}) {
+      ExecutionException e = assertThrows(ExecutionException.class, () -> t.getResult().get(2, TimeUnit.SECONDS));
+      assertTrue(e.getCause() instanceof ValidationException);
+    }
+    assertThrows(ValidationException.class, () -> q.submit(TestDatabase.student(), section));
+    assertEquals(1, TestDatabase.enrolled(section));
+  }
+
+  @Test
+  void awaitWithdrawsTicketStillQueued() throws Exception {
+    RegistrationQueue q = slowQueue(300);
+    q.await(q.submit(TestDatabase.student(), section));
+    q.submit(TestDatabase.student(), section);
+    RegistrationQueue.Ticket third = q.submit(TestDatabase.student(), section);
+
+    assertThrows(ValidationException.class, () -> q.await(third));
+    assertTrue(third.getResult().isCompletedExceptionally());
+    assertEquals(0, q.getQueueDepth());
+  }
+}
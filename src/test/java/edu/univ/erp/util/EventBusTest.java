@@ -0,0 +1,120 @@
+package edu.univ.erp.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+import org.junit.jupiter.api.Test;
+
+class EventBusTest {
+
+  private static final int PUBLISHERS = 8;
+  private static final int EVENTS_EACH = 5_000;
+
+  record Event(int publisher, int seq) {
+  }
+
+  // Every event arrives, and each publisher's events arrive in the order it
+  // published them, on the plain and on the EDT subscription alike.
+  @Test
+  void concurrentPublishersKeepPerPublisherOrder() throws Exception {
+    EventBus.Topic<Event> topic = new EventBus.Topic<>("test.order");
+    int total = PUBLISHERS * EVENTS_EACH;
+
+    List<Event> direct = new CopyOnWriteArrayList<>();
+    CountDownLatch directDone = new CountDownLatch(total);
+    EventBus.subscribe(topic, e -> {
+      direct.add(e);
+      directDone.countDown();
+    });
+
+    List<Event> onEdt = new ArrayList<>();
+    List<Integer> batchSizes = new ArrayList<>();
+    CountDownLatch edtDone = new CountDownLatch(total);
+    EventBus.subscribeOnEdt(topic, batch -> {
+      assertTrue(SwingUtilities.isEventDispatchThread());
+      batchSizes.add(batch.size());
+      onEdt.addAll(batch);
+      batch.forEach(e -> edtDone.countDown());
+    });
+
+    CountDownLatch go = new CountDownLatch(1);
+    List<Thread> publishers = new ArrayList<>();
+    for (int p = 0; p < PUBLISHERS; p++) {
+      int id = p;
+      Thread t = new Thread(() -> {
+        try {
+          go.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        for (int i = 0; i < EVENTS_EACH; i++)
+          EventBus.publish(topic, new Event(id, i));
+      });
+      t.start();
+      publishers.add(t);
+    }
+    go.countDown();
+    for (Thread t : publishers)
+      t.join();
+
+    assertTrue(directDone.await(30, TimeUnit.SECONDS), "direct subscriber missed events");
+    assertTrue(edtDone.await(30, TimeUnit.SECONDS), "EDT subscriber missed events");
+
+    assertInPublisherOrder(direct);
+    SwingUtilities.invokeAndWait(() -> {
+      assertInPublisherOrder(onEdt);
+      assertEquals(total, batchSizes.stream().mapToInt(Integer::intValue).sum());
+    });
+  }
+
+  // While the EDT is busy, a burst piles up and is handed over as one batch.
+  @Test
+  void burstWhileEdtBusyIsOneBatch() throws Exception {
+    EventBus.Topic<Event> topic = new EventBus.Topic<>("test.burst");
+    int burst = 1_000;
+
+    List<List<Event>> batches = new CopyOnWriteArrayList<>();
+    EventBus.subscribeOnEdt(topic, batches::add);
+    // registered second, so when it has seen the last event the EDT
+    // subscription has queued all of them
+    CountDownLatch queued = new CountDownLatch(burst);
+    EventBus.subscribe(topic, e -> queued.countDown());
+
+    CountDownLatch edtBlocked = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    SwingUtilities.invokeLater(() -> {
+      edtBlocked.countDown();
+      try {
+        release.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    assertTrue(edtBlocked.await(10, TimeUnit.SECONDS));
+
+    for (int i = 0; i < burst; i++)
+      EventBus.publish(topic, new Event(0, i));
+    assertTrue(queued.await(30, TimeUnit.SECONDS));
+    release.countDown();
+
+    SwingUtilities.invokeAndWait(() -> {
+    });
+    assertEquals(1, batches.size());
+    assertEquals(burst, batches.get(0).size());
+    assertInPublisherOrder(batches.get(0));
+  }
+
+  private static void assertInPublisherOrder(List<Event> events) {
+    int[] next = new int[PUBLISHERS];
+    for (Event e : events) {
+      assertEquals(next[e.publisher()], e.seq(), "out of order for publisher " + e.publisher());
+      next[e.publisher()]++;
+    }
+  }
+}
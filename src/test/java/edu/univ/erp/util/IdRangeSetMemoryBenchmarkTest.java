@@ -0,0 +1,90 @@
+package edu.univ.erp.util;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Read state of one user over 100k notifications, kept as an IdRangeSet
+// versus a HashSet<Integer> of read ids (what a per-id read table turns
+// into once loaded). Logs encoded and retained heap sizes; heap figures
+// are rough and a few-byte set shows as 0. The asserts only pin the orders
+// of magnitude.
+@Tag("benchmark")
+class IdRangeSetMemoryBenchmarkTest {
+
+  private static final Logger log = LoggerFactory.getLogger(IdRangeSetMemoryBenchmarkTest.class);
+
+  private static final int IDS = 100_000;
+  private static final int COPIES = 20;
+
+  @Test
+  void readStateFootprint() {
+    Random rnd = new Random(7);
+    log.info(String.format("%-22s %8s %6s %10s %12s %12s",
+        "pattern", "read", "runs", "encoded B", "ranges heap", "hashset heap"));
+
+    long sequential = report("read in order", id -> true);
+    report("90% read, in bursts", id -> (id / 50) % 10 != 0);
+    long sparse = report("every 3rd id read", id -> id % 3 == 0);
+    report("random half read", id -> rnd.nextBoolean());
+
+    assertTrue(sequential < 16, "a fully read history should encode to a few bytes");
+    assertTrue(sparse < IDS, "sparse marks should still encode below one byte per id");
+  }
+
+  private static long report(String name, IntPredicate isRead) {
+    IdRangeSet ranges = new IdRangeSet();
+    int read = 0;
+    for (int id = 1; id <= IDS; id++) {
+      if (isRead.test(id)) {
+        ranges.add(id);
+        read++;
+      }
+    }
+    int[] readIds = new int[read];
+    for (int id = 1, i = 0; id <= IDS; id++) {
+      if (ranges.contains(id))
+        readIds[i++] = id;
+    }
+
+    long encoded = ranges.encode().length;
+    long rangesHeap = retained(() -> IdRangeSet.decode(ranges.encode()));
+    long hashHeap = retained(() -> {
+      Set<Integer> s = new HashSet<>();
+      for (int id : readIds)
+        s.add(id);
+      return s;
+    });
+
+    log.info(String.format("%-22s %8d %6d %10d %12d %12d",
+        name, read, ranges.runCount(), encoded, rangesHeap, hashHeap));
+    return encoded;
+  }
+
+  // Rough bytes retained per instance, averaged over a few copies.
+  private static long retained(Supplier<Object> make) {
+    Object[] keep = new Object[COPIES];
+    long before = usedAfterGc();
+    for (int i = 0; i < COPIES; i++)
+      keep[i] = make.get();
+    long after = usedAfterGc();
+    if (keep[COPIES - 1] == null)
+      throw new AssertionError();
+    return Math.max(0, (after - before) / COPIES);
+  }
+
+  private static long usedAfterGc() {
+    Runtime rt = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++)
+      System.gc();
+    return rt.totalMemory() - rt.freeMemory();
+  }
+}
@@ -0,0 +1,107 @@
+package edu.univ.erp.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+class IdRangeSetTest {
+
+  @Test
+  void adjacentAndOverlappingIdsMergeIntoOneRun() {
+    IdRangeSet set = new IdRangeSet();
+    set.add(5);
+    set.add(7);
+    assertEquals(2, set.runCount());
+    set.add(6);
+    assertEquals(1, set.runCount());
+    set.addRange(1, 4);
+    set.addRange(3, 10);
+    assertEquals(1, set.runCount());
+    assertEquals(10, set.contiguousPrefix());
+    assertEquals(10, set.cardinality());
+    assertEquals("[1..10]", set.toString());
+  }
+
+  @Test
+  void rangeSpanningSeveralRunsSwallowsThem() {
+    IdRangeSet set = new IdRangeSet();
+    for (int id = 10; id <= 100; id += 10)
+      set.add(id);
+    assertEquals(10, set.runCount());
+    set.addRange(25, 75);
+    assertEquals("[10, 20, 25..75, 80, 90, 100]", set.toString());
+    assertTrue(set.contains(50));
+    assertFalse(set.contains(24));
+    assertFalse(set.contains(76));
+    assertEquals(0, set.contiguousPrefix());
+  }
+
+  @Test
+  void matchesTreeSetOnRandomInput() {
+    Random rnd = new Random(42);
+    IdRangeSet set = new IdRangeSet();
+    TreeSet<Integer> expected = new TreeSet<>();
+    for (int i = 0; i < 5_000; i++) {
+      int from = 1 + rnd.nextInt(2_000);
+      int to = from + (rnd.nextInt(4) == 0 ? rnd.nextInt(20) : 0);
+      set.addRange(from, to);
+      for (int id = from; id <= to; id++)
+        expected.add(id);
+    }
+    for (int id = 1; id <= 2_100; id++)
+      assertEquals(expected.contains(id), set.contains(id), "id " + id);
+    assertEquals(expected.size(), set.cardinality());
+  }
+
+  @Test
+  void encodeRoundTrips() {
+    IdRangeSet set = new IdRangeSet();
+    set.addAll(List.of(1, 2, 3, 9, 200, 201, 70_000));
+    set.addRange(1_000_000, 1_000_500);
+    set.add(Integer.MAX_VALUE);
+
+    IdRangeSet decoded = IdRangeSet.decode(set.encode());
+    assertEquals(set, decoded);
+    assertEquals(set.hashCode(), decoded.hashCode());
+    assertTrue(IdRangeSet.decode(null).isEmpty());
+    assertArrayEquals(new byte[] { 0 }, new IdRangeSet().encode());
+  }
+
+  @Test
+  void decodeRejectsCorruptData() {
+    IdRangeSet set = new IdRangeSet();
+    set.addRange(5, 10);
+    set.add(20);
+    byte[] data = set.encode();
+    assertThrows(IllegalArgumentException.class, () -> IdRangeSet.decode(Arrays.copyOf(data, data.length - 1)));
+    assertThrows(IllegalArgumentException.class, () -> IdRangeSet.decode(new byte[] { 1, 0, 0 }));
+  }
+
+  @Test
+  void invalidRangesAreRejected() {
+    IdRangeSet set = new IdRangeSet();
+    assertThrows(IllegalArgumentException.class, () -> set.add(0));
+    assertThrows(IllegalArgumentException.class, () -> set.addRange(5, 4));
+  }
+
+  @Test
+  void collapseFillsOldestGaps() {
+    IdRangeSet set = new IdRangeSet();
+    for (int id = 2; id <= 20; id += 2)
+      set.add(id);
+    assertEquals(0, set.collapseTo(10));
+    assertEquals(10, set.runCount());
+
+    assertEquals(14, set.collapseTo(4));
+    assertEquals("[1..14, 16, 18, 20]", set.toString());
+    assertEquals(14, set.contiguousPrefix());
+  }
+}